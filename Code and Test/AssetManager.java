@@ -0,0 +1,335 @@
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the game's images in the background so screens never wait for a file to be decoded.
+ * <p>
+ * At startup {@link #preload(ProgressListener)} scans {@code resources/} and decodes every
+ * image on a pool of worker threads, reporting progress as it goes. Scaled versions are made
+ * on the same pool the first time a size is asked for, or ahead of time with
+ * {@link #loadIcon(String, int, int)}. Each image and each size is decoded or scaled once,
+ * however many screens ask for it at the same time.
+ * <p>
+ * Screens read assets without blocking: {@link #getIcon(String, int, int, Consumer)} returns the
+ * finished icon if it is ready, otherwise a transparent placeholder of the same size, and hands
+ * the real icon to a callback on the event dispatch thread as soon as it is done. An image that
+ * is missing or unreadable keeps its placeholder.
+ * <p>
+ * Pet sprites and UI icons are not decoded one by one but taken from the {@link TextureAtlas},
+ * which is loaded once on the pool. An icon asked for at the size it is packed at is drawn
+ * straight from the atlas.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * AssetManager assets = AssetManager.getInstance();
+ * assets.preload((loaded, total) -> ...);
+ * label.setIcon(assets.getIcon("resources/home.png", 50, 50, label::setIcon));
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class AssetManager {
+
+    /**
+     * Receives the progress of {@link #preload(ProgressListener)}. Called on a worker thread.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after each image is decoded.
+         *
+         * @param loaded number of images decoded so far
+         * @param total  number of images found
+         */
+        void onProgress(int loaded, int total);
+    }
+
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".png", ".jpg", ".jpeg", ".gif", ".bmp");
+
+    private static AssetManager instance;
+
+    private final File root;
+    private final TextureAtlas atlas;
+    private final ExecutorService pool;
+    // Decoded images by path, and scaled icons by path and size; null results mark missing files
+    private final Map<String, CompletableFuture<BufferedImage>> images = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ImageIcon>> icons = new ConcurrentHashMap<>();
+    private final Map<Long, ImageIcon> placeholders = new ConcurrentHashMap<>();
+    private final AtomicInteger decodeCount = new AtomicInteger();
+    private final AtomicInteger loadedCount = new AtomicInteger();
+    private volatile int totalCount;
+    private volatile CompletableFuture<Void> preloaded;
+    private final CompletableFuture<TextureAtlas> atlasLoaded = new CompletableFuture<>();
+    private final AtomicBoolean atlasStarted = new AtomicBoolean();
+
+    /**
+     * Creates an asset manager for a resource directory.
+     *
+     * @param root    the directory scanned by {@link #preload(ProgressListener)}
+     * @param threads number of worker threads
+     */
+    AssetManager(File root, int threads) {
+        this(root, new TextureAtlas(root), threads);
+    }
+
+    /**
+     * Creates an asset manager for a resource directory whose sprites and icons are packed in
+     * an atlas.
+     *
+     * @param root    the directory scanned by {@link #preload(ProgressListener)}
+     * @param atlas   the atlas of the directory
+     * @param threads number of worker threads
+     */
+    AssetManager(File root, TextureAtlas atlas, int threads) {
+        this.root = root;
+        this.atlas = atlas;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "asset-loader-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the asset manager for the game's {@code resources} directory.
+     *
+     * @return the shared AssetManager instance
+     */
+    public static synchronized AssetManager getInstance() {
+        if (instance == null) {
+            instance = new AssetManager(new File("resources"), TextureAtlas.getInstance(),
+                    Math.max(2, Runtime.getRuntime().availableProcessors()));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the worker pool, for other slow startup work such as decoding music.
+     *
+     * @return the asset loader executor
+     */
+    public ExecutorService executor() {
+        return pool;
+    }
+
+    /**
+     * Starts decoding every image under the resource directory in parallel, with the atlas
+     * counting as one image in place of those packed in it. Calling it again returns the same
+     * future.
+     *
+     * @param listener told about the progress, or null
+     * @return a future that completes when every image found was decoded or failed
+     */
+    public synchronized CompletableFuture<Void> preload(ProgressListener listener) {
+        if (preloaded != null) {
+            return preloaded;
+        }
+        List<String> paths;
+        try (Stream<Path> files = Files.walk(root.toPath())) {
+            paths = files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().equals(TextureAtlas.IMAGE_FILE))
+                    .map(Path::toString)
+                    .filter(AssetManager::isImage)
+                    .filter(path -> atlas.nameOf(path) == null)
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Failed to scan assets in " + root + ": " + e.getMessage());
+            paths = List.of();
+        }
+
+        List<CompletableFuture<?>> work = paths.stream().map(this::image).collect(Collectors.toList());
+        work.add(atlas());
+        int total = work.size();
+        totalCount = total;
+        CompletableFuture<?>[] all = new CompletableFuture<?>[total];
+        for (int i = 0; i < total; i++) {
+            all[i] = work.get(i).whenComplete((result, error) -> {
+                int done = loadedCount.incrementAndGet();
+                if (listener != null) {
+                    listener.onProgress(done, total);
+                }
+            });
+        }
+        preloaded = CompletableFuture.allOf(all);
+        return preloaded;
+    }
+
+    /**
+     * @return true once {@link #preload(ProgressListener)} has finished
+     */
+    public boolean isPreloaded() {
+        CompletableFuture<Void> future = preloaded;
+        return future != null && future.isDone();
+    }
+
+    /**
+     * Returns a decoded image without waiting.
+     *
+     * @param path    path of the image file
+     * @param onReady run on the event dispatch thread when the image is ready, if it was not
+     *                ready yet; may be null
+     * @return the image, or null while it is loading or if it is missing
+     */
+    public BufferedImage getImage(String path, Runnable onReady) {
+        CompletableFuture<BufferedImage> future = image(path);
+        if (future.isDone()) {
+            return future.join();
+        }
+        if (onReady != null) {
+            future.thenAccept(image -> {
+                if (image != null) {
+                    SwingUtilities.invokeLater(onReady);
+                }
+            });
+        }
+        return null;
+    }
+
+    /**
+     * Returns an icon scaled to the given size without waiting.
+     *
+     * @param path    path of the image file
+     * @param width   icon width in pixels
+     * @param height  icon height in pixels
+     * @param onReady receives the icon on the event dispatch thread when it is ready, if it was
+     *                not ready yet; may be null
+     * @return the icon, or a transparent placeholder of the same size while it is loading or if
+     *         the image is missing
+     */
+    public ImageIcon getIcon(String path, int width, int height, Consumer<ImageIcon> onReady) {
+        CompletableFuture<ImageIcon> future = loadIcon(path, width, height);
+        if (future.isDone()) {
+            ImageIcon icon = future.join();
+            return icon != null ? icon : placeholder(width, height);
+        }
+        if (onReady != null) {
+            future.thenAccept(icon -> {
+                if (icon != null) {
+                    SwingUtilities.invokeLater(() -> onReady.accept(icon));
+                }
+            });
+        }
+        return placeholder(width, height);
+    }
+
+    /**
+     * Loads and scales an icon in the background, or returns the one already made.
+     *
+     * @param path   path of the image file
+     * @param width  icon width in pixels
+     * @param height icon height in pixels
+     * @return a future that completes with the icon, or with null if the image is missing
+     */
+    public CompletableFuture<ImageIcon> loadIcon(String path, int width, int height) {
+        String key = normalize(path) + '@' + width + 'x' + height;
+        return icons.computeIfAbsent(key, k -> image(path).thenApplyAsync(image -> {
+            if (image == null) {
+                return null;
+            }
+            boolean sameSize = image.getWidth() == width && image.getHeight() == height;
+            return new ImageIcon(sameSize ? image : SpriteCache.scale(image, width, height));
+        }, pool));
+    }
+
+    /**
+     * @return number of images {@link #preload(ProgressListener)} has finished so far
+     */
+    public int getLoadedCount() {
+        return loadedCount.get();
+    }
+
+    /**
+     * @return number of images {@link #preload(ProgressListener)} found, or 0 before it ran
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return how many image files were decoded, for checking that each is decoded once
+     */
+    public int getDecodeCount() {
+        return decodeCount.get();
+    }
+
+    private CompletableFuture<BufferedImage> image(String path) {
+        String key = normalize(path);
+        return images.computeIfAbsent(key, k -> {
+            String packed = atlas.nameOf(k);
+            if (packed != null) {
+                return atlas().thenApply(a -> a.getRegion(packed));
+            }
+            return CompletableFuture.supplyAsync(() -> decode(new File(k)), pool);
+        });
+    }
+
+    /**
+     * Returns the atlas once it is loaded, starting to load or build it on the pool the first
+     * time. Takes no lock, as it is called while the image map is being updated.
+     *
+     * @return a future of the loaded atlas
+     */
+    private CompletableFuture<TextureAtlas> atlas() {
+        if (atlasStarted.compareAndSet(false, true)) {
+            pool.execute(() -> {
+                try {
+                    atlas.getImage();
+                    atlasLoaded.complete(atlas);
+                } catch (RuntimeException e) {
+                    atlasLoaded.completeExceptionally(e);
+                }
+            });
+        }
+        return atlasLoaded;
+    }
+
+    private BufferedImage decode(File file) {
+        decodeCount.incrementAndGet();
+        try {
+            BufferedImage image = file.isFile() ? ImageIO.read(file) : null;
+            if (image == null) {
+                System.err.println("Missing image " + file);
+            }
+            return image;
+        } catch (IOException e) {
+            System.err.println("Failed to read image " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private ImageIcon placeholder(int width, int height) {
+        long size = ((long) width << 32) | (height & 0xFFFFFFFFL);
+        return placeholders.computeIfAbsent(size, s ->
+                new ImageIcon(new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB)));
+    }
+
+    private static boolean isImage(String path) {
+        String lower = path.toLowerCase(Locale.ROOT);
+        return IMAGE_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
+
+    private static String normalize(String path) {
+        return Paths.get(path).normalize().toString().replace('\\', '/');
+    }
+}
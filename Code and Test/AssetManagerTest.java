@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AssetManagerTest {
+
+    @TempDir
+    Path dir;
+
+    private String writeImage(String name) throws IOException {
+        File file = dir.resolve(name).toFile();
+        file.getParentFile().mkdirs();
+        ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB), "png", file);
+        return file.getPath();
+    }
+
+    @Test
+    void preload_ImagesInSubdirectories_DecodedOnceAndProgressReported() throws Exception {
+        String duck = writeImage("duck/normal.png");
+        writeImage("dog/angry.png");
+        writeImage("background1.png");
+        writeImage("extra/background2.png");
+        AssetManager assets = new AssetManager(dir.toFile(), 4);
+        AtomicInteger lastTotal = new AtomicInteger();
+        AtomicInteger reports = new AtomicInteger();
+
+        assets.preload((loaded, total) -> {
+            lastTotal.set(total);
+            reports.incrementAndGet();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertTrue(assets.isPreloaded());
+        assertEquals(3, lastTotal.get());
+        assertEquals(3, reports.get());
+        assertEquals(3, assets.getLoadedCount());
+        assertEquals(3, assets.getTotalCount());
+
+        // The pet sprites come from the atlas, which counts as one image
+        ImageIcon icon = assets.loadIcon(duck, 100, 100).get(10, TimeUnit.SECONDS);
+        assertEquals(100, icon.getIconWidth());
+        assertEquals(100, icon.getIconHeight());
+        assertEquals(2, assets.getDecodeCount());
+    }
+
+    @Test
+    void getIcon_Loaded_ReturnsSameIconWithoutCallback() throws Exception {
+        String background = writeImage("background1.png");
+        AssetManager assets = new AssetManager(dir.toFile(), 2);
+        CompletableFuture<ImageIcon> loading = assets.loadIcon(background, 50, 50);
+        ImageIcon loaded = loading.get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(loaded, assets.getIcon(background, 50, 50, icon -> fail("already loaded")));
+        }
+        assertSame(loading, assets.loadIcon(dir.resolve("./background1.png").toString(), 50, 50));
+        assertEquals(1, assets.getDecodeCount());
+    }
+
+    @Test
+    void getIcon_Missing_PlaceholderOfRequestedSize() throws Exception {
+        AssetManager assets = new AssetManager(dir.toFile(), 2);
+        String missing = dir.resolve("warning.png").toString();
+
+        ImageIcon first = assets.getIcon(missing, 20, 20, null);
+        assertEquals(20, first.getIconWidth());
+        assertEquals(20, first.getIconHeight());
+        assertNull(assets.loadIcon(missing, 20, 20).get(10, TimeUnit.SECONDS));
+        assertSame(first, assets.getIcon(missing, 20, 20, null));
+        assertNull(assets.getImage(missing, null));
+    }
+}
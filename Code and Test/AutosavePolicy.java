@@ -0,0 +1,200 @@
+/**
+ * Decides when a running game should be autosaved, instead of saving on every timer tick.
+ * <p>
+ * Nothing is ever saved while the {@link GameState} is not dirty. Once it is, any of these
+ * triggers starts a save:
+ * <ul>
+ *   <li>{@link Trigger#STAT_CHANGE} – a stat or the score moved by at least the stat threshold
+ *       since the last save</li>
+ *   <li>{@link Trigger#ACTIONS} – the player performed the given number of actions</li>
+ *   <li>{@link Trigger#IDLE} – the state has not changed for the idle timeout, so the latest
+ *       changes are settled</li>
+ *   <li>{@link Trigger#STALENESS} – the oldest unsaved change is older than the maximum
+ *       staleness</li>
+ *   <li>{@link Trigger#SHUTDOWN} – the game is closing</li>
+ * </ul>
+ * A threshold or timeout of 0 turns that trigger off.
+ * <p>
+ * The policy is not thread-safe and is meant to be used from the thread that runs the game.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * AutosavePolicy policy = new AutosavePolicy();
+ *
+ * // On every tick or player action
+ * if (policy.evaluate(gameState, System.currentTimeMillis()) != null) {
+ *     save(gameState);
+ *     policy.saved(gameState, System.currentTimeMillis());
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class AutosavePolicy {
+
+    /** Reason a save was requested. */
+    public enum Trigger {
+        STAT_CHANGE, ACTIONS, IDLE, STALENESS, SHUTDOWN
+    }
+
+    /** Default stat or score difference that triggers a save. */
+    public static final int DEFAULT_STAT_THRESHOLD = 5;
+    /** Default number of player actions that triggers a save. */
+    public static final int DEFAULT_ACTION_THRESHOLD = 3;
+    /** Default idle time after the last change that triggers a save, in milliseconds. */
+    public static final long DEFAULT_IDLE_MILLIS = 5_000;
+    /** Default maximum age of an unsaved change, in milliseconds. */
+    public static final long DEFAULT_MAX_STALENESS_MILLIS = 30_000;
+
+    private int statThreshold = DEFAULT_STAT_THRESHOLD;
+    private int actionThreshold = DEFAULT_ACTION_THRESHOLD;
+    private long idleMillis = DEFAULT_IDLE_MILLIS;
+    private long maxStalenessMillis = DEFAULT_MAX_STALENESS_MILLIS;
+
+    // Values as of the last save
+    private int savedHealth, savedSleep, savedFullness, savedHappiness, savedScore;
+    private boolean hasBaseline = false;
+    private int actionsSinceSave = 0;
+    // Change count seen by the last evaluate() and when it was first seen
+    private long lastChangeCount = -1;
+    private long lastChangeAt;
+    // When the state first became dirty after the last save, -1 while clean
+    private long dirtySince = -1;
+
+    /**
+     * Sets the stat or score difference that triggers a save.
+     *
+     * @param statThreshold difference in points, 0 to disable
+     */
+    public void setStatThreshold(int statThreshold) {
+        this.statThreshold = statThreshold;
+    }
+
+    /**
+     * Sets the number of player actions that triggers a save.
+     *
+     * @param actionThreshold number of actions, 0 to disable
+     */
+    public void setActionThreshold(int actionThreshold) {
+        this.actionThreshold = actionThreshold;
+    }
+
+    /**
+     * Sets how long the state must stay unchanged before its changes are saved.
+     *
+     * @param idleMillis idle time in milliseconds, 0 to disable
+     */
+    public void setIdleMillis(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Sets the maximum time an unsaved change may wait.
+     *
+     * @param maxStalenessMillis maximum age in milliseconds, 0 to disable
+     */
+    public void setMaxStalenessMillis(long maxStalenessMillis) {
+        this.maxStalenessMillis = maxStalenessMillis;
+    }
+
+    /**
+     * Records one player action, such as feeding or playing.
+     */
+    public void recordAction() {
+        actionsSinceSave++;
+    }
+
+    /**
+     * Checks whether the state should be saved now.
+     *
+     * @param state the live game state
+     * @param now   current time in milliseconds
+     * @return the trigger that fired, or null if no save is needed
+     */
+    public Trigger evaluate(GameState state, long now) {
+        if (!hasBaseline) {
+            // First look at this game: what was loaded is what is on disk
+            remember(state);
+        }
+        long changeCount = state.getChangeCount();
+        if (changeCount != lastChangeCount) {
+            lastChangeCount = changeCount;
+            lastChangeAt = now;
+        }
+        if (!state.isDirty()) {
+            dirtySince = -1;
+            return null;
+        }
+        if (dirtySince < 0) {
+            dirtySince = now;
+        }
+
+        if (statThreshold > 0 && maxStatDifference(state) >= statThreshold) {
+            return Trigger.STAT_CHANGE;
+        }
+        if (actionThreshold > 0 && actionsSinceSave >= actionThreshold) {
+            return Trigger.ACTIONS;
+        }
+        if (maxStalenessMillis > 0 && now - dirtySince >= maxStalenessMillis) {
+            return Trigger.STALENESS;
+        }
+        if (idleMillis > 0 && now - lastChangeAt >= idleMillis) {
+            return Trigger.IDLE;
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the state must be saved before the game closes.
+     *
+     * @param state the live game state
+     * @return {@link Trigger#SHUTDOWN} if there are unsaved changes, otherwise null
+     */
+    public Trigger onShutdown(GameState state) {
+        return state.isDirty() ? Trigger.SHUTDOWN : null;
+    }
+
+    /**
+     * Records that the state was just handed off for saving and marks it as saved.
+     *
+     * @param state the state that was saved
+     * @param now   current time in milliseconds
+     */
+    public void saved(GameState state, long now) {
+        state.markSaved();
+        remember(state);
+        actionsSinceSave = 0;
+        dirtySince = -1;
+        lastChangeCount = state.getChangeCount();
+        lastChangeAt = now;
+    }
+
+    /**
+     * Forgets the saved values, for example after the state was reloaded from disk.
+     */
+    public void reset() {
+        hasBaseline = false;
+        actionsSinceSave = 0;
+        dirtySince = -1;
+        lastChangeCount = -1;
+    }
+
+    private void remember(GameState state) {
+        savedHealth = state.getHealth();
+        savedSleep = state.getSleep();
+        savedFullness = state.getFullness();
+        savedHappiness = state.getHappiness();
+        savedScore = state.getScore();
+        hasBaseline = true;
+    }
+
+    private int maxStatDifference(GameState state) {
+        int diff = Math.abs(state.getHealth() - savedHealth);
+        diff = Math.max(diff, Math.abs(state.getSleep() - savedSleep));
+        diff = Math.max(diff, Math.abs(state.getFullness() - savedFullness));
+        diff = Math.max(diff, Math.abs(state.getHappiness() - savedHappiness));
+        return Math.max(diff, Math.abs(state.getScore() - savedScore));
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AutosavePolicyTest {
+
+    private GameState state;
+    private AutosavePolicy policy;
+
+    @BeforeEach
+    void setup() {
+        state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), new Inventory());
+        state.markSaved();
+        policy = new AutosavePolicy();
+    }
+
+    @Test
+    void gameState_SameValueOrBookkeeping_IsNotAChange() {
+        state.setHealth(state.getHealth());
+        state.setVersion(42);
+        assertFalse(state.isDirty());
+
+        state.getInventory().addItem(new FoodItem("Apple", 1, 10));
+        assertTrue(state.isDirty());
+        state.markSaved();
+        assertFalse(state.isDirty());
+    }
+
+    @Test
+    void evaluate_UnchangedState_NeverSaves() {
+        assertNull(policy.evaluate(state, 0));
+        assertNull(policy.evaluate(state, 10 * AutosavePolicy.DEFAULT_MAX_STALENESS_MILLIS));
+        assertNull(policy.onShutdown(state));
+    }
+
+    @Test
+    void evaluate_StatChangeBeyondThreshold_Saves() {
+        policy.evaluate(state, 0);
+        state.setHealth(state.getHealth() - (AutosavePolicy.DEFAULT_STAT_THRESHOLD - 1));
+        assertNull(policy.evaluate(state, 1));
+
+        state.setHealth(state.getHealth() - 1);
+        assertEquals(AutosavePolicy.Trigger.STAT_CHANGE, policy.evaluate(state, 2));
+
+        policy.saved(state, 2);
+        assertNull(policy.evaluate(state, 3));
+    }
+
+    @Test
+    void evaluate_EnoughPlayerActions_Saves() {
+        policy.evaluate(state, 0);
+        state.setScore(1);
+        for (int i = 0; i < AutosavePolicy.DEFAULT_ACTION_THRESHOLD - 1; i++) {
+            policy.recordAction();
+        }
+        assertNull(policy.evaluate(state, 1));
+        policy.recordAction();
+        assertEquals(AutosavePolicy.Trigger.ACTIONS, policy.evaluate(state, 2));
+    }
+
+    @Test
+    void evaluate_SmallChangeThenIdle_Saves() {
+        policy.evaluate(state, 0);
+        state.setSleep(state.getSleep() - 1);
+        assertNull(policy.evaluate(state, 1000));
+        assertNull(policy.evaluate(state, 1000 + AutosavePolicy.DEFAULT_IDLE_MILLIS - 1));
+        assertEquals(AutosavePolicy.Trigger.IDLE, policy.evaluate(state, 1000 + AutosavePolicy.DEFAULT_IDLE_MILLIS));
+    }
+
+    @Test
+    void evaluate_SteadySmallChanges_SavedAtMaxStaleness() {
+        policy.setStatThreshold(0);
+        policy.evaluate(state, 0);
+        long now = 0;
+        AutosavePolicy.Trigger trigger = null;
+        // A small change every 2 seconds keeps the game from ever being idle
+        while (trigger == null && now <= 2 * AutosavePolicy.DEFAULT_MAX_STALENESS_MILLIS) {
+            now += 2000;
+            state.setScore(state.getScore() + 1);
+            trigger = policy.evaluate(state, now);
+        }
+        assertEquals(AutosavePolicy.Trigger.STALENESS, trigger);
+        assertTrue(now >= AutosavePolicy.DEFAULT_MAX_STALENESS_MILLIS);
+    }
+
+    @Test
+    void onShutdown_DirtyState_Saves() {
+        state.setFullness(1);
+        assertEquals(AutosavePolicy.Trigger.SHUTDOWN, policy.onShutdown(state));
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes {@link GameStateSnapshot}s to their slots on a background thread, so serializing a
+ * save never holds up the game timer or the UI.
+ * <p>
+ * Snapshots are coalesced per slot: if a newer snapshot arrives while an older one is still
+ * waiting, only the newer one is written. Writes go through
+ * {@link SaveLoadManager#autosave(GameState, int)} and so keep its version check.
+ * <p>
+ * Because the game thread learns about a finished write only later, its next snapshot may still
+ * carry the version from before that write. The saver remembers the versions it wrote itself
+ * for each slot and treats such snapshots as up to date; a write by anyone else still makes the
+ * next save fail and the listener is told to reload.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * snapshot = GameStateSnapshot.capture(gameState, snapshot);
+ * BackgroundSaver.getInstance().submit(slot, snapshot, listener);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class BackgroundSaver {
+
+    /**
+     * Receives the outcome of a background save. Called on the saver thread.
+     */
+    public interface Listener {
+        /**
+         * Called after the snapshot was written.
+         *
+         * @param slot    the save slot number
+         * @param version the slot version now on disk
+         */
+        void onSaved(int slot, long version);
+
+        /**
+         * Called when the slot was changed by someone else and nothing was written.
+         *
+         * @param slot the save slot number
+         */
+        void onConflict(int slot);
+
+        /**
+         * Called when writing failed.
+         *
+         * @param slot the save slot number
+         * @param e    the error
+         */
+        default void onError(int slot, IOException e) {
+            System.err.println("Background save of slot " + slot + " failed: " + e.getMessage());
+        }
+    }
+
+    private static BackgroundSaver instance;
+
+    // Slot -> newest snapshot still waiting to be written
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    // Slot -> range of versions this saver produced since the game last loaded the slot
+    private final Map<Integer, Lineage> lineages = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "background-saver");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Returns the shared saver.
+     *
+     * @return the shared BackgroundSaver instance
+     */
+    public static synchronized BackgroundSaver getInstance() {
+        if (instance == null) {
+            instance = new BackgroundSaver();
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a snapshot to be written to a slot, replacing any snapshot for the same slot
+     * that has not been written yet.
+     *
+     * @param slot     the save slot number
+     * @param snapshot the state to write
+     * @param listener told about the outcome, may be null
+     */
+    public void submit(int slot, GameStateSnapshot snapshot, Listener listener) {
+        if (pending.put(slot, new Pending(snapshot, listener)) == null) {
+            writer.execute(() -> write(slot));
+        }
+    }
+
+    /**
+     * Waits until every snapshot submitted so far has been written, for example before the
+     * game exits.
+     *
+     * @param timeoutMillis maximum time to wait in milliseconds
+     * @return true if all writes finished in time
+     */
+    public boolean flush(long timeoutMillis) {
+        try {
+            // The writer is a single thread, so this runs after everything queued before it
+            writer.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the newest version this saver wrote to a slot.
+     *
+     * @param slot the save slot number
+     * @return the version, or -1 if the saver has not written the slot since its last conflict
+     */
+    public long lastWrittenVersion(int slot) {
+        Lineage lineage = lineages.get(slot);
+        return lineage == null ? -1 : lineage.written;
+    }
+
+    /**
+     * Writes the newest pending snapshot of a slot.
+     *
+     * @param slot the save slot number
+     */
+    private void write(int slot) {
+        Pending next = pending.remove(slot);
+        if (next == null) {
+            return;
+        }
+
+        long expected = next.snapshot.getVersion();
+        Lineage lineage = lineages.get(slot);
+        if (lineage != null && expected >= lineage.base && expected <= lineage.written) {
+            // The game has not caught up with our own earlier writes yet
+            expected = lineage.written;
+        }
+
+        GameState copy = next.snapshot.toGameState();
+        copy.setVersion(expected);
+        try {
+            if (SaveLoadManager.autosave(copy, slot)) {
+                long base = (lineage != null && expected == lineage.written) ? lineage.base : expected;
+                lineages.put(slot, new Lineage(base, copy.getVersion()));
+                if (next.listener != null) {
+                    next.listener.onSaved(slot, copy.getVersion());
+                }
+            } else {
+                lineages.remove(slot);
+                if (next.listener != null) {
+                    next.listener.onConflict(slot);
+                }
+            }
+        } catch (IOException e) {
+            if (next.listener != null) {
+                next.listener.onError(slot, e);
+            }
+        }
+    }
+
+    /**
+     * A snapshot waiting to be written, with the listener to notify.
+     */
+    private static class Pending {
+        private final GameStateSnapshot snapshot;
+        private final Listener listener;
+
+        Pending(GameStateSnapshot snapshot, Listener listener) {
+            this.snapshot = snapshot;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Versions from {@code base} to {@code written} that were all produced by this saver.
+     */
+    private static class Lineage {
+        private final long base;
+        private final long written;
+
+        Lineage(long base, long written) {
+            this.base = base;
+            this.written = written;
+        }
+    }
+}
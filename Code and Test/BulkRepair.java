@@ -0,0 +1,308 @@
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Applies a change, such as reviving a pet, to every save slot that matches a condition.
+ * <p>
+ * Slots are processed on a small dedicated pool, so a large archive is repaired in parallel
+ * without flooding the disk or the shared background executor. Each slot is loaded, checked
+ * against the selector, changed and written back with
+ * {@link SaveLoadManager#saveIfVersion(GameState, int, long)}: the write replaces the whole
+ * slot atomically and only if nobody else wrote it in the meantime. A slot that keeps changing,
+ * for example because a game is running on it, is retried a few times and then reported as a
+ * conflict instead of overwriting the game's progress.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * // Revive every dead dog
+ * BulkRepair.Result result = BulkRepair.run(
+ *         BulkRepair.DEAD.and(BulkRepair.ofType(PetType.DOG)), BulkRepair.REVIVE);
+ * System.out.println(result.summary());
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class BulkRepair {
+
+    /** Number of slots processed at the same time by default. */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    // How often a slot is reloaded when it changes between reading and writing
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** Selects pets that have died. */
+    public static final Predicate<GameState> DEAD = state -> state.getHealth() <= 0;
+
+    /** Restores all four stats to full, the same change as a single parental revive. */
+    public static final Consumer<GameState> REVIVE = state -> {
+        state.setHealth(100);
+        state.setSleep(100);
+        state.setFullness(100);
+        state.setHappiness(100);
+    };
+
+    /** What happened to one slot. */
+    public enum Outcome {
+        /** The slot matched and the change was written. */
+        UPDATED,
+        /** The slot is empty or did not match the selector. */
+        SKIPPED,
+        /** The slot kept being changed by someone else, nothing was written. */
+        CONFLICT,
+        /** The slot could not be read or written. */
+        FAILED
+    }
+
+    private BulkRepair() {
+    }
+
+    /**
+     * Selects pets of one type.
+     *
+     * @param type the pet type
+     * @return selector matching saves of that type
+     */
+    public static Predicate<GameState> ofType(PetType type) {
+        return state -> type.name().equalsIgnoreCase(state.getPetType());
+    }
+
+    /**
+     * Applies a change to every slot of the active store that matches the selector.
+     *
+     * @param selector which saves to change
+     * @param repair   the change to apply
+     * @return per-slot results and timing
+     */
+    public static Result run(Predicate<GameState> selector, Consumer<GameState> repair) {
+        return run(SaveLoadManager.getStore(), selector, repair);
+    }
+
+    /**
+     * Applies a change to every slot of a given store, such as a profile's, that matches the
+     * selector.
+     *
+     * @param store    the store holding the slots
+     * @param selector which saves to change
+     * @param repair   the change to apply
+     * @return per-slot results and timing
+     */
+    public static Result run(GameStore store, Predicate<GameState> selector, Consumer<GameState> repair) {
+        return run(store, store.listAllGames(), selector, repair, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Applies a change to the given slots that match the selector.
+     *
+     * @param slots       slot numbers to consider
+     * @param selector    which saves to change
+     * @param repair      the change to apply
+     * @param parallelism maximum number of slots processed at the same time
+     * @return per-slot results in the order of {@code slots}, and timing
+     */
+    public static Result run(Collection<Integer> slots, Predicate<GameState> selector,
+                             Consumer<GameState> repair, int parallelism) {
+        return run(SaveLoadManager.getStore(), slots, selector, repair, parallelism);
+    }
+
+    /**
+     * Applies a change to the given slots of a store that match the selector.
+     *
+     * @param store       the store holding the slots
+     * @param slots       slot numbers to consider
+     * @param selector    which saves to change
+     * @param repair      the change to apply
+     * @param parallelism maximum number of slots processed at the same time
+     * @return per-slot results in the order of {@code slots}, and timing
+     */
+    public static Result run(GameStore store, Collection<Integer> slots, Predicate<GameState> selector,
+                             Consumer<GameState> repair, int parallelism) {
+        long start = System.nanoTime();
+        List<Callable<SlotResult>> tasks = new ArrayList<>(slots.size());
+        for (int slot : slots) {
+            tasks.add(() -> repairSlot(store, slot, selector, repair));
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "bulk-repair-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<SlotResult> results = new ArrayList<>(tasks.size());
+        try {
+            List<Future<SlotResult>> futures = pool.invokeAll(tasks);
+            int i = 0;
+            for (int slot : slots) {
+                results.add(resultOf(futures.get(i++), slot));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(results, System.nanoTime() - start);
+    }
+
+    /**
+     * Loads, checks, changes and writes back one slot.
+     *
+     * @param slot     the save slot number
+     * @param selector which saves to change
+     * @param repair   the change to apply
+     * @return the outcome for this slot
+     */
+    static SlotResult repairSlot(int slot, Predicate<GameState> selector, Consumer<GameState> repair) {
+        return repairSlot(SaveLoadManager.getStore(), slot, selector, repair);
+    }
+
+    /**
+     * Loads, checks, changes and writes back one slot of a store.
+     *
+     * @param store    the store holding the slot
+     * @param slot     the save slot number
+     * @param selector which saves to change
+     * @param repair   the change to apply
+     * @return the outcome for this slot
+     */
+    static SlotResult repairSlot(GameStore store, int slot, Predicate<GameState> selector,
+                                 Consumer<GameState> repair) {
+        try {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                GameState state = store.loadGame(slot);
+                if (state == null) {
+                    return new SlotResult(slot, Outcome.SKIPPED, "empty slot");
+                }
+                if (!selector.test(state)) {
+                    return new SlotResult(slot, Outcome.SKIPPED, null);
+                }
+                long loadedVersion = state.getVersion();
+                repair.accept(state);
+                if (SaveLoadManager.saveIfVersion(store, state, slot, loadedVersion)) {
+                    return new SlotResult(slot, Outcome.UPDATED, null);
+                }
+            }
+            return new SlotResult(slot, Outcome.CONFLICT, "slot kept changing");
+        } catch (IOException | JsonParseException e) {
+            return new SlotResult(slot, Outcome.FAILED, e.getMessage());
+        }
+    }
+
+    private static SlotResult resultOf(Future<SlotResult> future, int slot) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return new SlotResult(slot, Outcome.FAILED, String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new SlotResult(slot, Outcome.FAILED, "interrupted");
+        }
+    }
+
+    /**
+     * Outcome for one slot.
+     */
+    public static class SlotResult {
+        private final int slot;
+        private final Outcome outcome;
+        private final String message;
+
+        SlotResult(int slot, Outcome outcome, String message) {
+            this.slot = slot;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        public int getSlot() { return slot; }
+        public Outcome getOutcome() { return outcome; }
+
+        /**
+         * @return why the slot was skipped or failed, or null
+         */
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "Save " + slot + ": " + outcome + (message == null ? "" : " (" + message + ")");
+        }
+    }
+
+    /**
+     * Results of a whole run.
+     */
+    public static class Result {
+        private final List<SlotResult> slots;
+        private final Map<Outcome, Integer> counts = new EnumMap<>(Outcome.class);
+        private final long elapsedNanos;
+
+        Result(List<SlotResult> slots, long elapsedNanos) {
+            this.slots = Collections.unmodifiableList(slots);
+            this.elapsedNanos = elapsedNanos;
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, 0);
+            }
+            for (SlotResult result : slots) {
+                counts.merge(result.outcome, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * @return the result of every slot considered
+         */
+        public List<SlotResult> getSlots() { return slots; }
+
+        /**
+         * @param outcome an outcome
+         * @return number of slots with that outcome
+         */
+        public int count(Outcome outcome) { return counts.get(outcome); }
+
+        /**
+         * @return wall-clock time of the run in milliseconds
+         */
+        public double getElapsedMillis() { return elapsedNanos / 1e6; }
+
+        /**
+         * @return slots processed per second
+         */
+        public double getSlotsPerSecond() {
+            return slots.size() / Math.max(elapsedNanos / 1e9, 1e-9);
+        }
+
+        /**
+         * Formats the counts and timing for display to a parent.
+         *
+         * @return one-paragraph summary, followed by the slots that could not be changed
+         */
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Checked %d saves in %.0f ms (%.0f saves/s)%n",
+                    slots.size(), getElapsedMillis(), getSlotsPerSecond()));
+            sb.append(String.format("Updated: %d, skipped: %d, conflicts: %d, failed: %d%n",
+                    count(Outcome.UPDATED), count(Outcome.SKIPPED),
+                    count(Outcome.CONFLICT), count(Outcome.FAILED)));
+            for (SlotResult result : slots) {
+                if (result.outcome == Outcome.CONFLICT || result.outcome == Outcome.FAILED) {
+                    sb.append(result).append(System.lineSeparator());
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
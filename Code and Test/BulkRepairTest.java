@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkRepairTest {
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(Paths.get("saves/"));
+        Files.list(Paths.get("saves/"))
+                .forEach(path -> path.toFile().delete());
+        SlotStore.getInstance().rescan();
+    }
+
+    private static void savePet(int slot, PetType type, int health) throws IOException {
+        VirtualPet pet = new VirtualPet("pet" + slot, type);
+        pet.setHealth(health);
+        GameState state = new GameState();
+        state.updateGameState(pet, new Inventory());
+        SaveLoadManager.saveGame(state, slot);
+    }
+
+    @Test
+    void run_DeadDogs_OnlyThoseAreRevived() throws IOException {
+        savePet(1, PetType.DOG, 0);
+        savePet(2, PetType.DOG, 50);
+        savePet(3, PetType.SHEEP, 0);
+        savePet(4, PetType.DOG, 0);
+
+        BulkRepair.Result result = BulkRepair.run(Arrays.asList(1, 2, 3, 4, 5),
+                BulkRepair.DEAD.and(BulkRepair.ofType(PetType.DOG)), BulkRepair.REVIVE, 2);
+
+        assertEquals(2, result.count(BulkRepair.Outcome.UPDATED));
+        assertEquals(3, result.count(BulkRepair.Outcome.SKIPPED));
+        assertEquals(5, result.getSlots().size());
+        assertEquals(BulkRepair.Outcome.UPDATED, result.getSlots().get(0).getOutcome());
+        assertEquals(BulkRepair.Outcome.SKIPPED, result.getSlots().get(1).getOutcome());
+        assertTrue(result.getSlotsPerSecond() > 0);
+
+        assertEquals(100, SaveLoadManager.loadGame(1).getHealth());
+        assertEquals(100, SaveLoadManager.loadGame(4).getHappiness());
+        assertEquals(50, SaveLoadManager.loadGame(2).getHealth());
+        assertEquals(0, SaveLoadManager.loadGame(3).getHealth());
+    }
+
+    @Test
+    void run_UnreadableSlot_ReportedAsFailedOthersStillRevived() throws IOException {
+        savePet(1, PetType.DUCK, 0);
+        Files.writeString(Paths.get("saves/slot2.json"), "{invalid_json}");
+        SlotStore.getInstance().rescan();
+
+        BulkRepair.Result result = BulkRepair.run(List.of(1, 2), BulkRepair.DEAD, BulkRepair.REVIVE, 4);
+
+        assertEquals(1, result.count(BulkRepair.Outcome.UPDATED));
+        assertEquals(1, result.count(BulkRepair.Outcome.FAILED));
+        assertTrue(result.summary().contains("Save 2: FAILED"));
+    }
+
+    @Test
+    void repairSlot_SlotChangedDuringRepair_RetriesOnNewVersion() throws IOException {
+        savePet(1, PetType.DOG, 0);
+
+        int[] calls = {0};
+        BulkRepair.SlotResult result = BulkRepair.repairSlot(1, BulkRepair.DEAD, state -> {
+            if (calls[0]++ == 0) {
+                // Someone else writes the slot between our load and our save
+                try {
+                    GameState other = SaveLoadManager.loadGame(1);
+                    other.setScore(77);
+                    SaveLoadManager.saveGame(other, 1);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            BulkRepair.REVIVE.accept(state);
+        });
+
+        assertEquals(BulkRepair.Outcome.UPDATED, result.getOutcome());
+        assertEquals(2, calls[0]);
+        GameState saved = SaveLoadManager.loadGame(1);
+        assertEquals(100, saved.getHealth());
+        assertEquals(77, saved.getScore());
+    }
+}
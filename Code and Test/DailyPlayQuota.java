@@ -0,0 +1,349 @@
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the parental limit on how many minutes may be played per day.
+ * <p>
+ * The tracker keeps a running counter of the time played on the current day. When a session
+ * starts, the counter is seeded once from the day total of the {@link PlayTimeLedger}; while
+ * the session runs, every heartbeat adds the time since the previous one, so history is never
+ * summed again. At local midnight the counter starts over, counting only the part of the
+ * session after midnight.
+ * <p>
+ * From the counter the tracker knows the exact instant the quota runs out. The warning
+ * ({@link #WARNING_MINUTES} before) and the cut-off are scheduled for those instants on the
+ * shared {@link PlayWindowScheduler#executor()} thread. Each heartbeat and each settings change
+ * schedules them again, so they follow changes of the quota and of the clock. When a task runs
+ * it checks the counter once more before telling listeners, so a quota that was raised or a
+ * new day is never reported as used up.
+ * <p>
+ * The quota is only enforced while parental controls are enabled. Overlapping sessions within
+ * one process count the time once.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * DailyPlayQuota quota = DailyPlayQuota.getInstance();
+ * if (!quota.isExceeded()) {
+ *     quota.sessionStarted(listener);
+ *     ...
+ *     quota.sessionEnded(listener);
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class DailyPlayQuota {
+
+    /** How often the counter of a running session is brought up to date, in milliseconds. */
+    public static final long HEARTBEAT_MILLIS = 60 * 1000;
+
+    /** How many minutes before the quota runs out listeners are warned. */
+    public static final int WARNING_MINUTES = 5;
+
+    /** Largest quota that can be set, in minutes. */
+    public static final int MAX_QUOTA_MINUTES = 24 * 60;
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long WARNING_NANOS = TimeUnit.MINUTES.toNanos(WARNING_MINUTES);
+
+    /**
+     * Receives quota events of running sessions. Called on the scheduler thread.
+     */
+    public interface Listener {
+        /**
+         * Called once per day when the quota is about to run out.
+         *
+         * @param minutesLeft minutes of play left today, rounded up
+         */
+        void onQuotaWarning(long minutesLeft);
+
+        /**
+         * Called at the instant the quota runs out.
+         *
+         * @param quotaMinutes the daily quota in minutes
+         */
+        void onQuotaExceeded(int quotaMinutes);
+    }
+
+    private static DailyPlayQuota instance;
+
+    private final GlobalSettingsStore settings;
+    private final PlayTimeLedger ledger;
+    private final ZoneId zone;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler = PlayWindowScheduler.executor();
+    // Listeners of running sessions; the tracker counts time while there is at least one
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    // Counter state and pending tasks, guarded by this
+    private LocalDate day;
+    private long usedNanos;
+    private Instant lastBeat;
+    private ScheduledFuture<?> heartbeat;
+    private ScheduledFuture<?> warning;
+    private ScheduledFuture<?> cutoff;
+    private boolean warned;
+    private boolean exceeded;
+
+    /**
+     * Creates a tracker.
+     *
+     * @param ledger ledger holding the finished sessions of the day
+     * @param zone   time zone that defines where a day starts
+     * @param clock  clock giving the current instant
+     */
+    DailyPlayQuota(PlayTimeLedger ledger, ZoneId zone, Clock clock) {
+        this(GlobalSettingsStore.getInstance(), ledger, zone, clock);
+    }
+
+    /**
+     * Creates a tracker that enforces the quota of the given settings, such as a profile's.
+     *
+     * @param settings settings holding the quota
+     * @param ledger   ledger holding the finished sessions of the day
+     * @param zone     time zone that defines where a day starts
+     * @param clock    clock giving the current instant
+     */
+    DailyPlayQuota(GlobalSettingsStore settings, PlayTimeLedger ledger, ZoneId zone, Clock clock) {
+        this.settings = settings;
+        this.ledger = ledger;
+        this.zone = zone;
+        this.clock = clock;
+        settings.addChangeListener(() -> scheduler.execute(this::heartbeat));
+    }
+
+    /**
+     * Returns the tracker for the game's play time ledger and the system time zone.
+     *
+     * @return the shared DailyPlayQuota instance
+     */
+    public static synchronized DailyPlayQuota getInstance() {
+        if (instance == null) {
+            instance = new DailyPlayQuota(PlayTimeLedger.getInstance(), ZoneId.systemDefault(),
+                    Clock.systemDefaultZone());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the quota that is enforced.
+     *
+     * @return the daily quota in minutes, or 0 if play time per day is not limited
+     */
+    public int getQuotaMinutes() {
+        GlobalSettingsStore.Settings current = settings.get();
+        return current.isParentalControlsEnabled() ? current.getDailyQuotaMinutes() : 0;
+    }
+
+    /**
+     * Starts counting a session. The first session of the process seeds the counter from the
+     * ledger and starts the heartbeat.
+     *
+     * @param listener told about the warning and the cut-off until the session ends
+     */
+    public synchronized void sessionStarted(Listener listener) {
+        listeners.add(listener);
+        if (lastBeat == null) {
+            lastBeat = clock.instant();
+            day = today(lastBeat);
+            usedNanos = ledger.nanosOn(day);
+            warned = false;
+            exceeded = false;
+            heartbeat = scheduler.scheduleAtFixedRate(this::heartbeat,
+                    HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        reschedule();
+    }
+
+    /**
+     * Stops counting a session. When the last session ends, the counter is brought up to date
+     * and nothing stays scheduled.
+     *
+     * @param listener the listener passed to {@link #sessionStarted(Listener)}
+     */
+    public synchronized void sessionEnded(Listener listener) {
+        if (!listeners.remove(listener) || !listeners.isEmpty() || lastBeat == null) {
+            return;
+        }
+        account(clock.instant());
+        lastBeat = null;
+        cancel(heartbeat);
+        cancel(warning);
+        cancel(cutoff);
+        heartbeat = null;
+        warning = null;
+        cutoff = null;
+    }
+
+    /**
+     * Returns the time played today, including the running session.
+     *
+     * @return nanoseconds played today
+     */
+    public synchronized long usedTodayNanos() {
+        Instant now = clock.instant();
+        if (lastBeat == null) {
+            // Between sessions the ledger holds every finished session of the day
+            return ledger.nanosOn(today(now));
+        }
+        account(now);
+        return usedNanos;
+    }
+
+    /**
+     * Returns how much of today's quota is left.
+     *
+     * @return nanoseconds left, or {@link Long#MAX_VALUE} if play time per day is not limited
+     */
+    public long remainingNanos() {
+        int quota = getQuotaMinutes();
+        if (quota == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, quota * MINUTE_NANOS - usedTodayNanos());
+    }
+
+    /**
+     * Checks whether today's quota is used up.
+     *
+     * @return true if a quota is set and no time is left today
+     */
+    public boolean isExceeded() {
+        return remainingNanos() == 0;
+    }
+
+    /**
+     * Brings the counter up to date and schedules the warning and cut-off again.
+     */
+    synchronized void heartbeat() {
+        if (lastBeat == null) {
+            return;
+        }
+        account(clock.instant());
+        reschedule();
+    }
+
+    /**
+     * Adds the time since the last heartbeat to the counter, starting over when the day
+     * changed. Callers must hold the lock.
+     *
+     * @param now the current instant
+     */
+    private void account(Instant now) {
+        if (lastBeat == null) {
+            return;
+        }
+        LocalDate today = today(now);
+        if (today.equals(day)) {
+            usedNanos += nanosBetween(lastBeat, now);
+        } else {
+            Instant midnight = today.atStartOfDay(zone).toInstant();
+            Instant from = lastBeat.isAfter(midnight) ? lastBeat : midnight;
+            usedNanos = ledger.nanosOn(today) + nanosBetween(from, now);
+            day = today;
+        }
+        lastBeat = now;
+    }
+
+    /**
+     * Replaces the pending warning and cut-off with tasks at the instants they are due.
+     * Callers must hold the lock and have brought the counter up to date.
+     */
+    private void reschedule() {
+        cancel(warning);
+        cancel(cutoff);
+        warning = null;
+        cutoff = null;
+        int quota = getQuotaMinutes();
+        if (lastBeat == null || quota == 0) {
+            return;
+        }
+        long remaining = quota * MINUTE_NANOS - usedNanos;
+        // A raised quota or a new day makes the events due again
+        if (remaining > WARNING_NANOS) {
+            warned = false;
+        }
+        if (remaining > 0) {
+            exceeded = false;
+        }
+        if (!warned && !exceeded) {
+            warning = scheduler.schedule(this::warn, Math.max(0, remaining - WARNING_NANOS), TimeUnit.NANOSECONDS);
+        }
+        if (!exceeded) {
+            cutoff = scheduler.schedule(this::cutOff, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Warns listeners if the quota is about to run out. Runs on the scheduler thread.
+     */
+    private void warn() {
+        long remaining;
+        synchronized (this) {
+            int quota = getQuotaMinutes();
+            if (lastBeat == null || quota == 0 || warned) {
+                return;
+            }
+            account(clock.instant());
+            remaining = quota * MINUTE_NANOS - usedNanos;
+            if (remaining > WARNING_NANOS) {
+                reschedule();
+                return;
+            }
+            warned = true;
+        }
+        if (remaining > 0) {
+            long minutesLeft = (remaining + MINUTE_NANOS - 1) / MINUTE_NANOS;
+            for (Listener listener : listeners) {
+                listener.onQuotaWarning(minutesLeft);
+            }
+        }
+    }
+
+    /**
+     * Tells listeners that the quota ran out, if it did. Runs on the scheduler thread.
+     */
+    private void cutOff() {
+        int quota;
+        synchronized (this) {
+            quota = getQuotaMinutes();
+            if (lastBeat == null || quota == 0 || exceeded) {
+                return;
+            }
+            account(clock.instant());
+            if (usedNanos < quota * MINUTE_NANOS) {
+                reschedule();
+                return;
+            }
+            exceeded = true;
+        }
+        for (Listener listener : listeners) {
+            listener.onQuotaExceeded(quota);
+        }
+    }
+
+    private LocalDate today(Instant now) {
+        return LocalDate.ofInstant(now, zone);
+    }
+
+    private static long nanosBetween(Instant from, Instant to) {
+        // A clock set backwards must not make the counter shrink
+        return Math.max(0, Duration.between(from, to).toNanos());
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
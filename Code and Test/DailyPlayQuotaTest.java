@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DailyPlayQuotaTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @TempDir
+    Path dir;
+
+    private PlayTimeLedger ledger;
+    private GlobalSettingsStore.Settings saved;
+
+    @BeforeEach
+    void setup() {
+        GameStore store = new FileGameStore(new SlotStore(dir + "/", SlotStore.DEFAULT_QUOTA), dir.toFile());
+        ledger = new PlayTimeLedger(() -> store, "ledger", ZONE);
+        saved = GlobalSettingsStore.getInstance().get();
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        GlobalSettingsStore.getInstance().update(s -> saved);
+    }
+
+    /** Clock that only moves when told to. */
+    private static class ManualClock extends Clock {
+        private volatile Instant now;
+
+        ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceMinutes(long minutes) {
+            now = now.plusSeconds(minutes * 60);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static Instant at(int day, int hour, int minute) {
+        return LocalDateTime.of(2024, 5, day, hour, minute).toInstant(ZoneOffset.UTC);
+    }
+
+    @Test
+    void heartbeat_AddsSessionTimeToLedgerTotal() {
+        ledger.record(at(15, 9, 0), at(15, 9, 10));
+        ManualClock clock = new ManualClock(at(15, 18, 0));
+        DailyPlayQuota quota = new DailyPlayQuota(ledger, ZONE, clock);
+        DailyPlayQuota.Listener listener = new RecordingListener();
+
+        quota.sessionStarted(listener);
+        clock.advanceMinutes(3);
+        quota.heartbeat();
+        assertEquals(TimeUnit.MINUTES.toNanos(13), quota.usedTodayNanos());
+
+        clock.advanceMinutes(2);
+        quota.sessionEnded(listener);
+        // Between sessions the day total comes from the ledger again
+        ledger.record(at(15, 18, 0), at(15, 18, 5));
+        assertEquals(TimeUnit.MINUTES.toNanos(15), quota.usedTodayNanos());
+    }
+
+    @Test
+    void heartbeat_NewDay_CounterStartsOver() {
+        ledger.record(at(15, 20, 0), at(15, 21, 0));
+        ManualClock clock = new ManualClock(at(15, 23, 50));
+        DailyPlayQuota quota = new DailyPlayQuota(ledger, ZONE, clock);
+        DailyPlayQuota.Listener listener = new RecordingListener();
+
+        quota.sessionStarted(listener);
+        clock.advanceMinutes(5);
+        quota.heartbeat();
+        assertEquals(TimeUnit.MINUTES.toNanos(65), quota.usedTodayNanos());
+
+        clock.advanceMinutes(10);
+        quota.heartbeat();
+        // Only the part of the session after midnight counts for the new day
+        assertEquals(TimeUnit.MINUTES.toNanos(5), quota.usedTodayNanos());
+        quota.sessionEnded(listener);
+    }
+
+    @Test
+    void sessionStarted_QuotaNearlyUsed_WarnsAndCutsOffOnTime() throws InterruptedException, IOException {
+        GlobalSettingsStore.getInstance().update(s -> s.withParentalControls(true, s.getPlayTimeLimit(),
+                s.getStartHour(), s.getStartMinute(), s.getEndHour(), s.getEndMinute())
+                .withScheduleRules("").withDailyQuotaMinutes(1));
+        Instant now = Instant.now();
+        ledger.record(now.minusMillis(59_500), now);
+        DailyPlayQuota quota = new DailyPlayQuota(ledger, ZoneId.systemDefault(), Clock.systemUTC());
+        RecordingListener listener = new RecordingListener();
+
+        long started = System.nanoTime();
+        quota.sessionStarted(listener);
+        assertEquals("warning 1", listener.events.poll(2, TimeUnit.SECONDS));
+        assertEquals("exceeded 1", listener.events.poll(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(400));
+        assertTrue(quota.isExceeded());
+        assertEquals(0, quota.remainingNanos());
+
+        // Raising the quota lifts the limit again
+        GlobalSettingsStore.getInstance().update(s -> s.withDailyQuotaMinutes(30));
+        assertFalse(quota.isExceeded());
+        quota.sessionEnded(listener);
+        assertNull(listener.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static class RecordingListener implements DailyPlayQuota.Listener {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onQuotaWarning(long minutesLeft) {
+            events.add("warning " + minutesLeft);
+        }
+
+        @Override
+        public void onQuotaExceeded(int quotaMinutes) {
+            events.add("exceeded " + quotaMinutes);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GameStore} that keeps each slot in its own JSON file, laid out by {@link SlotStore},
+ * and each named record in a {@code <name>.dat} file in the working directory.
+ * <p>
+ * This is the default backend and reads and writes the same files the game always used
+ * ({@code saves/slotN.json} and {@code global_settings.dat}). Slot writes are serialized per
+ * slot and cooperate with {@link SaveJournal}. Multi-slot writes are applied slot by slot and
+ * are not transactional; use {@link KeyValueGameStore} when that matters.
+ * <p>
+ * All slot files, including journals and backups, are located through the store's
+ * {@link SlotStore}, so stores over different slot layouts do not share files.
+ * <p>
+ * Slot versions are cached together with the size and modification time of the slot's files,
+ * so checking a version does not read the slot unless the files were changed from outside.
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class FileGameStore implements GameStore {
+
+    private final SlotStore slots;
+    private final SaveJournal journal;
+    private final File recordDir;
+    // Slot -> last known version and the file stamps it was read from
+    private final Map<Integer, VersionStamp> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store over the shared slot layout and the working directory.
+     */
+    public FileGameStore() {
+        this(SlotStore.getInstance(), SaveJournal.getInstance(), new File("."));
+    }
+
+    /**
+     * Creates a store over the given slot layout and record directory.
+     *
+     * @param slots     slot file layout and index
+     * @param recordDir directory for named record files
+     */
+    public FileGameStore(SlotStore slots, File recordDir) {
+        this(slots, new SaveJournal(slots), recordDir);
+    }
+
+    private FileGameStore(SlotStore slots, SaveJournal journal, File recordDir) {
+        this.slots = slots;
+        this.journal = journal;
+        this.recordDir = recordDir;
+    }
+
+    @Override
+    public GameState loadGame(int slot) throws IOException {
+        GameState state;
+        synchronized (SaveLoadManager.slotLock(slot)) {
+            state = SaveLoadManager.readSlotFiles(slots, journal, slot);
+            rememberVersion(slot, state == null ? 0 : state.getVersion());
+        }
+        if (state != null) {
+            slots.touch(slot);
+        }
+        return state;
+    }
+
+    @Override
+    public void saveGame(GameState state, int slot) throws IOException {
+        synchronized (SaveLoadManager.slotLock(slot)) {
+            SaveLoadManager.writeSnapshot(slots, state, slot);
+            // The snapshot holds the full state, so any journal for this slot is now stale
+            journal.discard(slot);
+            rememberVersion(slot, state.getVersion());
+        }
+    }
+
+    @Override
+    public long slotVersion(int slot) throws IOException {
+        synchronized (SaveLoadManager.slotLock(slot)) {
+            VersionStamp stamp = versions.get(slot);
+            if (stamp != null && stamp.matches(stampFiles(slot))) {
+                return stamp.version;
+            }
+            GameState state = SaveLoadManager.readSlotFiles(slots, journal, slot);
+            long version = state == null ? 0 : state.getVersion();
+            rememberVersion(slot, version);
+            return version;
+        }
+    }
+
+    /**
+     * Appends the changes of a state to its slot's journal instead of rewriting the snapshot.
+     * Callers must hold the slot lock.
+     *
+     * @param state the current game state
+     * @param slot  the save slot number
+     * @throws IOException if writing fails
+     */
+    void appendJournal(GameState state, int slot) throws IOException {
+        journal.append(state, slot);
+        rememberVersion(slot, state.getVersion());
+    }
+
+    /**
+     * Records the version a slot's files now hold. Callers must hold the slot lock and call
+     * this right after writing the slot.
+     *
+     * @param slot    the save slot number
+     * @param version version of the state just written
+     */
+    private void rememberVersion(int slot, long version) {
+        versions.put(slot, new VersionStamp(version, stampFiles(slot)));
+    }
+
+    /**
+     * Returns the files whose size and modification time identify a slot's content.
+     *
+     * @param slot the save slot number
+     * @return the snapshot and journal files of the slot
+     */
+    private File[] stampFiles(int slot) {
+        return new File[] { slots.slotFile(slot), journal.journalFile(slot) };
+    }
+
+    @Override
+    public void saveGames(Map<Integer, GameState> states) throws IOException {
+        for (Map.Entry<Integer, GameState> entry : states.entrySet()) {
+            saveGame(entry.getValue(), entry.getKey());
+        }
+    }
+
+    @Override
+    public boolean deleteGame(int slot) {
+        synchronized (SaveLoadManager.slotLock(slot)) {
+            journal.discard(slot);
+            versions.remove(slot);
+            for (int g = 1; slots.backupFile(slot, g).delete(); g++) {
+                // Remove every backup generation of the slot
+            }
+            boolean existed = slots.slotFile(slot).delete();
+            slots.forget(slot);
+            return existed;
+        }
+    }
+
+    @Override
+    public boolean hasGame(int slot) {
+        return slots.exists(slot);
+    }
+
+    @Override
+    public int gameCount() {
+        return slots.size();
+    }
+
+    @Override
+    public List<Integer> listGames(int page, int pageSize) {
+        return slots.listSlots(page, pageSize);
+    }
+
+    @Override
+    public List<Integer> listAllGames() {
+        return slots.listAllSlots();
+    }
+
+    @Override
+    public int allocateSlot() {
+        return slots.allocateSlot();
+    }
+
+    @Override
+    public byte[] loadRecord(String name) throws IOException {
+        File file = recordFile(name);
+        return file.exists() ? Files.readAllBytes(file.toPath()) : null;
+    }
+
+    @Override
+    public void saveRecord(String name, byte[] data) throws IOException {
+        File file = recordFile(name);
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), data);
+        Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void appendRecord(String name, byte[] data) throws IOException {
+        Files.write(recordFile(name).toPath(), data, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public long recordStamp(String name) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(recordFile(name).toPath(), BasicFileAttributes.class);
+            // Records are replaced by a rename, so the file key changes on every write as well
+            long stamp = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            stamp = 31 * stamp + attrs.size();
+            stamp = 31 * stamp + Objects.hashCode(attrs.fileKey());
+            return stamp == 0 || stamp == -1 ? 1 : stamp;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the file that holds a named record.
+     *
+     * @param name record name
+     * @return the record file
+     */
+    File recordFile(String name) {
+        return new File(recordDir, name + ".dat");
+    }
+
+    /**
+     * A cached slot version together with the size and modification time of the slot's files.
+     */
+    private static class VersionStamp {
+        private final long version;
+        private final long[] stamps;
+
+        VersionStamp(long version, File[] files) {
+            this.version = version;
+            this.stamps = stampsOf(files);
+        }
+
+        /**
+         * Checks whether the files are unchanged since this stamp was taken.
+         *
+         * @param files the same files the stamp was taken from
+         * @return true if sizes and modification times still match
+         */
+        boolean matches(File[] files) {
+            return Arrays.equals(stamps, stampsOf(files));
+        }
+
+        private static long[] stampsOf(File[] files) {
+            long[] result = new long[files.length * 2];
+            for (int i = 0; i < files.length; i++) {
+                result[2 * i] = files[i].length();
+                result[2 * i + 1] = files[i].lastModified();
+            }
+            return result;
+        }
+    }
+}
@@ -2,6 +2,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 /**
@@ -39,6 +42,51 @@ public class GamePlayScreen extends JFrame {
     private GameState gameState;
     /** The panel aiding in pet display or interaction. */
     private JPanel petPanel;
+    /** Shows the pet's sprite; created once and only given a new icon when the state changes. */
+    private JLabel petLabel;
+    /** The pet type and state whose sprite the pet label shows. */
+    private String shownPetType;
+    private VirtualPet.PetState shownState;
+    /** Width and height of the pet sprite in pixels. */
+    private static final int PET_SPRITE_SIZE = 200;
+    /** Whether the pet is drawn by a {@link PetCanvas} render loop, set with -Dvirtualpet.rendering=active. */
+    private static final boolean ACTIVE_RENDERING = "active".equals(System.getProperty("virtualpet.rendering"));
+    /** Frame rate cap of the pet canvas, set with -Dvirtualpet.fps; 0 means no cap. */
+    private static final int FPS_CAP = Integer.getInteger("virtualpet.fps", 60);
+    /** Draws the pet when active rendering is on, in place of the pet label. */
+    private PetCanvas petCanvas;
+    /** Called by the SlotWatcher when the slot's files change on disk. */
+    private final Runnable slotChangedListener =
+            () -> SwingUtilities.invokeLater(this::checkForExternalChanges);
+    /** How long closing the game waits for pending saves. */
+    private static final long SHUTDOWN_SAVE_TIMEOUT_MILLIS = 3000;
+    /** Decides when the game is worth saving. */
+    private final AutosavePolicy autosavePolicy = new AutosavePolicy();
+    /** The last state handed to the background saver; the next one shares its unchanged items. */
+    private GameStateSnapshot lastSnapshot;
+    /** Applies the outcome of background saves on the event dispatch thread. */
+    private final BackgroundSaver.Listener saveListener = new BackgroundSaver.Listener() {
+        @Override
+        public void onSaved(int savedSlot, long version) {
+            SwingUtilities.invokeLater(() -> {
+                if (version > gameState.getVersion()) {
+                    gameState.setVersion(version);
+                }
+            });
+        }
+
+        @Override
+        public void onConflict(int savedSlot) {
+            // The slot was changed elsewhere, e.g. by a revive, take that change instead
+            SwingUtilities.invokeLater(() -> {
+                try {
+                    reloadFromSlot();
+                } catch (IOException ex) {
+                    System.err.println("Failed to reload save slot " + slot + ": " + ex.getMessage());
+                }
+            });
+        }
+    };
     /** Icons used to represent various button. */
     ImageIcon warningIcon, homeIcon, settingIcon;
 
@@ -54,9 +102,19 @@ public class GamePlayScreen extends JFrame {
      * @throws IOException if there is an error reading the file.
      */
     public GamePlayScreen(String file) throws IOException {
-        // Get slot Number
-        this.slot = Integer.parseInt(file.substring(10,file.length()-5));
+        this(SlotStore.parseSlot(file));
+    }
+
+    /**
+     * Constructs a new GamePlayScreen for the given save slot.
+     *
+     * @param slot The save slot number to load the game data from.
+     * @throws IOException if there is an error reading the save file.
+     */
+    public GamePlayScreen(int slot) throws IOException {
+        this.slot = slot;
         gameState = SaveLoadManager.loadGame(slot);
+        gameState.markSaved();
 
         // Load Inventory from save file
         inventory = new Inventory();
@@ -82,8 +140,7 @@ public class GamePlayScreen extends JFrame {
         setVisible(true);
 
         // Prepare warning icon to show the state is too low
-        warningIcon = new ImageIcon("resources/warning.png");
-        warningIcon = new ImageIcon(warningIcon.getImage().getScaledInstance(20, 20, Image.SCALE_SMOOTH));
+        warningIcon = AssetManager.getInstance().getIcon("resources/warning.png", 20, 20, icon -> warningIcon = icon);
 
         // Draw the Status Bar showing pet's state
         JPanel statusPanel = new JPanel();
@@ -163,11 +220,9 @@ public class GamePlayScreen extends JFrame {
                 inventory.addItem(new GiftItem("car",1,20));
                 inventory.addItem(new GiftItem("jellycat",1,30));
 
-                // Save game state to file
-                try {
-                    SaveLoadManager.saveGame(gameState, slot);
-                } catch (IOException ex) {
-                    throw new RuntimeException(ex);
+                // Save only when the autosave policy says the changes are worth it
+                if (autosavePolicy.evaluate(gameState, System.currentTimeMillis()) != null) {
+                    saveInBackground();
                 }
                 displayPet();
             }
@@ -175,11 +230,13 @@ public class GamePlayScreen extends JFrame {
 
         // Create and configure the main screen panel used to display the pet
         petPanel = new JPanel(new BorderLayout()){
-          private final Image backgroundImage = new ImageIcon("resources/background1.jpg").getImage();
+          // Scaled to the panel once, so a repaint just copies it
+          private final ScaledBackground background = new ScaledBackground(PetCanvas.BACKGROUND);
           @Override
           protected void paintComponent(Graphics g) {
               super.paintComponent(g);
-              g.drawImage(backgroundImage, 0, 0,getWidth(),getHeight(), this);
+              // Plain background until the image is decoded, then repaint with it
+              background.paint(g, getWidth(), getHeight(), getGraphicsConfiguration(), this::repaint);
           }
         };
         petPanel.setPreferredSize(new Dimension(100,100));
@@ -195,12 +252,13 @@ public class GamePlayScreen extends JFrame {
         JButton homeButton = new JButton("Home");
         homeButton.setPreferredSize( new Dimension( 200, 60 ));
         homeButton.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
-        homeIcon = new ImageIcon("resources/home.png");
-        homeIcon = new ImageIcon(homeIcon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH));
+        homeIcon = AssetManager.getInstance().getIcon("resources/home.png", 50, 50, homeButton::setIcon);
         homeButton.setIcon(homeIcon);
         homeButton.setMnemonic('H');
         homeButton.addActionListener(goToMainMenuScreen -> {
             statDecreaseTimer.stop();
+            SlotWatcher.getInstance().unwatch(slot, slotChangedListener);
+            saveOnShutdown();
             MainMenuScreen mainMenuScreen = new MainMenuScreen();
             dispose();
         });
@@ -208,8 +266,7 @@ public class GamePlayScreen extends JFrame {
         // Display Setting Button
         JButton settingButton = new JButton("Setting");
         settingButton.setPreferredSize( new Dimension( 200, 60 ));
-        settingIcon = new ImageIcon("resources/setting.png");
-        settingIcon = new ImageIcon(settingIcon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH));
+        settingIcon = AssetManager.getInstance().getIcon("resources/setting.png", 50, 50, settingButton::setIcon);
         settingButton.setIcon(settingIcon);
         settingButton.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
         settingButton.setMnemonic('T'); // Alt + T for shortcut
@@ -223,6 +280,22 @@ public class GamePlayScreen extends JFrame {
         statDecreaseTimer.setRepeats(true);
         statDecreaseTimer.start();
 
+        // Write any unsaved changes before the window closes the game
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                statDecreaseTimer.stop();
+                saveOnShutdown();
+            }
+        });
+
+        // Pick up edits made to this slot outside the game right away
+        try {
+            SlotWatcher.getInstance().watch(slot, slotChangedListener);
+        } catch (IOException e) {
+            System.err.println("Cannot watch save slot " + slot + ": " + e.getMessage());
+        }
+
         setVisible(true);
     }
 
@@ -366,37 +439,55 @@ public class GamePlayScreen extends JFrame {
         buttonPanel.add(playButton);
         buttonPanel.add(exerciseButton);
         buttonPanel.add(inventoryButton);
+
+        // Count every button press as a player action for the autosave policy.
+        // invokeLater lets the button's own handler change the pet first.
+        for (Component button : buttonPanel.getComponents()) {
+            ((JButton) button).addActionListener(e -> SwingUtilities.invokeLater(this::onPlayerAction));
+        }
         return buttonPanel;
     }
 
     /**
      * Displays the pet's image on the pet panel.
      * <p>
-     * This method removes any previous pet image, constructs the image path based on the pet's type
-     * and current state, scales the image appropriately, and then adds it to the panel.
+     * The sprite is chosen by the pet's type and current state and comes pre-scaled from the
+     * {@link SpriteCache}. The same label is reused on every tick and its icon is only replaced
+     * when the state actually changes, so an unchanged pet costs nothing to display.
+     * With active rendering the sprite is handed to the {@link PetCanvas} instead, which
+     * draws and animates it on its own thread.
      * </p>
      * The images of Sprites from https://www.spriters-resource.com
      */
     private void displayPet() {
-        // Clear the previous component each time.
-        petPanel.removeAll();
-
-        // Concatenate the image path based on the pet type (e.g., duck, cat, dog ...)
-        // and its status (e.g., ANGRY, HUNGRY, SLEEP, DEAD...),
-        // resulting in something like "resources/duck/angry.png"
-        String imagePath = "resources/"+gameState.getPetType().toLowerCase()+"/"
-                            +String.valueOf(pet.getCurrentState()).toLowerCase()+".png";
-        // Create image and display
-        ImageIcon petIcon = new ImageIcon(imagePath);
-        petIcon.setImage(petIcon.getImage().getScaledInstance(200, 200, Image.SCALE_SMOOTH));
-
-        // Show display area
-        JLabel petLabel = new JLabel(petIcon);
-        petLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-
-        petPanel.add(petLabel, BorderLayout.CENTER);
-        petPanel.revalidate();
-        petPanel.repaint();
+        if (ACTIVE_RENDERING && petCanvas == null) {
+            petCanvas = new PetCanvas(FPS_CAP);
+            petPanel.add(petCanvas, BorderLayout.CENTER);
+            petPanel.revalidate();
+        } else if (!ACTIVE_RENDERING && petLabel == null) {
+            // Show display area
+            petLabel = new JLabel();
+            petLabel.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+            petPanel.add(petLabel, BorderLayout.CENTER);
+            petPanel.revalidate();
+        }
+
+        // The sprite depends on the pet type (e.g., duck, sheep, dog ...)
+        // and its status (e.g., ANGRY, HUNGRY, SLEEPING, DEAD...),
+        // read from something like "resources/duck/angry.png"
+        String petType = gameState.getPetType();
+        VirtualPet.PetState state = pet.getCurrentState();
+        if (state == shownState && petType.equals(shownPetType)) {
+            return;
+        }
+        BufferedImage sprite = SpriteCache.getInstance().get(petType, state, PET_SPRITE_SIZE, PET_SPRITE_SIZE);
+        if (petCanvas != null) {
+            petCanvas.setPet(sprite, state);
+        } else {
+            petLabel.setIcon(sprite == null ? null : new ImageIcon(sprite));
+        }
+        shownState = state;
+        shownPetType = petType;
     }
 
     /**
@@ -413,4 +504,84 @@ public class GamePlayScreen extends JFrame {
         happinessBar.setValue(happiness);
         fullnessBar.setValue(fullness);
     }
+
+    /**
+     * Reloads the slot if its stored version is newer than any this screen knows about,
+     * meaning the slot was written from outside the game.
+     */
+    private void checkForExternalChanges() {
+        try {
+            // Our own background writes may be newer than the version this screen has seen
+            long known = Math.max(gameState.getVersion(), BackgroundSaver.getInstance().lastWrittenVersion(slot));
+            if (SaveLoadManager.getStore().slotVersion(slot) > known) {
+                reloadFromSlot();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to check save slot " + slot + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the in-memory game with the latest state stored in the slot and
+     * refreshes the pet and status bars.
+     *
+     * @throws IOException if the slot cannot be read
+     */
+    private void reloadFromSlot() throws IOException {
+        GameState latest = SaveLoadManager.loadGame(slot);
+        if (latest == null) {
+            return;
+        }
+        if (latest.getInventory() == null) {
+            latest.setInventory(new Inventory());
+        }
+        gameState = latest;
+        inventory = latest.getInventory();
+        gameState.markSaved();
+        autosavePolicy.reset();
+
+        pet.setHealth(latest.getHealth());
+        pet.setSleep(latest.getSleep());
+        pet.setHappiness(latest.getHappiness());
+        pet.setFullness(latest.getFullness());
+        pet.updateState();
+
+        updateBars(latest.getHealth(), latest.getSleep(), latest.getHappiness(), latest.getFullness());
+        displayPet();
+    }
+
+    /**
+     * Records a player action and saves if the autosave policy asks for it.
+     */
+    private void onPlayerAction() {
+        gameState.updateGameState(pet, inventory);
+        autosavePolicy.recordAction();
+        if (autosavePolicy.evaluate(gameState, System.currentTimeMillis()) != null) {
+            saveInBackground();
+        }
+    }
+
+    /**
+     * Hands an immutable snapshot of the game to the background saver
+     * (only the changes are appended to the slot's journal).
+     */
+    private void saveInBackground() {
+        lastSnapshot = GameStateSnapshot.capture(gameState, lastSnapshot);
+        BackgroundSaver.getInstance().submit(slot, lastSnapshot, saveListener);
+        autosavePolicy.saved(gameState, System.currentTimeMillis());
+    }
+
+    /**
+     * Saves unsaved changes and waits for the background saver to finish,
+     * since the game is about to close.
+     */
+    private void saveOnShutdown() {
+        gameState.updateGameState(pet, inventory);
+        if (autosavePolicy.onShutdown(gameState) != null) {
+            saveInBackground();
+        }
+        if (!BackgroundSaver.getInstance().flush(SHUTDOWN_SAVE_TIMEOUT_MILLIS)) {
+            System.err.println("Save slot " + slot + " may not be fully written");
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents the saved state of the game, including information about the pet,
@@ -9,6 +10,17 @@ import java.util.List;
  * The GameState includes time-related data such as when it was first created
  * and the last time it was saved.
  * </p>
+ * <p>
+ * Each state also carries the version of its slot. The version goes up by one on every write,
+ * which lets {@link SaveLoadManager#saveIfVersion(GameState, int, long)} detect that someone
+ * else wrote the slot after this state was loaded. The separate schema version records the
+ * save format; see {@link SaveMigrations}.
+ * </p>
+ * <p>
+ * In memory, the state counts gameplay changes (stats, score, pet and inventory) and is dirty
+ * until {@link #markSaved()} is called, so autosaves can skip states that did not change.
+ * Bookkeeping fields such as the version and timestamps do not count as changes.
+ * </p>
  *
  * <p>
  * Example usage:
@@ -25,6 +37,8 @@ import java.util.List;
  */
 
 public class GameState {
+    // Save format version; older documents are upgraded by SaveMigrations when read
+    private int schemaVersion = SaveMigrations.CURRENT_VERSION;
     private String petName;
     private String petType;
     private int health;
@@ -34,42 +48,85 @@ public class GameState {
     private int score;
     private Inventory inventory;
     private LocalDateTime lastSavedTime;
+    // Slot version this state was loaded from or last written as
+    private long version;
+    // Number of gameplay changes made in memory; not saved
+    private transient long changes;
+    // Change count at the last markSaved(); the state is dirty while getChangeCount() differs
+    private transient long savedChangeCount;
 
     public void updateGameState(VirtualPet pet, Inventory inventory) {
-        this.petName = pet.getName();
-        this.petType = String.valueOf(pet.getPetType());
-        this.health = pet.getHealth();
-        this.sleep = pet.getSleep();
-        this.fullness = pet.getFullness();
-        this.happiness = pet.getHappiness();
-        this.score = pet.getScore();
-        this.inventory = inventory;
+        setPetName(pet.getName());
+        setPetType(String.valueOf(pet.getPetType()));
+        setHealth(pet.getHealth());
+        setSleep(pet.getSleep());
+        setFullness(pet.getFullness());
+        setHappiness(pet.getHappiness());
+        setScore(pet.getScore());
+        setInventory(inventory);
+    }
+
+    /**
+     * Returns a counter that grows with every gameplay change to this state, including
+     * changes to its inventory. Setting a field to the value it already has is not a change.
+     *
+     * @return the change count
+     */
+    public long getChangeCount() {
+        return changes + (inventory == null ? 0 : inventory.getModCount());
+    }
+
+    /**
+     * Checks whether the state changed since it was loaded or last marked as saved.
+     *
+     * @return true if there are unsaved changes
+     */
+    public boolean isDirty() {
+        return getChangeCount() != savedChangeCount;
+    }
+
+    /**
+     * Marks the current contents as saved, clearing the dirty flag.
+     */
+    public void markSaved() {
+        savedChangeCount = getChangeCount();
     }
 
     // Getters and Setters
+    public int getSchemaVersion() { return schemaVersion; }
+
     public String getPetName() { return petName; }
-    public void setPetName(String petName) { this.petName = petName; }
+    public void setPetName(String petName) { if (!Objects.equals(this.petName, petName)) changes++; this.petName = petName; }
 
     public String getPetType() { return petType; }
-    public void setPetType(String petType) { this.petType = petType; }
+    public void setPetType(String petType) { if (!Objects.equals(this.petType, petType)) changes++; this.petType = petType; }
 
     public int getHealth() { return health; }
-    public void setHealth(int health) { this.health = health; }
+    public void setHealth(int health) { if (this.health != health) changes++; this.health = health; }
 
     public int getSleep() { return sleep; }
-    public void setSleep(int sleep) { this.sleep = sleep; }
+    public void setSleep(int sleep) { if (this.sleep != sleep) changes++; this.sleep = sleep; }
 
     public int getFullness() { return fullness; }
-    public void setFullness(int fullness) { this.fullness = fullness; }
+    public void setFullness(int fullness) { if (this.fullness != fullness) changes++; this.fullness = fullness; }
 
     public int getHappiness() { return happiness; }
-    public void setHappiness(int happiness) { this.happiness = happiness; }
+    public void setHappiness(int happiness) { if (this.happiness != happiness) changes++; this.happiness = happiness; }
 
     public int getScore() { return score; }
-    public void setScore(int score) { this.score = score; }
+    public void setScore(int score) { if (this.score != score) changes++; this.score = score; }
 
     public Inventory getInventory() { return inventory; }
-    public void setInventory(Inventory inventory) { this.inventory = inventory; }
+    public void setInventory(Inventory inventory) {
+        if (this.inventory != inventory) {
+            // Keep the change count growing when the inventory object is replaced
+            changes += (this.inventory == null ? 0 : this.inventory.getModCount()) + 1;
+        }
+        this.inventory = inventory;
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
 
     public LocalDateTime getLastSavedTime() { return lastSavedTime; }
     public void setLastSavedTime(LocalDateTime lastSavedTime) { this.lastSavedTime = lastSavedTime; }
@@ -0,0 +1,193 @@
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of a {@link GameState}, taken so that the state can be serialized on another
+ * thread while the game keeps changing the live pet and inventory.
+ * <p>
+ * Inventory items are copied into small immutable records. Taking a snapshot compares the live
+ * items with the records of the previous snapshot and reuses every record that did not change,
+ * and the whole record list when nothing changed at all, so snapshots taken every tick share
+ * almost all of their data and cost little more than a walk over the inventory.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * // On the game thread
+ * snapshot = GameStateSnapshot.capture(gameState, snapshot);
+ *
+ * // On any thread
+ * GameState copy = snapshot.toGameState();
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public final class GameStateSnapshot {
+
+    private final String petName;
+    private final String petType;
+    private final int health;
+    private final int sleep;
+    private final int fullness;
+    private final int happiness;
+    private final int score;
+    private final long version;
+    private final LocalDateTime creationTime;
+    private final LocalDateTime lastSavedTime;
+    private final List<ItemRecord> items;
+
+    private GameStateSnapshot(GameState state, List<ItemRecord> items) {
+        this.petName = state.getPetName();
+        this.petType = state.getPetType();
+        this.health = state.getHealth();
+        this.sleep = state.getSleep();
+        this.fullness = state.getFullness();
+        this.happiness = state.getHappiness();
+        this.score = state.getScore();
+        this.version = state.getVersion();
+        this.creationTime = state.getCreationTime();
+        this.lastSavedTime = state.getLastSavedTime();
+        this.items = items;
+    }
+
+    /**
+     * Takes a snapshot of a state. Must be called on the thread that changes the state.
+     *
+     * @param state    the live game state
+     * @param previous the previous snapshot of the same game, or null
+     * @return a new snapshot sharing unchanged item records with {@code previous}
+     */
+    public static GameStateSnapshot capture(GameState state, GameStateSnapshot previous) {
+        List<ItemRecord> before = (previous != null) ? previous.items : Collections.emptyList();
+        List<InventoryItem> live = (state.getInventory() != null)
+                ? state.getInventory().getItems() : Collections.emptyList();
+
+        List<ItemRecord> records = new ArrayList<>(live.size());
+        Map<String, ItemRecord> beforeByName = null;
+        boolean allShared = live.size() == before.size();
+        for (int i = 0; i < live.size(); i++) {
+            InventoryItem item = live.get(i);
+            // Items keep their order, so the record at the same position is almost always the match
+            ItemRecord match = (i < before.size()) ? before.get(i) : null;
+            if (match == null || !match.name.equals(item.getName())) {
+                if (beforeByName == null) {
+                    beforeByName = indexByName(before);
+                }
+                match = beforeByName.get(item.getName());
+                allShared = false;
+            }
+            if (match == null || !match.matches(item)) {
+                match = ItemRecord.of(item);
+                allShared = false;
+            }
+            records.add(match);
+        }
+        return new GameStateSnapshot(state, allShared ? before : Collections.unmodifiableList(records));
+    }
+
+    /**
+     * Builds a new, independent GameState from this snapshot.
+     *
+     * @return a GameState that shares no mutable objects with the live game
+     */
+    public GameState toGameState() {
+        GameState state = new GameState();
+        state.setPetName(petName);
+        state.setPetType(petType);
+        state.setHealth(health);
+        state.setSleep(sleep);
+        state.setFullness(fullness);
+        state.setHappiness(happiness);
+        state.setScore(score);
+        state.setVersion(version);
+        state.setCreationTime(creationTime);
+        state.setLastSavedTime(lastSavedTime);
+
+        Inventory inventory = new Inventory();
+        for (ItemRecord record : items) {
+            inventory.addItem(record.toItem());
+        }
+        state.setInventory(inventory);
+        return state;
+    }
+
+    /**
+     * Gets the slot version of the state when the snapshot was taken.
+     *
+     * @return the slot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of distinct items in the inventory.
+     *
+     * @return number of item records
+     */
+    public int getItemCount() {
+        return items.size();
+    }
+
+    /**
+     * Checks whether this snapshot shares its item records with another one, meaning the
+     * inventory did not change between the two.
+     *
+     * @param other another snapshot
+     * @return true if both use the same item list
+     */
+    public boolean sharesItemsWith(GameStateSnapshot other) {
+        return other != null && items == other.items;
+    }
+
+    private static Map<String, ItemRecord> indexByName(List<ItemRecord> records) {
+        Map<String, ItemRecord> byName = new HashMap<>();
+        for (ItemRecord record : records) {
+            byName.put(record.name, record);
+        }
+        return byName;
+    }
+
+    /**
+     * Immutable copy of one inventory item.
+     */
+    private static final class ItemRecord {
+        private final boolean food;
+        private final String name;
+        private final int quantity;
+        private final int value;
+
+        private ItemRecord(boolean food, String name, int quantity, int value) {
+            this.food = food;
+            this.name = name;
+            this.quantity = quantity;
+            this.value = value;
+        }
+
+        static ItemRecord of(InventoryItem item) {
+            if (item instanceof FoodItem) {
+                return new ItemRecord(true, item.getName(), item.getQuantity(), ((FoodItem) item).getFoodValue());
+            }
+            return new ItemRecord(false, item.getName(), item.getQuantity(), ((GiftItem) item).getHappinessValue());
+        }
+
+        boolean matches(InventoryItem item) {
+            if (quantity != item.getQuantity() || !name.equals(item.getName())) {
+                return false;
+            }
+            if (item instanceof FoodItem) {
+                return food && value == ((FoodItem) item).getFoodValue();
+            }
+            return !food && value == ((GiftItem) item).getHappinessValue();
+        }
+
+        InventoryItem toItem() {
+            return food ? new FoodItem(name, quantity, value) : new GiftItem(name, quantity, value);
+        }
+    }
+}
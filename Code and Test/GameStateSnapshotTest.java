@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateSnapshotTest {
+
+    private GameState state;
+    private Inventory inventory;
+
+    @BeforeEach
+    void setup() throws IOException {
+        Files.createDirectories(Paths.get("saves/"));
+        Files.list(Paths.get("saves/"))
+                .forEach(path -> path.toFile().delete());
+        SlotStore.getInstance().rescan();
+
+        inventory = new Inventory();
+        inventory.addItem(new FoodItem("Apple", 2, 10));
+        inventory.addItem(new GiftItem("Ball", 1, 20));
+        state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), inventory);
+    }
+
+    @Test
+    void capture_LaterChangesToLiveState_DoNotAffectSnapshot() {
+        GameStateSnapshot snapshot = GameStateSnapshot.capture(state, null);
+
+        state.setHealth(1);
+        inventory.addItem(new FoodItem("Apple", 5, 10));
+        inventory.removeItemByName("Ball", 1);
+
+        GameState copy = snapshot.toGameState();
+        assertEquals(100, copy.getHealth());
+        assertEquals(2, copy.getInventory().getItemCount("Apple"));
+        assertTrue(copy.getInventory().getItemByName("Ball") instanceof GiftItem);
+        assertNotSame(inventory.getItemByName("Apple"), copy.getInventory().getItemByName("Apple"));
+    }
+
+    @Test
+    void capture_UnchangedInventory_SharesItemsWithPreviousSnapshot() {
+        GameStateSnapshot first = GameStateSnapshot.capture(state, null);
+        state.setHealth(50);
+        GameStateSnapshot second = GameStateSnapshot.capture(state, first);
+        assertTrue(second.sharesItemsWith(first));
+
+        inventory.addItem(new FoodItem("Apple", 1, 10));
+        GameStateSnapshot third = GameStateSnapshot.capture(state, second);
+        assertFalse(third.sharesItemsWith(second));
+        assertEquals(3, third.toGameState().getInventory().getItemCount("Apple"));
+    }
+
+    @Test
+    void submit_BeforeGameSeesPreviousWrite_IsNotAConflict() throws Exception {
+        SaveLoadManager.saveGame(state, 20);
+        CountDownLatch saved = new CountDownLatch(2);
+        AtomicLong lastVersion = new AtomicLong();
+        BackgroundSaver.Listener listener = new BackgroundSaver.Listener() {
+            @Override
+            public void onSaved(int slot, long version) {
+                lastVersion.set(version);
+                saved.countDown();
+            }
+
+            @Override
+            public void onConflict(int slot) {
+                fail("unexpected conflict");
+            }
+        };
+
+        // Both snapshots still carry the version from before the first background write
+        state.setHealth(80);
+        BackgroundSaver.getInstance().submit(20, GameStateSnapshot.capture(state, null), listener);
+        assertTrue(waitForVersion(lastVersion, 2));
+        state.setHealth(60);
+        BackgroundSaver.getInstance().submit(20, GameStateSnapshot.capture(state, null), listener);
+
+        assertTrue(saved.await(10, TimeUnit.SECONDS));
+        assertEquals(3, lastVersion.get());
+        assertEquals(60, SaveLoadManager.loadGame(20).getHealth());
+    }
+
+    private static boolean waitForVersion(AtomicLong version, long expected) throws InterruptedException {
+        for (int i = 0; i < 1000 && version.get() < expected; i++) {
+            Thread.sleep(10);
+        }
+        return version.get() >= expected;
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage backend for everything the game persists: the state of each save slot and named
+ * records such as the global parental settings and play-time statistics.
+ * <p>
+ * {@link SaveLoadManager} and {@link Player} go through the active store returned by
+ * {@link SaveLoadManager#getStore()}, so the backend can be swapped without touching the screens.
+ * Two implementations are provided:
+ * <ul>
+ *   <li>{@link FileGameStore} – one JSON file per slot under {@code saves/} (the default)</li>
+ *   <li>{@link KeyValueGameStore} – a single-file, log-structured key-value store with
+ *       transactional multi-slot writes</li>
+ * </ul>
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * GameStore store = new KeyValueGameStore(new File("saves/virtualpet.db"));
+ * SaveLoadManager.setStore(store);
+ *
+ * Map<Integer, GameState> batch = new HashMap<>();
+ * batch.put(1, first);
+ * batch.put(2, second);
+ * store.saveGames(batch); // both slots or neither
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public interface GameStore {
+
+    /** Record name of the global parental settings. */
+    String GLOBAL_SETTINGS = "global_settings";
+
+    /** Record name of the global play-time statistics. */
+    String PLAY_STATS = "play_stats";
+
+    /** Record name of the ledger of finished play sessions. */
+    String PLAY_LEDGER = "play_ledger";
+
+    /**
+     * Loads the state stored in a slot.
+     *
+     * @param slot the save slot number
+     * @return the stored GameState, or null if the slot is empty
+     * @throws IOException if reading fails
+     */
+    GameState loadGame(int slot) throws IOException;
+
+    /**
+     * Stores a state in a slot, replacing what was there. The state is written as-is;
+     * timestamps are managed by {@link SaveLoadManager}.
+     *
+     * @param state the GameState to store
+     * @param slot  the save slot number
+     * @throws IOException if writing fails
+     */
+    void saveGame(GameState state, int slot) throws IOException;
+
+    /**
+     * Stores several slots at once. Stores that support transactions apply either all of the
+     * writes or none of them.
+     *
+     * @param states slot number to GameState
+     * @throws IOException if writing fails
+     */
+    void saveGames(Map<Integer, GameState> states) throws IOException;
+
+    /**
+     * Returns the version of the state currently stored in a slot. Stores may answer from a
+     * cache as long as it reflects every write made to the slot.
+     *
+     * @param slot the save slot number
+     * @return the stored version, or 0 if the slot is empty
+     * @throws IOException if reading fails
+     */
+    default long slotVersion(int slot) throws IOException {
+        GameState state = loadGame(slot);
+        return state == null ? 0 : state.getVersion();
+    }
+
+    /**
+     * Deletes a slot.
+     *
+     * @param slot the save slot number
+     * @return true if the slot existed
+     * @throws IOException if deleting fails
+     */
+    boolean deleteGame(int slot) throws IOException;
+
+    /**
+     * Checks whether a slot holds a game.
+     *
+     * @param slot the save slot number
+     * @return true if the slot exists
+     */
+    boolean hasGame(int slot);
+
+    /**
+     * Returns the number of slots that hold a game.
+     *
+     * @return number of existing slots
+     */
+    int gameCount();
+
+    /**
+     * Returns one page of existing slot numbers in ascending order.
+     *
+     * @param page     zero-based page index
+     * @param pageSize number of slots per page
+     * @return slot numbers on that page
+     */
+    List<Integer> listGames(int page, int pageSize);
+
+    /**
+     * Returns every existing slot number in ascending order.
+     *
+     * @return all slot numbers
+     */
+    default List<Integer> listAllGames() {
+        return listGames(0, Math.max(1, gameCount()));
+    }
+
+    /**
+     * Picks the slot to use for a new pet: a free slot, or the one to replace once the
+     * store's slot quota is reached.
+     *
+     * @return slot number for a new game
+     */
+    int allocateSlot();
+
+    /**
+     * Reads a named record such as {@link #GLOBAL_SETTINGS}.
+     *
+     * @param name record name
+     * @return the record bytes, or null if the record does not exist
+     * @throws IOException if reading fails
+     */
+    byte[] loadRecord(String name) throws IOException;
+
+    /**
+     * Writes a named record, replacing any previous value.
+     *
+     * @param name record name
+     * @param data record bytes
+     * @throws IOException if writing fails
+     */
+    void saveRecord(String name, byte[] data) throws IOException;
+
+    /**
+     * Adds bytes to the end of a named record, creating the record if it does not exist.
+     * The default implementation rewrites the whole record; stores that can append in place
+     * override it.
+     *
+     * @param name record name
+     * @param data bytes to add
+     * @throws IOException if writing fails
+     */
+    default void appendRecord(String name, byte[] data) throws IOException {
+        byte[] old = loadRecord(name);
+        if (old == null) {
+            saveRecord(name, data);
+            return;
+        }
+        byte[] joined = Arrays.copyOf(old, old.length + data.length);
+        System.arraycopy(data, 0, joined, old.length, data.length);
+        saveRecord(name, joined);
+    }
+
+    /**
+     * Returns a stamp that changes whenever a named record is written, so callers can cache the
+     * record and read it again only when it changed.
+     *
+     * @param name record name
+     * @return the record's stamp, 0 if it does not exist, or -1 if the store cannot tell
+     */
+    default long recordStamp(String name) {
+        return -1;
+    }
+}
@@ -0,0 +1,421 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the global settings (password, play statistics and parental controls) in memory and
+ * persists them as the {@link GameStore#GLOBAL_SETTINGS} record of the active store.
+ * <p>
+ * Reads are served from an immutable {@link Settings} value. Before returning it the store
+ * compares the record's modification stamp with the one it last read; only when the record was
+ * written by someone else, such as another running copy of the game, is it read and decoded
+ * again. Nothing is deserialized on password checks or when a game starts.
+ * <p>
+ * The record is written in a small versioned binary format:
+ * <pre>
+ *   'G' 'S' version(1)
+ *   passwordInitialized  password(UTF)
+ *   totalPlayTime(float) gameStartCount(int)
+ *   controlsEnabled      playTimeLimit(UTF)
+ *   startHour startMinute endHour endMinute (short each)
+ *   scheduleRules(UTF)                            since version 2
+ *   dailyQuotaMinutes(short)                      since version 3
+ * </pre>
+ * Records written with Java serialization by older versions are still read and are converted
+ * on the next write. Writes replace the record atomically (see {@link GameStore#saveRecord}).
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * GlobalSettingsStore store = GlobalSettingsStore.getInstance();
+ * if (store.get().getPassword().equals(entered)) { ... }
+ * store.update(s -> s.withParentalControls(true, "18:00 - 20:00", 18, 0, 20, 0));
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class GlobalSettingsStore {
+
+    /** Current version of the binary format. */
+    public static final int FORMAT_VERSION = 3;
+
+    private static final byte MAGIC_0 = 'G';
+    private static final byte MAGIC_1 = 'S';
+    // First two bytes of a Java serialization stream
+    private static final byte LEGACY_MAGIC_0 = (byte) 0xAC;
+    private static final byte LEGACY_MAGIC_1 = (byte) 0xED;
+
+    private static GlobalSettingsStore instance;
+
+    private final Supplier<GameStore> storeSource;
+    private final String recordName;
+    // Settings as last read or written, with the store and stamp they came from
+    private volatile Cached cached;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a settings store for a named record.
+     *
+     * @param recordName name of the record in the active {@link GameStore}
+     */
+    GlobalSettingsStore(String recordName) {
+        this(SaveLoadManager::getStore, recordName);
+    }
+
+    /**
+     * Creates a settings store for a named record of another store, such as a profile's.
+     *
+     * @param storeSource supplies the store holding the record
+     * @param recordName  name of the record
+     */
+    GlobalSettingsStore(Supplier<GameStore> storeSource, String recordName) {
+        this.storeSource = storeSource;
+        this.recordName = recordName;
+    }
+
+    /**
+     * Returns the store for {@link GameStore#GLOBAL_SETTINGS}.
+     *
+     * @return the shared GlobalSettingsStore instance
+     */
+    public static synchronized GlobalSettingsStore getInstance() {
+        if (instance == null) {
+            instance = new GlobalSettingsStore(GameStore.GLOBAL_SETTINGS);
+        }
+        return instance;
+    }
+
+    /**
+     * Registers a listener that is called whenever different settings are written or read,
+     * for example to reschedule enforcement. Listeners run on the thread that caused the change
+     * and must not block.
+     *
+     * @param listener called after each change
+     */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addChangeListener(Runnable)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Returns the current settings, reading the record again only if it changed on disk.
+     *
+     * @return the settings, never null
+     */
+    public Settings get() {
+        GameStore store = storeSource.get();
+        Cached current = cached;
+        long stamp = store.recordStamp(recordName);
+        if (current != null && current.store == store && stamp >= 0 && current.stamp == stamp) {
+            return current.settings;
+        }
+        synchronized (this) {
+            return reload(store).settings;
+        }
+    }
+
+    /**
+     * Changes the settings and writes them. The change is applied to the newest settings, so
+     * concurrent updates within this process are not lost. If the settings cannot be written,
+     * nothing changes: {@link #get()} keeps returning the previous settings and no listener is
+     * called.
+     *
+     * @param change function from the current settings to the new ones
+     * @return the settings that were written
+     * @throws IOException if the settings cannot be written
+     */
+    public synchronized Settings update(UnaryOperator<Settings> change) throws IOException {
+        GameStore store = storeSource.get();
+        Settings next = change.apply(reload(store).settings);
+        store.saveRecord(recordName, encode(next));
+        cached = new Cached(store, store.recordStamp(recordName), next);
+        fireChanged();
+        return next;
+    }
+
+    /**
+     * Returns the cached settings if they are still current, otherwise reads the record.
+     * Callers must hold the lock.
+     *
+     * @param store the active store
+     * @return the up-to-date cache entry
+     */
+    private Cached reload(GameStore store) {
+        long stamp = store.recordStamp(recordName);
+        Cached current = cached;
+        if (current != null && current.store == store && stamp >= 0 && current.stamp == stamp) {
+            return current;
+        }
+        Settings settings = Settings.DEFAULTS;
+        try {
+            byte[] data = store.loadRecord(recordName);
+            if (data != null) {
+                settings = decode(data);
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Failed to load global settings: " + e.getMessage());
+            if (current != null && current.store == store) {
+                settings = current.settings;
+            }
+        }
+        cached = new Cached(store, stamp, settings);
+        if (current != null) {
+            fireChanged();
+        }
+        return cached;
+    }
+
+    private void fireChanged() {
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Encodes settings in the current binary format.
+     *
+     * @param s the settings
+     * @return the record bytes
+     * @throws IOException never for an in-memory stream
+     */
+    static byte[] encode(Settings s) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(FORMAT_VERSION);
+            out.writeBoolean(s.passwordInitialized);
+            out.writeUTF(s.password);
+            out.writeFloat(s.totalPlayTime);
+            out.writeInt(s.gameStartCount);
+            out.writeBoolean(s.parentalControlsEnabled);
+            out.writeUTF(s.playTimeLimit);
+            out.writeShort(s.startHour);
+            out.writeShort(s.startMinute);
+            out.writeShort(s.endHour);
+            out.writeShort(s.endMinute);
+            out.writeUTF(s.scheduleRules);
+            out.writeShort(s.dailyQuotaMinutes);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a settings record in the current or the legacy format.
+     *
+     * @param data the record bytes
+     * @return the settings
+     * @throws IOException            if the record is malformed or from a newer version
+     * @throws ClassNotFoundException if a legacy record holds an unknown class
+     */
+    static Settings decode(byte[] data) throws IOException, ClassNotFoundException {
+        if (data.length >= 2 && data[0] == LEGACY_MAGIC_0 && data[1] == LEGACY_MAGIC_1) {
+            return decodeLegacy(data);
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != MAGIC_0 || in.readByte() != MAGIC_1) {
+                throw new IOException("Not a settings record");
+            }
+            int version = in.readUnsignedByte();
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Settings format " + version + " is newer than this game supports");
+            }
+            return new Settings(in.readBoolean(), in.readUTF(), in.readFloat(), in.readInt(),
+                    in.readBoolean(), in.readUTF(),
+                    in.readShort(), in.readShort(), in.readShort(), in.readShort(),
+                    version >= 2 ? in.readUTF() : "",
+                    version >= 3 ? in.readShort() : 0);
+        }
+    }
+
+    /**
+     * Decodes a record written with Java serialization by older versions of the game.
+     */
+    private static Settings decodeLegacy(byte[] data) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            boolean passwordInitialized = ois.readBoolean();
+            String password = (String) ois.readObject();
+            float totalPlayTime = ois.readFloat();
+            int gameStartCount = ois.readInt();
+            boolean controlsEnabled = ois.readBoolean();
+            String playTimeLimit = (String) ois.readObject();
+            return new Settings(passwordInitialized, password, totalPlayTime, gameStartCount,
+                    controlsEnabled, playTimeLimit, ois.readInt(), ois.readInt(), ois.readInt(), ois.readInt(), "", 0);
+        }
+    }
+
+    /**
+     * Immutable set of global settings. The {@code with...} methods return changed copies.
+     */
+    public static final class Settings {
+        /** Settings used before anything was saved. */
+        public static final Settings DEFAULTS =
+                new Settings(false, "0000", 0.0f, 0, false, "18:00 - 20:00", 18, 0, 20, 0, "", 0);
+
+        private final boolean passwordInitialized;
+        private final String password;
+        private final float totalPlayTime;
+        private final int gameStartCount;
+        private final boolean parentalControlsEnabled;
+        private final String playTimeLimit;
+        private final int startHour;
+        private final int startMinute;
+        private final int endHour;
+        private final int endMinute;
+        private final String scheduleRules;
+        private final int dailyQuotaMinutes;
+        // Compiled on first use; settings are immutable, so it is built once per change
+        private volatile PlaySchedule schedule;
+
+        Settings(boolean passwordInitialized, String password, float totalPlayTime, int gameStartCount,
+                 boolean parentalControlsEnabled, String playTimeLimit,
+                 int startHour, int startMinute, int endHour, int endMinute, String scheduleRules,
+                 int dailyQuotaMinutes) {
+            this.passwordInitialized = passwordInitialized;
+            this.password = password;
+            this.totalPlayTime = totalPlayTime;
+            this.gameStartCount = gameStartCount;
+            this.parentalControlsEnabled = parentalControlsEnabled;
+            this.playTimeLimit = playTimeLimit;
+            this.startHour = startHour;
+            this.startMinute = startMinute;
+            this.endHour = endHour;
+            this.endMinute = endMinute;
+            this.scheduleRules = scheduleRules;
+            this.dailyQuotaMinutes = dailyQuotaMinutes;
+        }
+
+        public boolean isPasswordInitialized() { return passwordInitialized; }
+        public String getPassword() { return password; }
+        public float getTotalPlayTime() { return totalPlayTime; }
+        public int getGameStartCount() { return gameStartCount; }
+        public boolean isParentalControlsEnabled() { return parentalControlsEnabled; }
+        public String getPlayTimeLimit() { return playTimeLimit; }
+        public int getStartHour() { return startHour; }
+        public int getStartMinute() { return startMinute; }
+        public int getEndHour() { return endHour; }
+        public int getEndMinute() { return endMinute; }
+        public String getScheduleRules() { return scheduleRules; }
+        public int getDailyQuotaMinutes() { return dailyQuotaMinutes; }
+
+        /**
+         * Returns the compiled play schedule: the schedule rules if any are set, otherwise the
+         * single daily window. Invalid rules fall back to the daily window, and an invalid
+         * daily window, e.g. one stored by an older version, to always allowing play.
+         * @return the schedule, compiled once per settings value
+         */
+        public PlaySchedule getSchedule() {
+            PlaySchedule compiled = schedule;
+            if (compiled == null) {
+                if (!scheduleRules.isEmpty()) {
+                    try {
+                        compiled = PlaySchedule.parse(scheduleRules);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid play schedule, using the daily window: " + e.getMessage());
+                    }
+                }
+                if (compiled == null) {
+                    try {
+                        compiled = PlaySchedule.daily(startHour, startMinute, endHour, endMinute);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid play time range, allowing play at any time: " + e.getMessage());
+                        compiled = PlaySchedule.ALWAYS;
+                    }
+                }
+                schedule = compiled;
+            }
+            return compiled;
+        }
+
+        /**
+         * @param password the new password
+         * @return copy with the password set and marked as initialized
+         */
+        public Settings withPassword(String password) {
+            return new Settings(true, password, totalPlayTime, gameStartCount,
+                    parentalControlsEnabled, playTimeLimit, startHour, startMinute, endHour, endMinute,
+                    scheduleRules, dailyQuotaMinutes);
+        }
+
+        /**
+         * Play statistics are kept by {@link PlayStatistics}; these fields only carry the values
+         * of records written by older versions.
+         * @param totalPlayTime  total play time in hours
+         * @param gameStartCount number of games started
+         * @return copy with the play statistics replaced
+         */
+        public Settings withStatistics(float totalPlayTime, int gameStartCount) {
+            return new Settings(passwordInitialized, password, totalPlayTime, gameStartCount,
+                    parentalControlsEnabled, playTimeLimit, startHour, startMinute, endHour, endMinute,
+                    scheduleRules, dailyQuotaMinutes);
+        }
+
+        /**
+         * @param enabled       whether parental controls are enabled
+         * @param playTimeLimit allowed range, format "HH:MM - HH:MM"
+         * @param startHour     start of the allowed range
+         * @param startMinute   start of the allowed range
+         * @param endHour       end of the allowed range
+         * @param endMinute     end of the allowed range
+         * @return copy with the parental controls replaced
+         */
+        public Settings withParentalControls(boolean enabled, String playTimeLimit,
+                                             int startHour, int startMinute, int endHour, int endMinute) {
+            return new Settings(passwordInitialized, password, totalPlayTime, gameStartCount,
+                    enabled, playTimeLimit, startHour, startMinute, endHour, endMinute, scheduleRules,
+                    dailyQuotaMinutes);
+        }
+
+        /**
+         * @param scheduleRules rules in the format of {@link PlaySchedule#parse(String)}, or an
+         *                      empty string to use the single daily window
+         * @return copy with the schedule rules replaced
+         */
+        public Settings withScheduleRules(String scheduleRules) {
+            return new Settings(passwordInitialized, password, totalPlayTime, gameStartCount,
+                    parentalControlsEnabled, playTimeLimit, startHour, startMinute, endHour, endMinute,
+                    scheduleRules, dailyQuotaMinutes);
+        }
+
+        /**
+         * @param dailyQuotaMinutes minutes that may be played per day, or 0 for no limit
+         * @return copy with the daily quota replaced
+         */
+        public Settings withDailyQuotaMinutes(int dailyQuotaMinutes) {
+            return new Settings(passwordInitialized, password, totalPlayTime, gameStartCount,
+                    parentalControlsEnabled, playTimeLimit, startHour, startMinute, endHour, endMinute,
+                    scheduleRules, dailyQuotaMinutes);
+        }
+    }
+
+    /**
+     * Settings together with the store and record stamp they were read from.
+     */
+    private static class Cached {
+        private final GameStore store;
+        private final long stamp;
+        private final Settings settings;
+
+        Cached(GameStore store, long stamp, Settings settings) {
+            this.store = store;
+            this.stamp = stamp;
+            this.settings = settings;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalSettingsStoreTest {
+
+    private static final String RECORD = "test_global_settings";
+
+    private GlobalSettingsStore settingsStore;
+
+    @BeforeEach
+    void setup() {
+        new File(RECORD + ".dat").delete();
+        settingsStore = new GlobalSettingsStore(RECORD);
+    }
+
+    @AfterEach
+    void cleanup() {
+        new File(RECORD + ".dat").delete();
+    }
+
+    @Test
+    void get_NothingSaved_ReturnsDefaults() {
+        assertSame(GlobalSettingsStore.Settings.DEFAULTS, settingsStore.get());
+    }
+
+    @Test
+    void update_WritesCompactVersionedRecord() throws Exception {
+        settingsStore.update(s -> s.withPassword("secret")
+                .withParentalControls(true, "21:30 - 06:15", 21, 30, 6, 15)
+                .withStatistics(1.5f, 7));
+
+        byte[] data = SaveLoadManager.getStore().loadRecord(RECORD);
+        assertEquals('G', data[0]);
+        assertEquals('S', data[1]);
+        assertEquals(GlobalSettingsStore.FORMAT_VERSION, data[2]);
+
+        GlobalSettingsStore.Settings read = GlobalSettingsStore.decode(data);
+        assertTrue(read.isPasswordInitialized());
+        assertEquals("secret", read.getPassword());
+        assertEquals(1.5f, read.getTotalPlayTime());
+        assertEquals(7, read.getGameStartCount());
+        assertTrue(read.isParentalControlsEnabled());
+        assertEquals("21:30 - 06:15", read.getPlayTimeLimit());
+        assertEquals(6, read.getEndHour());
+        assertEquals(15, read.getEndMinute());
+    }
+
+    @Test
+    void getSchedule_InvalidStoredWindow_AllowsPlayInsteadOfThrowing() {
+        GlobalSettingsStore.Settings bad = GlobalSettingsStore.Settings.DEFAULTS
+                .withParentalControls(true, "7:5 - 25:00", 7, 5, 25, 0);
+
+        assertSame(PlaySchedule.ALWAYS, bad.getSchedule());
+    }
+
+    @Test
+    void get_UnchangedRecord_ServedFromCache() throws IOException {
+        GlobalSettingsStore.Settings written = settingsStore.update(s -> s.withPassword("secret"));
+        assertSame(written, settingsStore.get());
+        assertSame(written, settingsStore.get());
+    }
+
+    @Test
+    void update_WriteFails_ThrowsAndKeepsPreviousSettings() {
+        // Records of this store go to a directory that does not exist
+        GameStore failing = new FileGameStore(SlotStore.getInstance(), new File(RECORD + "_missing"));
+        GlobalSettingsStore store = new GlobalSettingsStore(() -> failing, RECORD);
+        int[] notified = {0};
+        store.addChangeListener(() -> notified[0]++);
+
+        assertThrows(IOException.class, () -> store.update(s -> s.withPassword("secret")));
+        assertSame(GlobalSettingsStore.Settings.DEFAULTS, store.get());
+        assertEquals(0, notified[0]);
+    }
+
+    @Test
+    void get_RecordWrittenElsewhere_IsReloaded() throws IOException {
+        settingsStore.update(s -> s.withPassword("first"));
+
+        // Another copy of the game changes the settings
+        SaveLoadManager.getStore().saveRecord(RECORD,
+                GlobalSettingsStore.encode(GlobalSettingsStore.Settings.DEFAULTS.withPassword("second")));
+
+        assertEquals("second", settingsStore.get().getPassword());
+    }
+
+    @Test
+    void get_LegacySerializedRecord_IsReadAndConvertedOnWrite() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeBoolean(true);
+            oos.writeObject("legacy");
+            oos.writeFloat(2.0f);
+            oos.writeInt(4);
+            oos.writeBoolean(true);
+            oos.writeObject("08:00 - 09:30");
+            oos.writeInt(8);
+            oos.writeInt(0);
+            oos.writeInt(9);
+            oos.writeInt(30);
+        }
+        SaveLoadManager.getStore().saveRecord(RECORD, bytes.toByteArray());
+
+        GlobalSettingsStore.Settings read = settingsStore.get();
+        assertEquals("legacy", read.getPassword());
+        assertEquals(4, read.getGameStartCount());
+        assertEquals("08:00 - 09:30", read.getPlayTimeLimit());
+        assertEquals(30, read.getEndMinute());
+
+        settingsStore.update(s -> s.withStatistics(s.getTotalPlayTime(), s.getGameStartCount() + 1));
+        byte[] data = SaveLoadManager.getStore().loadRecord(RECORD);
+        assertEquals('G', data[0]);
+        assertEquals("legacy", settingsStore.get().getPassword());
+        assertEquals(5, settingsStore.get().getGameStartCount());
+    }
+}
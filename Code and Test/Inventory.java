@@ -70,6 +70,8 @@ abstract class InventoryItem {
  */
 public class Inventory {
     private List<InventoryItem> items;
+    // Number of changes made through addItem/removeItemByName; not saved
+    private transient int modCount;
 
     /**
      * Constructor initializes an empty inventory.
@@ -83,6 +85,7 @@ public class Inventory {
      * @param item Item to add.
      */
     public void addItem(InventoryItem item) {
+        modCount++;
         for (InventoryItem i : items) {
             if (i.getName().equals(item.getName())) {
                 i.setQuantity(i.getQuantity() + item.getQuantity());
@@ -103,6 +106,7 @@ public class Inventory {
     public void removeItemByName(String name, int count) {
         for (InventoryItem i : items) {
             if (i.getName().equals(name)) {
+                modCount++;
                 if (i.getQuantity() > count) {
                     i.setQuantity(i.getQuantity() - count);
                 } else {
@@ -160,6 +164,15 @@ public class Inventory {
     public List<InventoryItem> getItems() {
         return new ArrayList<>(items);
     }
+
+    /**
+     * Returns how many times items were added or removed. Used to tell whether the
+     * inventory changed since it was last saved.
+     * @return Modification count.
+     */
+    public int getModCount() {
+        return modCount;
+    }
 }
 
 /**
@@ -0,0 +1,481 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * {@link GameStore} that keeps every slot and record in one local file, organised as an
+ * append-only log of key-value records.
+ * <p>
+ * Each write appends the new values followed by a commit marker and forces the file to disk.
+ * Every record carries a CRC32, and on open only batches that end with a valid commit marker are
+ * applied; a half-written batch left by a crash is cut off. This makes {@link #saveGames(Map)}
+ * transactional: either every slot in the batch is updated or none is.
+ * <p>
+ * An in-memory index maps each key to the position of its latest value, so a slot is read with
+ * a single positional read no matter how many pets the file holds. When overwritten values take
+ * up more space than live ones, the file is rewritten with only the live values. The index
+ * also keeps the version of each slot once it was written or first asked for, so
+ * {@link #slotVersion(int)} does not decode the slot.
+ * <p>
+ * {@link SlotWatcher} watches slot files and does not see changes made to this store; a game
+ * using it only picks up outside edits the next time the slot is loaded.
+ * <p>
+ * File layout: an 8-byte header ({@code "VPKV"} and a format version) followed by records of the
+ * form {@code [int bodyLength][int crc32][byte kind][short keyLength][key][value]}.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (KeyValueGameStore store = new KeyValueGameStore(new File("saves/virtualpet.db"))) {
+ *     store.saveGame(state, 42);
+ *     GameState loaded = store.loadGame(42);
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class KeyValueGameStore implements GameStore, Closeable {
+
+    private static final int MAGIC = 0x56504B56; // "VPKV"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte COMMIT = 3;
+
+    private static final String SLOT_PREFIX = "slot/";
+    private static final String RECORD_PREFIX = "record/";
+
+    // Garbage must exceed this many bytes before the file is compacted
+    private static final long MIN_COMPACTION_GARBAGE = 1024 * 1024;
+
+    private final File file;
+    private FileChannel channel;
+    private long end;
+    private long liveBytes;
+    private long garbageBytes;
+
+    // Key -> {value offset, value length} of the latest committed value
+    private final Map<String, long[]> index = new HashMap<>();
+    // Sorted slot numbers for paged listing
+    private final TreeSet<Integer> slots = new TreeSet<>();
+    // Slots in least-recently-used-first order
+    private final LinkedHashMap<Integer, Boolean> usage = new LinkedHashMap<>(16, 0.75f, true);
+    // Slot -> version of its latest value, for slots written or checked since the store was opened
+    private final Map<Integer, Long> versions = new HashMap<>();
+    private int quota = SlotStore.DEFAULT_QUOTA;
+
+    /**
+     * Opens the store, creating the file if needed and recovering from an interrupted write.
+     *
+     * @param file the store file
+     * @throws IOException if the file cannot be opened or is not a store file
+     */
+    public KeyValueGameStore(File file) throws IOException {
+        this.file = file;
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        open();
+    }
+
+    /**
+     * Sets the maximum number of slots before the least recently used slot is replaced.
+     *
+     * @param quota the new slot quota, at least 1
+     */
+    public synchronized void setQuota(int quota) {
+        if (quota < 1) {
+            throw new IllegalArgumentException("Slot quota must be at least 1");
+        }
+        this.quota = quota;
+    }
+
+    @Override
+    public synchronized GameState loadGame(int slot) throws IOException {
+        byte[] data = read(SLOT_PREFIX + slot);
+        if (data == null) {
+            return null;
+        }
+        usage.put(slot, Boolean.TRUE);
+        GameState state = SaveLoadManager.decode(new ByteArrayInputStream(data));
+        if (state != null) {
+            versions.put(slot, state.getVersion());
+        }
+        return state;
+    }
+
+    @Override
+    public synchronized long slotVersion(int slot) throws IOException {
+        Long version = versions.get(slot);
+        if (version != null) {
+            return version;
+        }
+        byte[] data = read(SLOT_PREFIX + slot);
+        if (data == null) {
+            return 0;
+        }
+        GameState state = SaveLoadManager.decode(new ByteArrayInputStream(data));
+        long stored = state == null ? 0 : state.getVersion();
+        versions.put(slot, stored);
+        return stored;
+    }
+
+    @Override
+    public void saveGame(GameState state, int slot) throws IOException {
+        saveGames(Collections.singletonMap(slot, state));
+    }
+
+    @Override
+    public void saveGames(Map<Integer, GameState> states) throws IOException {
+        // Serialize outside the lock; only the append itself is serialized
+        Map<String, byte[]> puts = new LinkedHashMap<>();
+        Map<Integer, Long> written = new HashMap<>();
+        for (Map.Entry<Integer, GameState> entry : states.entrySet()) {
+            if (entry.getKey() < 1) {
+                throw new IllegalArgumentException("Invalid save slot: " + entry.getKey());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            SaveLoadManager.encode(entry.getValue(), out, SaveLoadManager.isCompressionEnabled());
+            puts.put(SLOT_PREFIX + entry.getKey(), out.toByteArray());
+            written.put(entry.getKey(), entry.getValue().getVersion());
+        }
+        synchronized (this) {
+            commit(puts, Collections.emptyList());
+            versions.putAll(written);
+        }
+    }
+
+    @Override
+    public synchronized boolean deleteGame(int slot) throws IOException {
+        String key = SLOT_PREFIX + slot;
+        if (!index.containsKey(key)) {
+            return false;
+        }
+        commit(Collections.emptyMap(), Collections.singletonList(key));
+        versions.remove(slot);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean hasGame(int slot) {
+        return slots.contains(slot);
+    }
+
+    @Override
+    public synchronized int gameCount() {
+        return slots.size();
+    }
+
+    @Override
+    public synchronized List<Integer> listGames(int page, int pageSize) {
+        List<Integer> result = new ArrayList<>();
+        long skip = (long) page * pageSize;
+        if (page < 0 || pageSize <= 0 || skip >= slots.size()) {
+            return result;
+        }
+        Iterator<Integer> it = slots.iterator();
+        for (long i = 0; i < skip; i++) {
+            it.next();
+        }
+        while (it.hasNext() && result.size() < pageSize) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized List<Integer> listAllGames() {
+        return new ArrayList<>(slots);
+    }
+
+    @Override
+    public synchronized int allocateSlot() {
+        if (slots.size() >= quota) {
+            return usage.keySet().iterator().next();
+        }
+        return SlotStore.firstFreeSlot(slots);
+    }
+
+    @Override
+    public synchronized byte[] loadRecord(String name) throws IOException {
+        return read(RECORD_PREFIX + name);
+    }
+
+    @Override
+    public synchronized void saveRecord(String name, byte[] data) throws IOException {
+        commit(Collections.singletonMap(RECORD_PREFIX + name, data), Collections.emptyList());
+    }
+
+    @Override
+    public synchronized void appendRecord(String name, byte[] data) throws IOException {
+        GameStore.super.appendRecord(name, data);
+    }
+
+    @Override
+    public synchronized long recordStamp(String name) {
+        // The log is append-only, so every write gives the value a new offset
+        long[] location = index.get(RECORD_PREFIX + name);
+        return location == null ? 0 : location[0];
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Opens the file and rebuilds the index by replaying committed batches.
+     *
+     * @throws IOException if reading fails or the header is wrong
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        slots.clear();
+        usage.clear();
+        liveBytes = 0;
+        garbageBytes = 0;
+
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            channel.truncate(0);
+            writeFully(header, 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException("Not a game store file: " + file);
+        }
+
+        long pos = HEADER_SIZE;
+        long committedEnd = HEADER_SIZE;
+        List<Object[]> pending = new ArrayList<>();
+        CRC32 crc = new CRC32();
+        while (pos + RECORD_HEADER_SIZE <= size) {
+            ByteBuffer recordHeader = readFully(pos, RECORD_HEADER_SIZE);
+            int bodyLength = recordHeader.getInt();
+            int checksum = recordHeader.getInt();
+            if (bodyLength < 3 || pos + RECORD_HEADER_SIZE + bodyLength > size) {
+                break;
+            }
+            ByteBuffer body = readFully(pos + RECORD_HEADER_SIZE, bodyLength);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            byte kind = body.get();
+            int keyLength = body.getShort() & 0xffff;
+            if (kind == COMMIT) {
+                for (Object[] op : pending) {
+                    applyToIndex((String) op[0], (long[]) op[1]);
+                }
+                pending.clear();
+                committedEnd = pos + RECORD_HEADER_SIZE + bodyLength;
+            } else {
+                byte[] key = new byte[keyLength];
+                body.get(key);
+                long valueOffset = pos + RECORD_HEADER_SIZE + 3 + keyLength;
+                long[] location = (kind == PUT) ? new long[]{valueOffset, bodyLength - 3 - keyLength} : null;
+                pending.add(new Object[]{new String(key, StandardCharsets.UTF_8), location});
+            }
+            pos += RECORD_HEADER_SIZE + bodyLength;
+        }
+
+        if (committedEnd < size) {
+            // Drop an incomplete batch left behind by a crash
+            channel.truncate(committedEnd);
+            channel.force(true);
+        }
+        end = committedEnd;
+    }
+
+    /**
+     * Appends a batch of puts and deletes followed by a commit marker, then updates the index.
+     *
+     * @param puts    key to new value
+     * @param deletes keys to remove
+     * @throws IOException if writing fails
+     */
+    private void commit(Map<String, byte[]> puts, List<String> deletes) throws IOException {
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        Map<String, long[]> locations = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> put : puts.entrySet()) {
+            long valueOffset = end + batch.size() + RECORD_HEADER_SIZE + 3
+                    + put.getKey().getBytes(StandardCharsets.UTF_8).length;
+            writeRecord(batch, PUT, put.getKey(), put.getValue());
+            locations.put(put.getKey(), new long[]{valueOffset, put.getValue().length});
+        }
+        for (String key : deletes) {
+            writeRecord(batch, DELETE, key, new byte[0]);
+            locations.put(key, null);
+        }
+        writeRecord(batch, COMMIT, "", new byte[0]);
+
+        writeFully(ByteBuffer.wrap(batch.toByteArray()), end);
+        channel.force(false);
+        end += batch.size();
+
+        for (Map.Entry<String, long[]> location : locations.entrySet()) {
+            applyToIndex(location.getKey(), location.getValue());
+        }
+
+        if (garbageBytes > MIN_COMPACTION_GARBAGE && garbageBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Applies one committed put (location != null) or delete (location == null) to the index.
+     *
+     * @param key      record key
+     * @param location value offset and length, or null for a delete
+     */
+    private void applyToIndex(String key, long[] location) {
+        long[] previous = (location != null) ? index.put(key, location) : index.remove(key);
+        if (previous != null) {
+            liveBytes -= previous[1];
+            garbageBytes += previous[1];
+        }
+        if (location != null) {
+            liveBytes += location[1];
+        }
+
+        if (key.startsWith(SLOT_PREFIX)) {
+            int slot = Integer.parseInt(key.substring(SLOT_PREFIX.length()));
+            if (location != null) {
+                slots.add(slot);
+                usage.put(slot, Boolean.TRUE);
+            } else {
+                slots.remove(slot);
+                usage.remove(slot);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file with only the live values, then swaps it in atomically.
+     *
+     * @throws IOException if rewriting fails
+     */
+    private void compact() throws IOException {
+        File temp = new File(file.getPath() + ".compact");
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            out.write(header);
+
+            // Keep slots in LRU order so the order survives a reopen
+            List<String> keys = new ArrayList<>();
+            for (String key : index.keySet()) {
+                if (!key.startsWith(SLOT_PREFIX)) {
+                    keys.add(key);
+                }
+            }
+            for (int slot : usage.keySet()) {
+                keys.add(SLOT_PREFIX + slot);
+            }
+
+            for (String key : keys) {
+                ByteArrayOutputStream record = new ByteArrayOutputStream();
+                writeRecord(record, PUT, key, read(key));
+                out.write(ByteBuffer.wrap(record.toByteArray()));
+            }
+            ByteArrayOutputStream commit = new ByteArrayOutputStream();
+            writeRecord(commit, COMMIT, "", new byte[0]);
+            out.write(ByteBuffer.wrap(commit.toByteArray()));
+            out.force(true);
+        }
+
+        channel.close();
+        Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        open();
+    }
+
+    /**
+     * Reads the latest value of a key.
+     *
+     * @param key record key
+     * @return the value, or null if the key does not exist
+     * @throws IOException if reading fails
+     */
+    private byte[] read(String key) throws IOException {
+        long[] location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        return readFully(location[0], (int) location[1]).array();
+    }
+
+    private static void writeRecord(ByteArrayOutputStream out, byte kind, String key, byte[] value)
+            throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(3 + keyBytes.length + value.length);
+        body.put(kind).putShort((short) keyBytes.length).put(keyBytes).put(value);
+
+        CRC32 crc = new CRC32();
+        crc.update(body.array());
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(body.capacity());
+        data.writeInt((int) crc.getValue());
+        data.write(body.array());
+        data.flush();
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of game store file: " + file);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+}
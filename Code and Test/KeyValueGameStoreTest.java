@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeyValueGameStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private File storeFile;
+
+    @BeforeEach
+    void setup() {
+        storeFile = dir.resolve("virtualpet.db").toFile();
+    }
+
+    private static GameState createState(String name, int score) {
+        Inventory inventory = new Inventory();
+        inventory.addItem(new FoodItem("Apple", 3, 15));
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet(name, PetType.DOG), inventory);
+        state.setScore(score);
+        return state;
+    }
+
+    @Test
+    void saveAndReopen_RestoresSlotsAndRecords() throws IOException {
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            store.saveGame(createState("first", 10), 1);
+            store.saveGame(createState("second", 20), 1500);
+            store.saveGame(createState("first again", 30), 1);
+            store.saveRecord(GameStore.GLOBAL_SETTINGS, new byte[]{1, 2, 3});
+            assertTrue(store.deleteGame(1500));
+        }
+
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            assertEquals(1, store.gameCount());
+            assertEquals("first again", store.loadGame(1).getPetName());
+            assertEquals(3, store.loadGame(1).getInventory().getItemCount("Apple"));
+            assertNull(store.loadGame(1500));
+            assertArrayEquals(new byte[]{1, 2, 3}, store.loadRecord(GameStore.GLOBAL_SETTINGS));
+            assertEquals(2, store.allocateSlot());
+        }
+    }
+
+    @Test
+    void saveGames_TornBatch_IsRolledBackOnOpen() throws IOException {
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            store.saveGame(createState("kept", 1), 1);
+        }
+        long committedLength = storeFile.length();
+
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            Map<Integer, GameState> batch = new HashMap<>();
+            batch.put(1, createState("lost", 2));
+            batch.put(2, createState("lost", 3));
+            store.saveGames(batch);
+        }
+        // Simulate a crash before the commit marker reached the disk
+        try (RandomAccessFile raf = new RandomAccessFile(storeFile, "rw")) {
+            raf.setLength(raf.length() - 4);
+        }
+
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            assertEquals("kept", store.loadGame(1).getPetName());
+            assertFalse(store.hasGame(2));
+        }
+        assertEquals(committedLength, storeFile.length());
+    }
+
+    @Test
+    void slotVersion_TracksWritesAndDeletes() throws IOException {
+        GameState state = createState("versioned", 1);
+        state.setVersion(7);
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            store.saveGame(state, 3);
+            assertEquals(7, store.slotVersion(3));
+            state.setVersion(8);
+            assertEquals(7, store.slotVersion(3));
+            store.saveGame(state, 3);
+            assertEquals(8, store.slotVersion(3));
+            store.saveGame(state, 4);
+            assertTrue(store.deleteGame(4));
+            assertEquals(0, store.slotVersion(4));
+        }
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            assertEquals(8, store.slotVersion(3));
+            assertEquals(0, store.slotVersion(5));
+        }
+    }
+
+    @Test
+    void manyOverwrites_CompactFileAndKeepLatestValues() throws IOException {
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            for (int i = 0; i < 3000; i++) {
+                store.saveGame(createState("pet" + (i % 10), i), 1 + i % 10);
+            }
+            assertTrue(storeFile.length() < 1024 * 1024 * 3, "file was not compacted: " + storeFile.length());
+            assertEquals(Arrays.asList(1, 2, 3), store.listGames(0, 3));
+            assertEquals(2999, store.loadGame(10).getScore());
+        }
+        try (KeyValueGameStore store = new KeyValueGameStore(storeFile)) {
+            assertEquals(10, store.gameCount());
+            assertEquals(2990, store.loadGame(1).getScore());
+        }
+    }
+}
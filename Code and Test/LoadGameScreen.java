@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class provides a graphical interface for selecting and loading a saved game slot.
@@ -18,9 +19,18 @@ import java.util.List;
  * szha326
  */
 public class LoadGameScreen extends JFrame {
+    /** Number of save cards shown on one page. */
+    private static final int SLOTS_PER_PAGE = 3;
+
     // instance variables
 	private int selectedSlot = -1;
+    private int currentPage = 0;
+    // Bumped on every page change so late results for an old page are dropped
+    private int pageGeneration = 0;
     private final List<JPanel> cardPanels = new ArrayList<>();
+    private final List<Integer> cardSlots = new ArrayList<>();
+    private final JPanel cardsPanel = new JPanel(new GridLayout(1, SLOTS_PER_PAGE, 5, 5));
+    private final JLabel pageLabel = new JLabel("", SwingConstants.CENTER);
 
     /**
      * Constructor initializes the screen and loads save data for each slot.
@@ -39,53 +49,22 @@ public class LoadGameScreen extends JFrame {
         titleLabel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
         add(titleLabel, BorderLayout.NORTH);
         
-        SaveGameData[] saves = {
-        	    new SaveGameData(), 
-        	    new SaveGameData(), 
-        	    new SaveGameData()
-        	};
-
-        // Load data from save files
-        for (int i = 0; i < saves.length; i++) {
-            try {
-            	GameState loaded = SaveLoadManager.loadGame(i + 1);
-            	if (loaded != null) {
-            	    saves[i].petName = orPlaceholder(loaded.getPetName());
-            	    saves[i].petType = orPlaceholder(loaded.getPetType());
-
-            	    if (loaded.getPetType() != null && !loaded.getPetType().isEmpty()) {
-            	        saves[i].imagePath = "resources/" + loaded.getPetType().toLowerCase() + "/normal.png";
-            	    }
-
-            	    saves[i].health = toDisplayValue(loaded.getHealth());
-            	    saves[i].happiness = toDisplayValue(loaded.getHappiness());
-            	    saves[i].sleep = toDisplayValue(loaded.getSleep());
-            	    saves[i].fullness = toDisplayValue(loaded.getFullness());
-            	    saves[i].score = toScoreDisplay(loaded.getScore());
-            	    saves[i].lastSavedTime = (loaded.getLastSavedTime() != null)
-            	            ? loaded.getLastSavedTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))
-            	            : "--";
-                }
-            } catch (IOException e) {
-                System.err.println("Failed to load slot " + (i + 1));
-            }
-        }
-
-        // Pet cards
-        JPanel cardsPanel = new JPanel(new GridLayout(1, saves.length, 5, 5));
-        for (int i = 0; i < saves.length; i++) {
-            JPanel card = createPetCard(saves[i], i);
-            cardsPanel.add(card);
-            cardPanels.add(card);
-        }
+        // Pet cards for the first page of slots
+        add(cardsPanel, BorderLayout.CENTER);
+        showPage(0);
 
         // Buttons
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
+        JButton prevButton = new JButton("< Prev");
+        JButton nextButton = new JButton("Next >");
         JButton confirmButton = new JButton("Confirm");
         JButton homeButton = new JButton("Home");
         confirmButton.setPreferredSize(new Dimension(100, 30));
         homeButton.setPreferredSize(new Dimension(100, 30));
 
+        prevButton.addActionListener(e -> showPage(currentPage - 1));
+        nextButton.addActionListener(e -> showPage(currentPage + 1));
+
         confirmButton.addActionListener(e -> {
             if (selectedSlot == -1) {
                 JOptionPane.showMessageDialog(this, "Please select a save slot.");
@@ -93,13 +72,13 @@ public class LoadGameScreen extends JFrame {
             }
             
             try {
-                GamePlayScreen gamePlayScreen = new GamePlayScreen("saves/slot" + (selectedSlot + 1) + ".json");
+                GamePlayScreen gamePlayScreen = new GamePlayScreen(selectedSlot);
             } catch (IOException ex) {
                 throw new RuntimeException(ex);
             }
 
             JOptionPane.showMessageDialog(this,
-                    "You have successfully loaded slot " + (selectedSlot + 1) + "!",
+                    "You have successfully loaded slot " + selectedSlot + "!",
                     "Load Successful",
                     JOptionPane.INFORMATION_MESSAGE);
             dispose();
@@ -116,28 +95,174 @@ public class LoadGameScreen extends JFrame {
         });
 
 
+        buttonPanel.add(prevButton);
+        buttonPanel.add(pageLabel);
+        buttonPanel.add(nextButton);
         buttonPanel.add(confirmButton);
         buttonPanel.add(homeButton);
 
-        add(cardsPanel, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Loads one page of save slots and replaces the cards on screen with them.
+     * Pages past either end are clamped, and short pages are padded with empty cards.
+     *
+     * @param page Zero-based page index
+     */
+    private void showPage(int page) {
+        GameStore store = SaveLoadManager.getStore();
+        int pageCount = Math.max(1, (store.gameCount() + SLOTS_PER_PAGE - 1) / SLOTS_PER_PAGE);
+        currentPage = Math.max(0, Math.min(page, pageCount - 1));
+        selectedSlot = -1;
+
+        List<Integer> slots = store.listGames(currentPage, SLOTS_PER_PAGE);
+        int generation = ++pageGeneration;
+        cardsPanel.removeAll();
+        cardPanels.clear();
+        cardSlots.clear();
+
+        for (int i = 0; i < SLOTS_PER_PAGE; i++) {
+            int slot = (i < slots.size()) ? slots.get(i) : -1;
+            JPanel card = (slot != -1) ? createLoadingCard(slot) : createPetCard(new SaveGameData(), slot, i);
+            cardsPanel.add(card);
+            cardPanels.add(card);
+            cardSlots.add(slot);
+
+            if (slot != -1) {
+                // Load the slot, then its thumbnail on the asset pool, without blocking
+                // either pool; swap the placeholder for the real card on the EDT
+                int cardIndex = i;
+                SaveLoadManager.loadGameAsync(slot)
+                        .thenCompose(this::loadSaveData)
+                        .exceptionally(ex -> {
+                            System.err.println("Failed to load slot " + slot + ": " + ex.getCause().getMessage());
+                            return new SaveGameData();
+                        })
+                        .thenAccept(data -> SwingUtilities.invokeLater(() -> {
+                            if (generation == pageGeneration) {
+                                replaceCard(cardIndex, createPetCard(data, slot, cardIndex));
+                            }
+                        }));
+            }
+        }
+
+        pageLabel.setText("Page " + (currentPage + 1) + " / " + pageCount);
+        cardsPanel.revalidate();
+        cardsPanel.repaint();
+    }
+
+    /**
+     * Swaps the card at the given position for a new one.
+     *
+     * @param index Position of the card on the current page
+     * @param card  The new card
+     */
+    private void replaceCard(int index, JPanel card) {
+        cardsPanel.remove(index);
+        cardsPanel.add(card, index);
+        cardPanels.set(index, card);
+        cardsPanel.revalidate();
+        cardsPanel.repaint();
+    }
+
+    /**
+     * Creates the placeholder card shown while a slot is still loading.
+     *
+     * @param slot Save slot number
+     * @return JPanel representing the placeholder card
+     */
+    private JPanel createLoadingCard(int slot) {
+        JPanel card = new JPanel();
+        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
+        card.setBorder(BorderFactory.createLineBorder(Color.GRAY));
+        card.setBackground(Color.WHITE);
+
+        JLabel slotLabel = new JLabel("Slot " + slot);
+        slotLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
+        JLabel loadingLabel = new JLabel("Loading...");
+        slotLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        loadingLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        card.add(Box.createVerticalStrut(10));
+        card.add(slotLabel);
+        card.add(Box.createVerticalStrut(50));
+        card.add(loadingLabel);
+        return card;
+    }
+
+    /**
+     * Loads the thumbnail of a loaded save through the {@link AssetManager} and converts both
+     * into display values once the thumbnail is ready.
+     *
+     * @param loaded GameState of the slot, or null if the slot is empty
+     * @return future that completes with the SaveGameData for the slot
+     */
+    private CompletableFuture<SaveGameData> loadSaveData(GameState loaded) {
+        String imagePath = thumbnailPath(loaded);
+        if (imagePath == null) {
+            return CompletableFuture.completedFuture(toSaveData(loaded, null));
+        }
+        return AssetManager.getInstance().loadIcon(imagePath, 64, 64)
+                .thenApply(icon -> toSaveData(loaded, icon));
+    }
+
+    /**
+     * Returns the path of the thumbnail image for a save.
+     *
+     * @param loaded GameState of the slot, or null if the slot is empty
+     * @return image path, or null if the save has no pet type
+     */
+    private String thumbnailPath(GameState loaded) {
+        if (loaded == null || loaded.getPetType() == null || loaded.getPetType().isEmpty()) {
+            return null;
+        }
+        return "resources/" + loaded.getPetType().toLowerCase() + "/normal.png";
+    }
+
+    /**
+     * Converts a loaded save and its thumbnail into display values.
+     *
+     * @param loaded GameState of the slot, or null if the slot is empty
+     * @param icon   Scaled thumbnail, or null if there is none
+     * @return SaveGameData for the slot, all placeholders if there is no state
+     */
+    private SaveGameData toSaveData(GameState loaded, ImageIcon icon) {
+        SaveGameData data = new SaveGameData();
+        if (loaded != null) {
+            data.petName = orPlaceholder(loaded.getPetName());
+            data.petType = orPlaceholder(loaded.getPetType());
+            data.imagePath = thumbnailPath(loaded);
+            data.icon = icon;
+
+            data.health = toDisplayValue(loaded.getHealth());
+            data.happiness = toDisplayValue(loaded.getHappiness());
+            data.sleep = toDisplayValue(loaded.getSleep());
+            data.fullness = toDisplayValue(loaded.getFullness());
+            data.score = toScoreDisplay(loaded.getScore());
+            data.lastSavedTime = (loaded.getLastSavedTime() != null)
+                    ? loaded.getLastSavedTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"))
+                    : "--";
+        }
+        return data;
+    }
+
     /**
      * Creates a save card panel for one slot, containing image, stats and select button.
      *
-     * @param data      SaveGameData object containing data to display
-     * @param slotIndex Index of the save slot (0-based)
+     * @param data SaveGameData object containing data to display
+     * @param slot      Save slot number, or -1 for an empty card
+     * @param cardIndex Position of the card on the current page
      * @return JPanel representing the card
      */
-    private JPanel createPetCard(SaveGameData data, int slotIndex) {
+    private JPanel createPetCard(SaveGameData data, int slot, int cardIndex) {
         JPanel card = new JPanel();
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         card.setBorder(BorderFactory.createLineBorder(Color.GRAY));
         card.setBackground(Color.WHITE);
 
         // Slot number label
-        JLabel slotLabel = new JLabel("Slot " + (slotIndex + 1));
+        JLabel slotLabel = new JLabel(slot != -1 ? "Slot " + slot : "Empty");
         slotLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 14));
         slotLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         card.add(Box.createVerticalStrut(10));
@@ -157,8 +282,8 @@ public class LoadGameScreen extends JFrame {
         if (hasData) {
             // Pet icon
             JLabel iconLabel = new JLabel();
-            if (data.imagePath != null) {
-                iconLabel.setIcon(loadAndResizeIcon(data.imagePath, 64, 64));
+            if (data.icon != null) {
+                iconLabel.setIcon(data.icon);
             }
             iconLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
 
@@ -172,7 +297,7 @@ public class LoadGameScreen extends JFrame {
             JLabel timeLabel = new JLabel("Last Saved: " + orPlaceholder(data.lastSavedTime));
 
             JButton selectButton = new JButton("Select");
-            selectButton.addActionListener((ActionEvent e) -> highlightSelectedCard(slotIndex));
+            selectButton.addActionListener((ActionEvent e) -> highlightSelectedCard(cardIndex));
 
             // Center align all components
             for (JComponent comp : new JComponent[]{iconLabel, nameLabel, typeLabel, healthLabel,
@@ -208,27 +333,13 @@ public class LoadGameScreen extends JFrame {
      * @param index Index of selected card
      */
     private void highlightSelectedCard(int index) {
-        selectedSlot = index;
+        selectedSlot = cardSlots.get(index);
         for (int i = 0; i < cardPanels.size(); i++) {
             JPanel panel = cardPanels.get(i);
             panel.setBorder(BorderFactory.createLineBorder(i == index ? Color.PINK : Color.GRAY, i == index ? 5 : 1));
         }
     }
 
-    /**
-     * Resizes and loads an icon from file.
-     *
-     * @param path   File path of the image
-     * @param width  Target width
-     * @param height Target height
-     * @return Scaled ImageIcon
-     */
-    private ImageIcon loadAndResizeIcon(String path, int width, int height) {
-        ImageIcon icon = new ImageIcon(path);
-        Image scaled = icon.getImage().getScaledInstance(width, height, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaled);
-    }
-
     /**
      * Displays "--" for null/empty values or returns the actual string.
      *
@@ -269,6 +380,7 @@ public class LoadGameScreen extends JFrame {
         String petName = "--";
         String petType = "--" ;
         String imagePath = null;
+        ImageIcon icon = null;
         String health = "--";
         String happiness = "--";
         String sleep = "--";
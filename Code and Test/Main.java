@@ -1,12 +1,42 @@
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
     public static boolean isPlaying = false;
 
     
     private static Player player;
+    private static volatile long firstFrameMillis = -1;
 
     public static void main(String[] args) throws InterruptedException {
+        long startNanos = System.nanoTime();
+
+        // Decode the images on worker threads while the rest of the game starts
+        AssetManager assets = AssetManager.getInstance();
+        MainMenuScreen[] menu = new MainMenuScreen[1];
+        assets.preload((loaded, total) -> SwingUtilities.invokeLater(() -> {
+            if (menu[0] != null) {
+                menu[0].showLoadingProgress(loaded, total);
+            }
+        }));
+        for (PetType type : PetType.values()) {
+            String sprite = "resources/" + type.name().toLowerCase() + "/normal.png";
+            assets.loadIcon(sprite, 100, 100);
+            assets.loadIcon(sprite, 64, 64);
+        }
+        assets.loadIcon("resources/warning.png", 20, 20);
+        assets.loadIcon("resources/home.png", 50, 50);
+        assets.loadIcon("resources/setting.png", 50, 50);
+        CompletableFuture.runAsync(() -> {
+            MusicPlayer.getInstance().play("resources/music1.wav");
+            MusicPlayer.getInstance().setVolume(90);
+        }, assets.executor());
         
+        // Count the time of a session the last run could not stop, e.g. after a crash
+        Profile.defaultProfile().recoverSessions();
+
         player = new Player(false);
 
        
@@ -20,6 +50,20 @@ public class Main {
             public void onPeriodicCheck(boolean isAllowed) {
         
             }
+
+            @Override
+            public void onQuotaWarning(long minutesLeft) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                        "Only " + minutesLeft + " minutes of play time left today.",
+                        "Play Time", JOptionPane.INFORMATION_MESSAGE));
+            }
+
+            @Override
+            public void onQuotaExceeded(int quotaMinutes) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                        "Today's play time of " + quotaMinutes + " minutes is used up!",
+                        "Time Restriction", JOptionPane.WARNING_MESSAGE));
+            }
         });
 
        
@@ -27,12 +71,29 @@ public class Main {
             if (player != null) {
                 player.stopPlaying();
             }
+            // Statistics are written in batches, so write what is still pending
+            PlayStatistics.getInstance().flush();
+            ProfileRegistry.getInstance().flushAll();
         }));
 
-        MainMenuScreen mainMenuScreen = new MainMenuScreen();
-        mainMenuScreen.setVisible(true);
-        MusicPlayer.getInstance().play("resources/music1.wav");
-        MusicPlayer.getInstance().setVolume(90);
+        SwingUtilities.invokeLater(() -> {
+            menu[0] = new MainMenuScreen();
+            menu[0].setVisible(true);
+            menu[0].showLoadingProgress(assets.getLoadedCount(), assets.getTotalCount());
+            // Runs after the menu's first paint, when it starts taking input
+            SwingUtilities.invokeLater(() -> {
+                firstFrameMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                System.out.println("First interactive frame after " + firstFrameMillis + " ms");
+            });
+        });
+    }
+
+    /**
+     * @return milliseconds from the start of the game until the main menu took input,
+     *         or -1 if it has not yet
+     */
+    public static long getFirstFrameMillis() {
+        return firstFrameMillis;
     }
 
   
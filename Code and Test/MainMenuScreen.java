@@ -15,8 +15,8 @@ import java.awt.event.ActionListener;
  *
  * <p><strong>Main Features:</strong></p>
  * <ul>
- *   <li>Start a new game with a time restriction check</li>
- *   <li>Load a previously saved game with a time restriction check</li>
+ *   <li>Start a new game with a time restriction and daily quota check</li>
+ *   <li>Load a previously saved game with a time restriction and daily quota check</li>
  *   <li>Display the game tutorial</li>
  *   <li>Access the parental controls interface</li>
  *   <li>Open the settings interface</li>
@@ -27,6 +27,9 @@ import java.awt.event.ActionListener;
  * @author Zhenkang Xu
  */
 public class MainMenuScreen extends JFrame {
+    // Shows how many images are decoded while the game starts
+    private final JProgressBar loadingBar = new JProgressBar();
+
     /**
      * Constructs a new MainMenuScreen and initializes the UI components.
      * <p>
@@ -77,9 +80,7 @@ public class MainMenuScreen extends JFrame {
                     // Check if player is allowed to play before starting the game
                     Player player = new Player(false);
                     if (!player.isAllowedToPlay()) {
-                        JOptionPane.showMessageDialog(MainMenuScreen.this,
-                                "Current time does not allow gameplay!\nAllowed time: " + player.getPlayTimeLimit(),
-                                "Time Restriction", JOptionPane.WARNING_MESSAGE);
+                        showRestrictionMessage(player);
                         return; // Don't start the game if not allowed
                     }
 
@@ -100,9 +101,7 @@ public class MainMenuScreen extends JFrame {
                     // Check if player is allowed to play before loading the game
                     Player player = new Player(false);
                     if (!player.isAllowedToPlay()) {
-                        JOptionPane.showMessageDialog(MainMenuScreen.this,
-                                "Current time does not allow gameplay!\nAllowed time: " + player.getPlayTimeLimit(),
-                                "Time Restriction", JOptionPane.WARNING_MESSAGE);
+                        showRestrictionMessage(player);
                         return; // Don't load the game if not allowed
                     }
 
@@ -155,6 +154,43 @@ public class MainMenuScreen extends JFrame {
         panel.add(exitButton);
 
         mainPanel.add(panel, BorderLayout.CENTER);
+
+        loadingBar.setStringPainted(true);
+        loadingBar.setString("Loading...");
+        loadingBar.setVisible(!AssetManager.getInstance().isPreloaded());
+        mainPanel.add(loadingBar, BorderLayout.SOUTH);
         add(mainPanel);
     }
+
+    /**
+     * Shows the progress of loading the game's images, hiding the bar once all are loaded.
+     * The menu stays usable meanwhile.
+     *
+     * @param loaded number of images loaded so far
+     * @param total  number of images to load
+     */
+    public void showLoadingProgress(int loaded, int total) {
+        loadingBar.setMaximum(Math.max(1, total));
+        loadingBar.setValue(loaded);
+        loadingBar.setString("Loading images " + loaded + "/" + total);
+        loadingBar.setVisible(loaded < total);
+    }
+
+    /**
+     * Tells the player why gameplay is not allowed right now: either today's play time quota
+     * is used up or the current time is outside the allowed time range.
+     *
+     * @param player the player whose restrictions apply
+     */
+    private void showRestrictionMessage(Player player) {
+        if (Player.isDailyQuotaUsedUp()) {
+            JOptionPane.showMessageDialog(MainMenuScreen.this,
+                    "Today's play time of " + Player.getGlobalDailyQuota() + " minutes is used up!",
+                    "Time Restriction", JOptionPane.WARNING_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(MainMenuScreen.this,
+                    "Current time does not allow gameplay!\nAllowed time: " + player.getPlayTimeLimit(),
+                    "Time Restriction", JOptionPane.WARNING_MESSAGE);
+        }
+    }
 }
\ No newline at end of file
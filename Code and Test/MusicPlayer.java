@@ -16,19 +16,20 @@ import java.io.IOException;
 public class MusicPlayer {
     // instance variables
 	private static MusicPlayer instance;
-	private String currentTrack;
-    private int volume = 100;            
-    private boolean isMuted;
+	private volatile String currentTrack;
+    private volatile int volume = 100;            
+    private volatile boolean isMuted;
     private Clip clip;
     private FloatControl volumeControl;
   
     /**
      * Plays the wav file. If another track is already playing, it will be stopped.
      * The track will loop continuously until the program ends or the Clip is closed.
+     * Decoding the file takes a while, so the game calls this off the event dispatch thread.
      *
      * @param trackPath relative path to the .wav file (e.g., "src/resources/backgroundmusic.wav")
      */
-    public void play(String trackPath) {
+    public synchronized void play(String trackPath) {
         try {
             if (clip != null && clip.isOpen()) {
                 clip.close();
@@ -57,7 +58,7 @@ public class MusicPlayer {
     /**
      * Mutes the currently playing track
      */
-    public void mute() {
+    public synchronized void mute() {
         isMuted = true;
         applyVolume();
     }
@@ -65,7 +66,7 @@ public class MusicPlayer {
     /**
      * Unmutes the currently playing track
      */
-    public void unmute() {
+    public synchronized void unmute() {
         isMuted = false;
         applyVolume();
     }
@@ -75,7 +76,7 @@ public class MusicPlayer {
      *
      * @param newVolume an integer between 0 and 100
      */
-    public void setVolume(int newVolume) {
+    public synchronized void setVolume(int newVolume) {
         volume = Math.max(0, Math.min(100, newVolume));
         applyVolume();
     }
@@ -119,7 +120,7 @@ public class MusicPlayer {
         return isMuted;
     }
     
-    public void stop() {
+    public synchronized void stop() {
         if (clip != null) {
             clip.stop();
             clip.flush();
@@ -5,8 +5,7 @@ import java.io.IOException;
 import java.text.DecimalFormat;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 
@@ -29,14 +28,16 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
     private JSpinner startMinuteSpinner;
     private JSpinner endHourSpinner;
     private JSpinner endMinuteSpinner;
+    private JSpinner dailyQuotaSpinner;
     private JLabel timeRangeLabel;
     private JLabel totalPlayTimeLabel;
     private JLabel averagePlayTimeLabel;
     private JLabel sessionCountLabel;
+    private JLabel recentPlayTimeLabel;
     private JComboBox<String> saveSlotComboBox;
     private JLabel currentTimeLabel;
     private JLabel allowedStatusLabel;
-    private Timer statusUpdateTimer;
+    private PlayWindowScheduler.Listener statusListener;
 
 
     private static final String PASSWORD_PANEL = "Password Panel";
@@ -174,11 +175,24 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         settingsPanel.add(timeRangePanel);
         settingsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
 
+        JPanel quotaPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        quotaPanel.add(new JLabel("Daily Limit (minutes, 0 = none): "));
+        SpinnerNumberModel dailyQuotaModel = new SpinnerNumberModel(Player.getGlobalDailyQuota(),
+                0, DailyPlayQuota.MAX_QUOTA_MINUTES, 15);
+        dailyQuotaSpinner = new JSpinner(dailyQuotaModel);
+        quotaPanel.add(dailyQuotaSpinner);
+        settingsPanel.add(quotaPanel);
+        settingsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
+
        
         JPanel applyButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         JButton applyButton = new JButton("Apply Settings");
         applyButton.addActionListener(e -> applyTimeSettings());
         applyButtonPanel.add(applyButton);
+
+        JButton scheduleButton = new JButton("Edit Schedule...");
+        scheduleButton.addActionListener(e -> editPlaySchedule());
+        applyButtonPanel.add(scheduleButton);
         settingsPanel.add(applyButtonPanel);
         settingsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
 
@@ -206,7 +220,7 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         DecimalFormat df = new DecimalFormat("#.##");
 
        
-            JPanel statsInfoPanel = new JPanel(new GridLayout(3, 1, 0, 5));
+            JPanel statsInfoPanel = new JPanel(new GridLayout(4, 1, 0, 5));
 
         statsInfoPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
         totalPlayTimeLabel = new JLabel("Total Play Time: " +
@@ -215,10 +229,12 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
                 df.format(player.getAveragePlayTime()) + " hours/session");
         sessionCountLabel = new JLabel("Game Start Count: " +
                 Player.getGlobalGameStartCount() + " times");
+        recentPlayTimeLabel = new JLabel(recentPlayTimeText());
 
         statsInfoPanel.add(totalPlayTimeLabel);
         statsInfoPanel.add(averagePlayTimeLabel);
         statsInfoPanel.add(sessionCountLabel);
+        statsInfoPanel.add(recentPlayTimeLabel);
         statsPanel.add(statsInfoPanel);
         statsPanel.add(Box.createRigidArea(new Dimension(0, 10)));
 
@@ -238,8 +254,10 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
 
         JPanel slotPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         slotPanel.add(new JLabel("Select Save Slot: "));
-        String[] saveSlots = {"Save 1", "Save 2", "Save 3"};
-        saveSlotComboBox = new JComboBox<>(saveSlots);
+        saveSlotComboBox = new JComboBox<>();
+        for (int slot : SaveLoadManager.getStore().listAllGames()) {
+            saveSlotComboBox.addItem("Save " + slot);
+        }
         slotPanel.add(saveSlotComboBox);
         petRevivalPanel.add(slotPanel);
         petRevivalPanel.add(Box.createRigidArea(new Dimension(0, 5)));
@@ -255,6 +273,10 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
             }
         });
         reviveButtonPanel.add(reviveButton);
+
+        JButton reviveAllButton = new JButton("Revive All Dead Pets");
+        reviveAllButton.addActionListener(e -> reviveAllDeadPets(reviveAllButton));
+        reviveButtonPanel.add(reviveAllButton);
         petRevivalPanel.add(reviveButtonPanel);
 
         statsPanel.add(petRevivalPanel);
@@ -310,6 +332,35 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         }
     }
 
+    /**
+     * Lets the parent edit detailed schedule rules, such as several windows per weekday and
+     * holiday overrides. Leaving the rules empty goes back to the single daily time range.
+     */
+    private void editPlaySchedule() {
+        JTextArea rulesArea = new JTextArea(Player.getPlayScheduleRules().replaceAll("\\s*;\\s*", "\n"), 8, 36);
+        JPanel panel = new JPanel(new BorderLayout(0, 5));
+        panel.add(new JLabel("<html>One rule per line, for example:<br>"
+                + "MON-FRI 16:00-19:00<br>SAT,SUN 09:00-12:00, 15:00-20:00<br>"
+                + "2024-12-25 10:00-22:00 &nbsp;(holiday)<br>2024-12-31 NONE</html>"), BorderLayout.NORTH);
+        panel.add(new JScrollPane(rulesArea), BorderLayout.CENTER);
+
+        int choice = JOptionPane.showConfirmDialog(this, panel, "Play Schedule",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        String rules = rulesArea.getText().trim().replaceAll("\\s*\\n\\s*", "; ");
+        if (player.setPlaySchedule(rules)) {
+            updateTimeRangeLabel();
+            updateTimeStatus();
+        } else {
+            JOptionPane.showMessageDialog(this,
+                    "The schedule could not be understood. Please check the rules.",
+                    "Invalid Schedule", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * Updates the enabled state of time control spinners based on the checkbox.
      */
@@ -320,6 +371,7 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         startMinuteSpinner.setEnabled(enabled);
         endHourSpinner.setEnabled(enabled);
         endMinuteSpinner.setEnabled(enabled);
+        dailyQuotaSpinner.setEnabled(enabled);
     }
 
     /**
@@ -337,12 +389,14 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         String timeRange = String.format("%02d:%02d - %02d:%02d",
                 startHour, startMinute, endHour, endMinute);
 
-        if (player.setParentalControls(enabled, timeRange)) {
+        if (player.setParentalControls(enabled, timeRange)
+                && player.setDailyQuota((Integer) dailyQuotaSpinner.getValue())) {
             JOptionPane.showMessageDialog(this,
                     "Parental control settings updated", "Success", JOptionPane.INFORMATION_MESSAGE);
 
             updateTimeRangeLabel();
             updateTimeStatus();
+            updateStatisticsDisplay();
         } else {
             JOptionPane.showMessageDialog(this,
                     "Unable to update parental control settings", "Failed", JOptionPane.ERROR_MESSAGE);
@@ -384,6 +438,19 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
 
         sessionCountLabel.setText("Game Start Count: " +
                 Player.getGlobalGameStartCount() + " times");
+
+        recentPlayTimeLabel.setText(recentPlayTimeText());
+    }
+
+    /**
+     * Formats the minutes played today and this week, and the daily limit if one is set.
+     * @return label text
+     */
+    private String recentPlayTimeText() {
+        int quota = Player.getGlobalDailyQuota();
+        return "Played Today: " + Player.getGlobalMinutesToday()
+                + (quota > 0 ? " of " + quota : "") + " min, This Week: "
+                + Player.getGlobalMinutesThisWeek() + " min";
     }
 
     /**
@@ -391,6 +458,12 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
      */
     private void revivePet() throws IOException {
         String selectedSlot = (String) saveSlotComboBox.getSelectedItem();
+        if (selectedSlot == null) {
+            JOptionPane.showMessageDialog(this,
+                    "There are no saved pets to revive.",
+                    "Revival Not Allowed", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         String saveId = selectedSlot.replace("Save ", "");
         GameState gameState = SaveLoadManager.loadGame(Integer.parseInt(saveId));
 
@@ -416,13 +489,38 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         }
     }
 
+    /**
+     * Revives every dead pet in all save slots. The saves are processed in the background and
+     * a summary is shown when they are done.
+     * @param button the button that started the revival, disabled while it runs
+     */
+    private void reviveAllDeadPets(JButton button) {
+        int choice = JOptionPane.showConfirmDialog(this,
+                "Revive every dead pet in all save slots?", "Confirm Revival",
+                JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (choice != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        button.setEnabled(false);
+        CompletableFuture.supplyAsync(() -> player.reviveAll(BulkRepair.DEAD), SaveLoadManager.backgroundExecutor())
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    button.setEnabled(true);
+                    if (result != null) {
+                        JOptionPane.showMessageDialog(this,
+                                result.summary(), "Revival Finished", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this,
+                                "Unable to revive pets", "Revival Failed", JOptionPane.ERROR_MESSAGE);
+                    }
+                }));
+    }
+
     /**
      * Returns to the main menu after cleaning up resources.
      */
     private void returnToMainMenu() {
-        if (statusUpdateTimer != null) {
-            statusUpdateTimer.cancel();
-        }
+        stopStatusUpdates();
 
         player.exitParentalControl();
 
@@ -477,23 +575,31 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
         } else {
             timeRangeLabel.setText("Current Setting: " + formattedRange);
         }
+
+        if (!Player.getPlayScheduleRules().isEmpty()) {
+            timeRangeLabel.setText("Current Setting: custom schedule");
+        }
     }
 
     /**
-     * Sets up a timer to periodically update the time status display.
+     * Keeps the time status display current. The display is updated when the allowed play
+     * window opens or closes, without polling.
      */
     private void setupStatusTimer() {
-        if (statusUpdateTimer != null) {
-            statusUpdateTimer.cancel();
-        }
+        stopStatusUpdates();
 
-        statusUpdateTimer = new Timer();
-        statusUpdateTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                SwingUtilities.invokeLater(() -> updateTimeStatus());
-            }
-        }, 0, 10000); // Update every 10 seconds
+        statusListener = allowed -> SwingUtilities.invokeLater(this::updateTimeStatus);
+        PlayWindowScheduler.getInstance().subscribe(statusListener);
+    }
+
+    /**
+     * Stops updating the time status display.
+     */
+    private void stopStatusUpdates() {
+        if (statusListener != null) {
+            PlayWindowScheduler.getInstance().unsubscribe(statusListener);
+            statusListener = null;
+        }
     }
 
     /**
@@ -511,9 +617,7 @@ public class ParentalControlsScreen extends JFrame implements Player.TimeCheckCa
      */
     @Override
     public void dispose() {
-        if (statusUpdateTimer != null) {
-            statusUpdateTimer.cancel();
-        }
+        stopStatusUpdates();
         super.dispose();
     }
 }
\ No newline at end of file
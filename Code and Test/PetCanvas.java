@@ -0,0 +1,169 @@
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the pet scene itself, on a thread of its own, instead of through Swing painting.
+ * <p>
+ * The canvas draws the {@linkplain ScaledBackground pre-scaled background} and the pet's
+ * sprite into a {@link BufferStrategy} from a
+ * {@link RenderLoop}, so the scene can animate smoothly without layout, revalidation or the
+ * repaint manager. The pet gently bobs: quickly when it is angry, slowly when it sleeps, and
+ * not at all when it is dead. The loop runs while the canvas is on screen and stops when its
+ * window is disposed; its frame statistics are available from {@link #getFrameStats()}.
+ * <p>
+ * {@link GamePlayScreen} uses this canvas when the game is started with
+ * {@code -Dvirtualpet.rendering=active}, capped at {@code -Dvirtualpet.fps} frames a second.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PetCanvas canvas = new PetCanvas(60);
+ * panel.add(canvas, BorderLayout.CENTER);
+ * canvas.setPet(sprite, VirtualPet.PetState.NORMAL);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class PetCanvas extends Canvas {
+
+    /** How many times a second the animation is updated. */
+    public static final int UPDATES_PER_SECOND = 60;
+    /** Path of the background image. */
+    static final String BACKGROUND = "resources/background1.jpg";
+    // Height of the pet's bob in pixels
+    private static final double BOB_PIXELS = 6;
+
+    private final RenderLoop loop;
+    private final ScaledBackground background = new ScaledBackground(BACKGROUND);
+    private volatile BufferedImage sprite;
+    private volatile VirtualPet.PetState state = VirtualPet.PetState.NORMAL;
+
+    // Bob animation, in turns; only touched by the loop thread
+    private double phase;
+    private double previousPhase;
+
+    /**
+     * Creates a pet canvas.
+     *
+     * @param fpsCap most frames drawn a second, or 0 for no cap
+     */
+    public PetCanvas(int fpsCap) {
+        setIgnoreRepaint(true);
+        setBackground(Color.WHITE);
+        loop = new RenderLoop(UPDATES_PER_SECOND, fpsCap, this::update, this::render);
+    }
+
+    /**
+     * Sets what the canvas shows; it is drawn from the next frame on.
+     *
+     * @param sprite the pet's sprite, or null to show only the background
+     * @param state  the pet's state, which sets how it moves
+     */
+    public void setPet(BufferedImage sprite, VirtualPet.PetState state) {
+        this.sprite = sprite;
+        this.state = state;
+    }
+
+    /**
+     * Changes the frame rate cap.
+     *
+     * @param fpsCap most frames drawn a second, or 0 for no cap
+     */
+    public void setFpsCap(int fpsCap) {
+        loop.setFpsCap(fpsCap);
+    }
+
+    /**
+     * @return frame time statistics of the canvas's render loop
+     */
+    public RenderLoop.Stats getFrameStats() {
+        return loop.getStats();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy(2);
+        loop.start("pet-render-loop");
+    }
+
+    @Override
+    public void removeNotify() {
+        loop.stop();
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy != null) {
+            strategy.dispose();
+        }
+        super.removeNotify();
+    }
+
+    /**
+     * Advances the bob animation by one step.
+     *
+     * @param seconds length of the step
+     */
+    private void update(double seconds) {
+        double turnsPerSecond;
+        switch (state) {
+            case DEAD:
+                turnsPerSecond = 0;
+                break;
+            case SLEEPING:
+                turnsPerSecond = 0.25;
+                break;
+            case ANGRY:
+                turnsPerSecond = 3;
+                break;
+            default:
+                turnsPerSecond = 1;
+        }
+        previousPhase = phase;
+        phase = (phase + turnsPerSecond * seconds) % 1.0;
+    }
+
+    /**
+     * Draws one frame, redrawing it if the buffer's contents were lost meanwhile.
+     *
+     * @param alpha how far the scene is from the last update to the next
+     */
+    private void render(double alpha) {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null || !isShowing()) {
+            return;
+        }
+        double from = previousPhase > phase ? previousPhase - 1 : previousPhase;
+        double bob = Math.sin(2 * Math.PI * (from + (phase - from) * alpha)) * BOB_PIXELS;
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    draw(g, bob);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void draw(Graphics2D g, double bob) {
+        int width = getWidth();
+        int height = getHeight();
+        if (!background.paint(g, width, height, getGraphicsConfiguration(), null)) {
+            g.setColor(getBackground());
+            g.fillRect(0, 0, width, height);
+        }
+        BufferedImage pet = sprite;
+        if (pet != null) {
+            int x = (width - pet.getWidth()) / 2;
+            int y = (int) Math.round((height - pet.getHeight()) / 2.0 - bob);
+            g.drawImage(pet, x, y, null);
+        }
+    }
+}
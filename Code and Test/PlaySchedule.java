@@ -0,0 +1,372 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled parental play schedule: which minutes of the week play is allowed, with overrides
+ * for particular dates.
+ * <p>
+ * The weekly rules are compiled once into a 10,080-bit bitmap, one bit per minute of the week
+ * starting Monday 00:00, and a table holding for every minute how many minutes remain until
+ * the allowed state changes on that day. Dates with overrides get their own one-day bitmap and
+ * table. Checking whether play is allowed is then a map lookup and a bit test, and finding
+ * the next boundary is a table lookup plus at most a few day steps; no strings are parsed and
+ * no times are compared per check.
+ * <p>
+ * Like the original single window, a window includes both its start and its end minute, and a
+ * window whose end is before its start runs past midnight into the next day.
+ * <p>
+ * Schedules are written as rules separated by {@code ;} or new lines:
+ * <pre>
+ *   DAILY 18:00-20:00                 every day
+ *   MON-FRI 07:00-08:00, 16:00-19:30  several windows on a range of weekdays
+ *   SAT 09:00-12:00                   one weekday
+ *   2024-12-25 10:00-22:00            holiday: replaces the weekly windows of that date
+ *   2024-12-31 NONE                   no play at all on that date
+ *   2024-12-24 +20:00-22:00           exception: allowed in addition to the weekly windows
+ *   2024-12-23 !17:00-18:00           exception: blocked even if the weekly windows allow it
+ * </pre>
+ * Weekly rules add up. A replacing date rule applies to the minutes of that date only, so a
+ * window spilling over midnight from the previous day does not reach into it.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PlaySchedule schedule = PlaySchedule.parse("MON-FRI 16:00-19:00; SAT,SUN 09:00-20:00");
+ * if (!schedule.isAllowed(LocalDateTime.now())) { ... }
+ * LocalDateTime next = schedule.nextBoundary(LocalDateTime.now());
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public final class PlaySchedule {
+
+    /** Minutes in a day. */
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    /** Minutes in a week, and the number of bits in the weekly bitmap. */
+    public static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    /** Schedule that allows play at any time. */
+    public static final PlaySchedule ALWAYS = parse("DAILY 00:00-23:59");
+
+    private final DayPlan[] weekly = new DayPlan[7];
+    private final Map<LocalDate, DayPlan> dates;
+    private final String rules;
+
+    private PlaySchedule(BitSet weekBits, Map<LocalDate, BitSet> dateBits, String rules) {
+        int[] weekNext = nextChangeTable(weekBits, 7);
+        for (int day = 0; day < 7; day++) {
+            weekly[day] = new DayPlan(weekBits, weekNext, day * MINUTES_PER_DAY);
+        }
+        Map<LocalDate, DayPlan> compiled = new HashMap<>();
+        for (Map.Entry<LocalDate, BitSet> entry : dateBits.entrySet()) {
+            compiled.put(entry.getKey(), new DayPlan(entry.getValue(), nextChangeTable(entry.getValue(), 1), 0));
+        }
+        this.dates = Collections.unmodifiableMap(compiled);
+        this.rules = rules;
+    }
+
+    /**
+     * Builds a schedule with one daily window, as set on the parental controls screen.
+     *
+     * @param startHour   start of the window
+     * @param startMinute start of the window
+     * @param endHour     end of the window, inclusive
+     * @param endMinute   end of the window, inclusive
+     * @return the compiled schedule
+     */
+    public static PlaySchedule daily(int startHour, int startMinute, int endHour, int endMinute) {
+        return parse(String.format("DAILY %02d:%02d-%02d:%02d", startHour, startMinute, endHour, endMinute));
+    }
+
+    /**
+     * Compiles schedule rules.
+     *
+     * @param rules the rules, see the class description
+     * @return the compiled schedule
+     * @throws IllegalArgumentException if a rule cannot be parsed
+     */
+    public static PlaySchedule parse(String rules) {
+        BitSet week = new BitSet(MINUTES_PER_WEEK);
+        Map<String, String> dateRules = new HashMap<>();
+
+        for (String rule : rules.split("[;\\n]")) {
+            rule = rule.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            int space = rule.indexOf(' ');
+            if (space < 0) {
+                throw new IllegalArgumentException("Missing windows in rule: " + rule);
+            }
+            String target = rule.substring(0, space).toUpperCase(Locale.ROOT);
+            String windows = rule.substring(space + 1).trim();
+            if (Character.isDigit(target.charAt(0))) {
+                // Applied after all weekly rules, since they depend on them
+                dateRules.merge(target, windows, (a, b) -> a + "," + b);
+            } else {
+                for (int day : parseDays(target)) {
+                    forEachWindow(windows, (start, end) -> setWindow(week, day * MINUTES_PER_DAY, start, end, 7));
+                }
+            }
+        }
+
+        Map<LocalDate, BitSet> dates = new HashMap<>();
+        for (Map.Entry<String, String> entry : dateRules.entrySet()) {
+            LocalDate date;
+            try {
+                date = LocalDate.parse(entry.getKey());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid date: " + entry.getKey(), e);
+            }
+            dates.put(date, compileDate(week, date, entry.getValue()));
+        }
+        return new PlaySchedule(week, dates, rules);
+    }
+
+    /**
+     * Checks whether play is allowed at a time.
+     *
+     * @param time local date and time
+     * @return true if the minute containing the time is inside a window
+     */
+    public boolean isAllowed(LocalDateTime time) {
+        return planFor(time.toLocalDate()).allowed(minuteOfDay(time));
+    }
+
+    /**
+     * Finds the next time at which play becomes allowed or stops being allowed.
+     *
+     * @param time local date and time
+     * @return start of the first minute after {@code time} with the opposite allowed state,
+     *         or null if the state never changes
+     */
+    public LocalDateTime nextBoundary(LocalDateTime time) {
+        LocalDate date = time.toLocalDate();
+        int minute = minuteOfDay(time);
+        DayPlan plan = planFor(date);
+        boolean allowed = plan.allowed(minute);
+
+        int ahead = plan.minutesToChange(minute);
+        if (ahead > 0) {
+            return time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(ahead);
+        }
+        // No change before midnight; look at the following days. Without overrides the weekly
+        // pattern repeats after 7 days, so further days can only differ on override dates.
+        int maxDays = 8 + dates.size();
+        for (int i = 1; i <= maxDays; i++) {
+            LocalDate next = date.plusDays(i);
+            DayPlan nextPlan = planFor(next);
+            if (nextPlan.allowed(0) != allowed) {
+                return next.atStartOfDay();
+            }
+            int change = nextPlan.minutesToChange(0);
+            if (change > 0) {
+                return next.atStartOfDay().plusMinutes(change);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the rules this schedule was compiled from
+     */
+    public String getRules() {
+        return rules;
+    }
+
+    @Override
+    public String toString() {
+        return rules;
+    }
+
+    private DayPlan planFor(LocalDate date) {
+        DayPlan plan = dates.isEmpty() ? null : dates.get(date);
+        return plan != null ? plan : weekly[date.getDayOfWeek().getValue() - 1];
+    }
+
+    private static int minuteOfDay(LocalDateTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Compiles the rules of one date on top of the weekly windows of its weekday.
+     */
+    private static BitSet compileDate(BitSet week, LocalDate date, String windows) {
+        int offset = (date.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY;
+        BitSet weekday = week.get(offset, offset + MINUTES_PER_DAY);
+        BitSet replaced = new BitSet(MINUTES_PER_DAY);
+        BitSet added = new BitSet(MINUTES_PER_DAY);
+        BitSet blocked = new BitSet(MINUTES_PER_DAY);
+        boolean replaces = false;
+
+        for (String window : windows.split(",")) {
+            window = window.trim();
+            if (window.isEmpty()) {
+                continue;
+            }
+            if (window.equalsIgnoreCase("NONE")) {
+                replaces = true;
+            } else if (window.startsWith("+")) {
+                forEachWindow(window.substring(1), (start, end) -> setWindow(added, 0, start, end, 1));
+            } else if (window.startsWith("!")) {
+                forEachWindow(window.substring(1), (start, end) -> setWindow(blocked, 0, start, end, 1));
+            } else {
+                replaces = true;
+                forEachWindow(window, (start, end) -> setWindow(replaced, 0, start, end, 1));
+            }
+        }
+
+        BitSet day = replaces ? replaced : weekday;
+        day.or(added);
+        day.andNot(blocked);
+        return day;
+    }
+
+    /**
+     * Parses a weekday target such as {@code DAILY}, {@code SAT}, {@code MON-FRI} or
+     * {@code SAT,SUN}.
+     *
+     * @return day indexes, Monday being 0
+     */
+    private static int[] parseDays(String target) {
+        switch (target) {
+            case "DAILY":
+                return new int[] {0, 1, 2, 3, 4, 5, 6};
+            case "WEEKDAYS":
+                return new int[] {0, 1, 2, 3, 4};
+            case "WEEKENDS":
+                return new int[] {5, 6};
+            default:
+                break;
+        }
+        BitSet days = new BitSet(7);
+        for (String part : target.split(",")) {
+            String[] range = part.split("-");
+            if (range.length > 2) {
+                throw new IllegalArgumentException("Invalid days: " + target);
+            }
+            int from = dayIndex(range[0]);
+            int to = range.length == 2 ? dayIndex(range[1]) : from;
+            for (int d = from; ; d = (d + 1) % 7) {
+                days.set(d);
+                if (d == to) {
+                    break;
+                }
+            }
+        }
+        return days.stream().toArray();
+    }
+
+    private static int dayIndex(String name) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(name) && name.length() >= 3) {
+                return day.getValue() - 1;
+            }
+        }
+        throw new IllegalArgumentException("Invalid day: " + name);
+    }
+
+    /** Receives the start and end minute of a parsed window. */
+    private interface WindowConsumer {
+        void accept(int startMinute, int endMinute);
+    }
+
+    /**
+     * Parses comma-separated {@code HH:MM-HH:MM} windows.
+     */
+    private static void forEachWindow(String windows, WindowConsumer consumer) {
+        for (String window : windows.split(",")) {
+            window = window.trim();
+            if (window.isEmpty() || window.equalsIgnoreCase("NONE")) {
+                continue;
+            }
+            String[] parts = window.split("\\s*-\\s*");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid window: " + window);
+            }
+            try {
+                LocalTime start = LocalTime.parse(parts[0].length() == 4 ? "0" + parts[0] : parts[0]);
+                LocalTime end = LocalTime.parse(parts[1].length() == 4 ? "0" + parts[1] : parts[1]);
+                consumer.accept(start.getHour() * 60 + start.getMinute(), end.getHour() * 60 + end.getMinute());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid window: " + window, e);
+            }
+        }
+    }
+
+    /**
+     * Sets the bits of one window, both ends included, wrapping past midnight and past the
+     * end of the bitmap.
+     *
+     * @param bits      the bitmap
+     * @param dayOffset first bit of the window's day
+     * @param start     start minute of the day
+     * @param end       end minute of the day
+     * @param days      number of days in the bitmap
+     */
+    private static void setWindow(BitSet bits, int dayOffset, int start, int end, int days) {
+        int size = days * MINUTES_PER_DAY;
+        int length = (end >= start ? end - start : end + MINUTES_PER_DAY - start) + 1;
+        int from = dayOffset + start;
+        if (days == 1) {
+            // A one-day plan keeps only the part of the window on its own date
+            bits.set(from, Math.min(from + length, MINUTES_PER_DAY));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            bits.set((from + i) % size);
+        }
+    }
+
+    /**
+     * For every minute, the number of minutes until the allowed state changes on the same day,
+     * or 0 if it stays the same until midnight.
+     */
+    private static int[] nextChangeTable(BitSet bits, int days) {
+        int[] next = new int[days * MINUTES_PER_DAY];
+        for (int day = 0; day < days; day++) {
+            int base = day * MINUTES_PER_DAY;
+            int changeAt = -1;
+            for (int m = MINUTES_PER_DAY - 1; m >= 0; m--) {
+                if (m < MINUTES_PER_DAY - 1 && bits.get(base + m) != bits.get(base + m + 1)) {
+                    changeAt = m + 1;
+                }
+                next[base + m] = changeAt < 0 ? 0 : changeAt - m;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * One day of a schedule, viewed through a slice of a bitmap and its change table.
+     */
+    private static class DayPlan {
+        private final BitSet bits;
+        private final int[] nextChange;
+        private final int offset;
+
+        DayPlan(BitSet bits, int[] nextChange, int offset) {
+            this.bits = bits;
+            this.nextChange = nextChange;
+            this.offset = offset;
+        }
+
+        boolean allowed(int minuteOfDay) {
+            return bits.get(offset + minuteOfDay);
+        }
+
+        int minutesToChange(int minuteOfDay) {
+            return nextChange[offset + minuteOfDay];
+        }
+    }
+}
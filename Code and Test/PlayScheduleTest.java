@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayScheduleTest {
+
+    // 2024-05-13 is a Monday
+    private static LocalDateTime at(int day, int hour, int minute) {
+        return LocalDateTime.of(2024, 5, day, hour, minute);
+    }
+
+    @Test
+    void daily_EndMinuteIncluded() {
+        PlaySchedule schedule = PlaySchedule.daily(18, 0, 20, 0);
+
+        assertFalse(schedule.isAllowed(at(13, 17, 59)));
+        assertTrue(schedule.isAllowed(at(13, 18, 0)));
+        assertTrue(schedule.isAllowed(at(13, 20, 0)));
+        assertTrue(schedule.isAllowed(LocalDateTime.of(2024, 5, 13, 20, 0, 59)));
+        assertFalse(schedule.isAllowed(at(13, 20, 1)));
+    }
+
+    @Test
+    void daily_CrossesMidnight() {
+        PlaySchedule schedule = PlaySchedule.daily(22, 0, 6, 0);
+
+        assertTrue(schedule.isAllowed(at(13, 0, 30)));
+        assertTrue(schedule.isAllowed(at(19, 23, 0)));
+        assertTrue(schedule.isAllowed(at(13, 6, 0)));
+        assertFalse(schedule.isAllowed(at(13, 12, 0)));
+        // Sunday night wraps around to Monday morning
+        assertTrue(schedule.isAllowed(at(20, 5, 0)));
+    }
+
+    @Test
+    void parse_SeveralWindowsPerWeekday() {
+        PlaySchedule schedule = PlaySchedule.parse("MON-FRI 07:00-07:30, 16:00-19:00; SAT,SUN 09:00-20:00");
+
+        assertTrue(schedule.isAllowed(at(14, 7, 15)));
+        assertFalse(schedule.isAllowed(at(14, 12, 0)));
+        assertTrue(schedule.isAllowed(at(17, 18, 30)));
+        assertFalse(schedule.isAllowed(at(17, 19, 30)));
+        assertTrue(schedule.isAllowed(at(18, 12, 0)));
+        assertTrue(schedule.isAllowed(at(19, 9, 0)));
+    }
+
+    @Test
+    void parse_HolidayOverridesAndExceptions() {
+        PlaySchedule schedule = PlaySchedule.parse(
+                "DAILY 18:00-20:00; 2024-05-15 10:00-12:00; 2024-05-16 NONE; "
+                        + "2024-05-17 +08:00-09:00; 2024-05-17 !19:00-19:59");
+
+        // Replaced
+        assertTrue(schedule.isAllowed(at(15, 11, 0)));
+        assertFalse(schedule.isAllowed(at(15, 18, 30)));
+        // Blocked all day
+        assertFalse(schedule.isAllowed(at(16, 19, 0)));
+        // Extra window and a blocked hour on top of the weekly window
+        assertTrue(schedule.isAllowed(at(17, 8, 30)));
+        assertTrue(schedule.isAllowed(at(17, 18, 30)));
+        assertFalse(schedule.isAllowed(at(17, 19, 30)));
+        assertTrue(schedule.isAllowed(at(17, 20, 0)));
+        // Other days keep the weekly window
+        assertTrue(schedule.isAllowed(at(14, 18, 30)));
+    }
+
+    @Test
+    void nextBoundary_FindsStartAndEndOfWindows() {
+        PlaySchedule schedule = PlaySchedule.parse("MON 18:00-20:00; WED 09:00-10:00");
+
+        assertEquals(at(13, 18, 0), schedule.nextBoundary(LocalDateTime.of(2024, 5, 13, 12, 0, 30)));
+        assertEquals(at(13, 20, 1), schedule.nextBoundary(at(13, 18, 0)));
+        // Nothing on Tuesday: the next change is Wednesday morning
+        assertEquals(at(15, 9, 0), schedule.nextBoundary(at(13, 20, 1)));
+        // After Wednesday it wraps around to next Monday
+        assertEquals(at(20, 18, 0), schedule.nextBoundary(at(15, 10, 1)));
+    }
+
+    @Test
+    void nextBoundary_WindowEndingAtMidnight_StopsNextDay() {
+        PlaySchedule schedule = PlaySchedule.parse("DAILY 22:00-23:59; 2024-05-14 NONE");
+
+        assertEquals(at(14, 0, 0), schedule.nextBoundary(at(13, 23, 0)));
+        assertEquals(at(15, 22, 0), schedule.nextBoundary(at(14, 0, 0)));
+        assertNull(PlaySchedule.ALWAYS.nextBoundary(at(14, 0, 0)));
+    }
+
+    @Test
+    void parse_InvalidRules_Throw() {
+        assertThrows(IllegalArgumentException.class, () -> PlaySchedule.parse("MONDAYS"));
+        assertThrows(IllegalArgumentException.class, () -> PlaySchedule.parse("XYZ 10:00-11:00"));
+        assertThrows(IllegalArgumentException.class, () -> PlaySchedule.parse("DAILY 25:00-26:00"));
+        assertThrows(IllegalArgumentException.class, () -> PlaySchedule.parse("2024-13-01 NONE"));
+    }
+}
@@ -0,0 +1,285 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Global play statistics: total play time and the number of games started.
+ * <p>
+ * Any thread may record play time or a game start at any time without locking. New values go
+ * into {@link LongAdder}s and are added to the stored totals in batches: the first change after
+ * a write schedules one write {@link #FLUSH_DELAY_MILLIS} later, which persists everything
+ * recorded until then as the {@link GameStore#PLAY_STATS} record. Callers that are about to
+ * exit call {@link #flush()} to write the rest.
+ * <p>
+ * If another copy of the game wrote the record since the last flush, its totals are read
+ * first and this process only adds its own changes, so neither side's sessions are lost.
+ * <p>
+ * The record is {@code 'P' 'S' version(1) playMillis(long) gameStarts(long)}. When it does not
+ * exist yet the totals are taken over from the statistics older versions kept in the global
+ * settings.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PlayStatistics stats = PlayStatistics.getInstance();
+ * stats.recordGameStart();
+ * stats.recordPlayTime(sessionMillis);
+ * float hours = stats.getTotalPlayHours();
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class PlayStatistics {
+
+    /** How long changes may wait before they are written, in milliseconds. */
+    public static final long FLUSH_DELAY_MILLIS = 10_000;
+
+    /** Current version of the record format. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final byte MAGIC_0 = 'P';
+    private static final byte MAGIC_1 = 'S';
+    private static final double MILLIS_PER_HOUR = 60.0 * 60.0 * 1000.0;
+
+    private static PlayStatistics instance;
+
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "play-stats-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Supplier<GameStore> storeSource;
+    private final String recordName;
+    // Settings whose statistics fields seed a missing record, or null
+    private final GlobalSettingsStore legacySettings;
+    // Totals as of the last load or write
+    private final AtomicLong storedMillis = new AtomicLong();
+    private final AtomicLong storedStarts = new AtomicLong();
+    // Changes recorded since then
+    private final LongAdder pendingMillis = new LongAdder();
+    private final LongAdder pendingStarts = new LongAdder();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private volatile boolean loaded = false;
+    // Stamp of the record as this process last read or wrote it, guarded by this
+    private long knownStamp = -1;
+
+    /**
+     * Creates statistics kept in a named record.
+     *
+     * @param recordName name of the record in the active {@link GameStore}
+     */
+    PlayStatistics(String recordName) {
+        this(SaveLoadManager::getStore, recordName, GlobalSettingsStore.getInstance());
+    }
+
+    /**
+     * Creates statistics kept in a named record of another store, such as a profile's.
+     *
+     * @param storeSource    supplies the store holding the record
+     * @param recordName     name of the record
+     * @param legacySettings settings to take the totals from while the record does not exist,
+     *                       or null to start from zero
+     */
+    PlayStatistics(Supplier<GameStore> storeSource, String recordName, GlobalSettingsStore legacySettings) {
+        this.storeSource = storeSource;
+        this.recordName = recordName;
+        this.legacySettings = legacySettings;
+    }
+
+    /**
+     * Returns the statistics stored as {@link GameStore#PLAY_STATS}.
+     *
+     * @return the shared PlayStatistics instance
+     */
+    public static synchronized PlayStatistics getInstance() {
+        if (instance == null) {
+            instance = new PlayStatistics(GameStore.PLAY_STATS);
+        }
+        return instance;
+    }
+
+    /**
+     * Records that a game was started.
+     */
+    public void recordGameStart() {
+        ensureLoaded();
+        pendingStarts.increment();
+        scheduleFlush();
+    }
+
+    /**
+     * Adds the length of a play session.
+     *
+     * @param millis session length in milliseconds, ignored if not positive
+     */
+    public void recordPlayTime(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        ensureLoaded();
+        pendingMillis.add(millis);
+        scheduleFlush();
+    }
+
+    /**
+     * @return total play time in milliseconds, including changes not written yet
+     */
+    public long getTotalPlayMillis() {
+        ensureLoaded();
+        return storedMillis.get() + pendingMillis.sum();
+    }
+
+    /**
+     * @return total play time in hours, including changes not written yet
+     */
+    public float getTotalPlayHours() {
+        return (float) (getTotalPlayMillis() / MILLIS_PER_HOUR);
+    }
+
+    /**
+     * @return number of games started, including changes not written yet
+     */
+    public long getGameStartCount() {
+        ensureLoaded();
+        return storedStarts.get() + pendingStarts.sum();
+    }
+
+    /**
+     * Sets both totals to zero and writes them at once.
+     */
+    public synchronized void reset() {
+        ensureLoaded();
+        pendingMillis.add(-pendingMillis.sum());
+        pendingStarts.add(-pendingStarts.sum());
+        storedMillis.set(0);
+        storedStarts.set(0);
+        write();
+    }
+
+    /**
+     * Writes all changes recorded so far.
+     *
+     * @return true if the record is up to date
+     */
+    public synchronized boolean flush() {
+        flushScheduled.set(false);
+        long millis = pendingMillis.sum();
+        long starts = pendingStarts.sum();
+        if (!loaded || (millis == 0 && starts == 0)) {
+            return true;
+        }
+
+        GameStore store = storeSource.get();
+        long stamp = store.recordStamp(recordName);
+        if (stamp < 0 || stamp != knownStamp) {
+            // Another process wrote its totals; add ours to those
+            readRecord(store);
+        }
+        // Move the changes over; anything recorded meanwhile stays pending for the next flush
+        pendingMillis.add(-millis);
+        pendingStarts.add(-starts);
+        storedMillis.addAndGet(millis);
+        storedStarts.addAndGet(starts);
+        if (!write()) {
+            // Keep the changes pending so the next flush tries again
+            storedMillis.addAndGet(-millis);
+            storedStarts.addAndGet(-starts);
+            pendingMillis.add(millis);
+            pendingStarts.add(starts);
+            return false;
+        }
+        return true;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                GameStore store = storeSource.get();
+                if (!readRecord(store) && legacySettings != null) {
+                    // Take over the statistics older versions kept in the global settings
+                    GlobalSettingsStore.Settings legacy = legacySettings.get();
+                    storedMillis.set(Math.round(legacy.getTotalPlayTime() * MILLIS_PER_HOUR));
+                    storedStarts.set(legacy.getGameStartCount());
+                }
+                loaded = true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the stored totals with the record's. Callers must hold the lock.
+     *
+     * @param store the active store
+     * @return false if the record does not exist
+     */
+    private boolean readRecord(GameStore store) {
+        try {
+            knownStamp = store.recordStamp(recordName);
+            byte[] data = store.loadRecord(recordName);
+            if (data == null) {
+                return false;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+                if (in.readByte() != MAGIC_0 || in.readByte() != MAGIC_1) {
+                    throw new IOException("Not a play statistics record");
+                }
+                int version = in.readUnsignedByte();
+                if (version > FORMAT_VERSION) {
+                    throw new IOException("Play statistics format " + version + " is newer than this game supports");
+                }
+                storedMillis.set(in.readLong());
+                storedStarts.set(in.readLong());
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to load play statistics: " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Writes the stored totals. Callers must hold the lock.
+     *
+     * @return true if the record was written
+     */
+    private boolean write() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(19);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(storedMillis.get());
+            out.writeLong(storedStarts.get());
+        } catch (IOException e) {
+            return false;
+        }
+        GameStore store = storeSource.get();
+        try {
+            store.saveRecord(recordName, bytes.toByteArray());
+            knownStamp = store.recordStamp(recordName);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to save play statistics: " + e.getMessage());
+            return false;
+        }
+    }
+}
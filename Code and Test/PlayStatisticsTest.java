@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayStatisticsTest {
+
+    private static final String RECORD = "test_play_stats";
+
+    @BeforeEach
+    void setup() throws Exception {
+        new File(RECORD + ".dat").delete();
+    }
+
+    @AfterEach
+    void cleanup() {
+        new File(RECORD + ".dat").delete();
+    }
+
+    @Test
+    void record_ManyThreads_NoLostUpdates() throws InterruptedException {
+        PlayStatistics stats = new PlayStatistics(RECORD);
+        long startsBefore = stats.getGameStartCount();
+        long millisBefore = stats.getTotalPlayMillis();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    stats.recordGameStart();
+                    stats.recordPlayTime(3);
+                    if (i % 2_500 == 0) {
+                        stats.flush();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(startsBefore + 80_000, stats.getGameStartCount());
+        assertEquals(millisBefore + 240_000, stats.getTotalPlayMillis());
+        assertTrue(stats.flush());
+        assertEquals(startsBefore + 80_000, new PlayStatistics(RECORD).getGameStartCount());
+    }
+
+    @Test
+    void record_DoesNotWriteUntilFlushed() {
+        PlayStatistics stats = new PlayStatistics(RECORD);
+        stats.reset();
+        long stamp = SaveLoadManager.getStore().recordStamp(RECORD);
+
+        stats.recordGameStart();
+        stats.recordPlayTime(60_000);
+        assertEquals(stamp, SaveLoadManager.getStore().recordStamp(RECORD));
+        assertEquals(0, new PlayStatistics(RECORD).getGameStartCount());
+
+        stats.flush();
+        PlayStatistics reread = new PlayStatistics(RECORD);
+        assertEquals(1, reread.getGameStartCount());
+        assertEquals(60_000, reread.getTotalPlayMillis());
+    }
+
+    @Test
+    void flush_TwoWriters_TotalsAreMerged() {
+        PlayStatistics first = new PlayStatistics(RECORD);
+        first.reset();
+        PlayStatistics second = new PlayStatistics(RECORD);
+        second.getGameStartCount();
+
+        first.recordGameStart();
+        second.recordGameStart();
+        second.recordGameStart();
+        first.flush();
+        second.flush();
+
+        assertEquals(3, new PlayStatistics(RECORD).getGameStartCount());
+        assertEquals(3, second.getGameStartCount());
+    }
+}
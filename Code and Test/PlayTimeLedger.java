@@ -0,0 +1,279 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Append-only ledger of play sessions with per-day, per-week and per-month totals.
+ * <p>
+ * Every finished session is appended to the {@link GameStore#PLAY_LEDGER} record as one
+ * fixed-size entry of its start and end time in nanoseconds since the epoch, so the history
+ * keeps full precision no matter how long it gets. With the {@link FileGameStore} the record
+ * is {@code play_ledger.dat} and each session is a plain append. The totals are kept in
+ * memory and updated as each session is added; a session that crosses midnight is split
+ * between the days it touches. Asking for the minutes played today or this week is therefore
+ * a single map lookup. The record is read once, when the ledger is opened.
+ * <p>
+ * Weeks start on Monday. Days are taken in the ledger's time zone, the system default unless
+ * given otherwise.
+ * <p>
+ * Record layout: an 8-byte header ({@code "VPPL"} and a format version) followed by 16-byte
+ * entries {@code [long startEpochNanos][long endEpochNanos]}. A partial entry left by a crash
+ * is dropped when the ledger is opened.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PlayTimeLedger ledger = PlayTimeLedger.getInstance();
+ * ledger.record(sessionStart, Instant.now());
+ * long today = ledger.minutesToday();
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class PlayTimeLedger {
+
+    /** Size in bytes of one session record. */
+    public static final int RECORD_SIZE = 16;
+
+    private static final int MAGIC = 0x5650504C; // "VPPL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static PlayTimeLedger instance;
+
+    private final Supplier<GameStore> storeSource;
+    private final String recordName;
+    private final ZoneId zone;
+    // Whether the record exists with its header, so sessions can be appended right away
+    private boolean headerWritten = false;
+
+    // Played nanoseconds per day, per week (keyed by its Monday) and per month
+    private final Map<LocalDate, Long> days = new HashMap<>();
+    private final Map<LocalDate, Long> weeks = new HashMap<>();
+    private final Map<YearMonth, Long> months = new HashMap<>();
+    private long totalNanos = 0;
+    private int sessionCount = 0;
+
+    /**
+     * Opens a ledger kept in a named record and rolls up the sessions it holds.
+     *
+     * @param storeSource supplies the store holding the record
+     * @param recordName  name of the record, created on the first session
+     * @param zone        time zone that defines days
+     */
+    PlayTimeLedger(Supplier<GameStore> storeSource, String recordName, ZoneId zone) {
+        this.storeSource = storeSource;
+        this.recordName = recordName;
+        this.zone = zone;
+        try {
+            load();
+        } catch (IOException e) {
+            System.err.println("Failed to read play time ledger: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the ledger stored as {@link GameStore#PLAY_LEDGER} in the active store.
+     *
+     * @return the shared PlayTimeLedger instance
+     */
+    public static synchronized PlayTimeLedger getInstance() {
+        if (instance == null) {
+            instance = new PlayTimeLedger(SaveLoadManager::getStore, GameStore.PLAY_LEDGER, ZoneId.systemDefault());
+        }
+        return instance;
+    }
+
+    /**
+     * Appends a finished session.
+     *
+     * @param start when the session started
+     * @param end   when it ended
+     */
+    public void record(Instant start, Instant end) {
+        record(toEpochNanos(start), toEpochNanos(end));
+    }
+
+    /**
+     * Appends a finished session.
+     *
+     * @param startEpochNanos start in nanoseconds since the epoch
+     * @param endEpochNanos   end in nanoseconds since the epoch, ignored if not after the start
+     */
+    public synchronized void record(long startEpochNanos, long endEpochNanos) {
+        if (endEpochNanos <= startEpochNanos) {
+            return;
+        }
+        ByteBuffer entry = ByteBuffer.allocate((headerWritten ? 0 : HEADER_SIZE) + RECORD_SIZE);
+        if (!headerWritten) {
+            entry.putInt(MAGIC).putInt(FORMAT_VERSION);
+        }
+        entry.putLong(startEpochNanos).putLong(endEpochNanos);
+        try {
+            storeSource.get().appendRecord(recordName, entry.array());
+            headerWritten = true;
+        } catch (IOException e) {
+            System.err.println("Failed to record play session: " + e.getMessage());
+        }
+        rollUp(startEpochNanos, endEpochNanos);
+    }
+
+    /**
+     * Deletes the whole history.
+     */
+    public synchronized void clear() {
+        try {
+            storeSource.get().saveRecord(recordName, header());
+            headerWritten = true;
+        } catch (IOException e) {
+            System.err.println("Failed to clear play time ledger: " + e.getMessage());
+        }
+        days.clear();
+        weeks.clear();
+        months.clear();
+        totalNanos = 0;
+        sessionCount = 0;
+    }
+
+    /**
+     * @param day a calendar day
+     * @return nanoseconds played on that day
+     */
+    public synchronized long nanosOn(LocalDate day) {
+        return days.getOrDefault(day, 0L);
+    }
+
+    /**
+     * @param day any day of the week
+     * @return nanoseconds played in the Monday-to-Sunday week containing the day
+     */
+    public synchronized long nanosInWeekOf(LocalDate day) {
+        return weeks.getOrDefault(weekOf(day), 0L);
+    }
+
+    /**
+     * @param month a calendar month
+     * @return nanoseconds played in that month
+     */
+    public synchronized long nanosIn(YearMonth month) {
+        return months.getOrDefault(month, 0L);
+    }
+
+    /**
+     * @return whole minutes played today
+     */
+    public long minutesToday() {
+        return TimeUnit.NANOSECONDS.toMinutes(nanosOn(LocalDate.now(zone)));
+    }
+
+    /**
+     * @return whole minutes played this week
+     */
+    public long minutesThisWeek() {
+        return TimeUnit.NANOSECONDS.toMinutes(nanosInWeekOf(LocalDate.now(zone)));
+    }
+
+    /**
+     * @return nanoseconds played in all recorded sessions
+     */
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return number of recorded sessions
+     */
+    public synchronized int getSessionCount() {
+        return sessionCount;
+    }
+
+    /**
+     * Converts an instant to nanoseconds since the epoch.
+     *
+     * @param instant the instant
+     * @return nanoseconds since the epoch
+     */
+    public static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+    }
+
+    /**
+     * Reads every entry and rolls them up. A partial entry at the end is dropped from the
+     * record, so the next session is appended in line.
+     *
+     * @throws IOException if the record cannot be read or is not a play time ledger
+     */
+    private void load() throws IOException {
+        GameStore store = storeSource.get();
+        byte[] data = store.loadRecord(recordName);
+        if (data == null) {
+            return;
+        }
+        if (data.length < HEADER_SIZE) {
+            store.saveRecord(recordName, header());
+            headerWritten = true;
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        if (buf.getInt() != MAGIC || buf.getInt() > FORMAT_VERSION) {
+            throw new IOException("Not a play time ledger: " + recordName);
+        }
+        headerWritten = true;
+
+        int end = HEADER_SIZE + (data.length - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        buf.limit(end);
+        while (buf.hasRemaining()) {
+            rollUp(buf.getLong(), buf.getLong());
+        }
+        if (end < data.length) {
+            store.saveRecord(recordName, Arrays.copyOf(data, end));
+        }
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(FORMAT_VERSION).array();
+    }
+
+    /**
+     * Adds one session to the totals, splitting it at midnight where needed.
+     */
+    private void rollUp(long startEpochNanos, long endEpochNanos) {
+        if (endEpochNanos <= startEpochNanos) {
+            return;
+        }
+        sessionCount++;
+        totalNanos += endEpochNanos - startEpochNanos;
+
+        long from = startEpochNanos;
+        while (from < endEpochNanos) {
+            Instant instant = Instant.ofEpochSecond(Math.floorDiv(from, NANOS_PER_SECOND),
+                    Math.floorMod(from, NANOS_PER_SECOND));
+            LocalDate day = instant.atZone(zone).toLocalDate();
+            ZonedDateTime nextMidnight = day.plusDays(1).atStartOfDay(zone);
+            long to = Math.min(endEpochNanos, toEpochNanos(nextMidnight.toInstant()));
+
+            long nanos = to - from;
+            days.merge(day, nanos, Long::sum);
+            weeks.merge(weekOf(day), nanos, Long::sum);
+            months.merge(YearMonth.from(day), nanos, Long::sum);
+            from = to;
+        }
+    }
+
+    private static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
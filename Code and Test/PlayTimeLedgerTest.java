@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayTimeLedgerTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+
+    @TempDir
+    Path dir;
+
+    private File file;
+    private GameStore store;
+
+    @BeforeEach
+    void setup() {
+        file = dir.resolve("ledger.dat").toFile();
+        store = new FileGameStore(new SlotStore(dir + "/", SlotStore.DEFAULT_QUOTA), dir.toFile());
+    }
+
+    private PlayTimeLedger open() {
+        return new PlayTimeLedger(() -> store, "ledger", ZONE);
+    }
+
+    private static long nanos(int year, int month, int day, int hour, int minute) {
+        return PlayTimeLedger.toEpochNanos(LocalDateTime.of(year, month, day, hour, minute).toInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    void record_SessionsRolledUpPerDayWeekAndMonth() {
+        PlayTimeLedger ledger = open();
+        // Wednesday 2024-05-15 and Friday 2024-05-17
+        ledger.record(nanos(2024, 5, 15, 10, 0), nanos(2024, 5, 15, 10, 30));
+        ledger.record(nanos(2024, 5, 15, 18, 0), nanos(2024, 5, 15, 18, 15));
+        ledger.record(nanos(2024, 5, 17, 9, 0), nanos(2024, 5, 17, 10, 0));
+
+        assertEquals(TimeUnit.MINUTES.toNanos(45), ledger.nanosOn(LocalDate.of(2024, 5, 15)));
+        assertEquals(TimeUnit.MINUTES.toNanos(105), ledger.nanosInWeekOf(LocalDate.of(2024, 5, 19)));
+        assertEquals(0, ledger.nanosInWeekOf(LocalDate.of(2024, 5, 20)));
+        assertEquals(TimeUnit.MINUTES.toNanos(105), ledger.nanosIn(YearMonth.of(2024, 5)));
+        assertEquals(3, ledger.getSessionCount());
+    }
+
+    @Test
+    void record_SessionAcrossMidnight_SplitBetweenDaysAndMonths() {
+        PlayTimeLedger ledger = open();
+        ledger.record(nanos(2024, 5, 31, 23, 40), nanos(2024, 6, 1, 0, 25));
+
+        assertEquals(TimeUnit.MINUTES.toNanos(20), ledger.nanosOn(LocalDate.of(2024, 5, 31)));
+        assertEquals(TimeUnit.MINUTES.toNanos(25), ledger.nanosOn(LocalDate.of(2024, 6, 1)));
+        assertEquals(TimeUnit.MINUTES.toNanos(20), ledger.nanosIn(YearMonth.of(2024, 5)));
+        assertEquals(TimeUnit.MINUTES.toNanos(45), ledger.nanosInWeekOf(LocalDate.of(2024, 5, 27)));
+        assertEquals(TimeUnit.MINUTES.toNanos(45), ledger.getTotalNanos());
+    }
+
+    @Test
+    void open_ExistingLedger_RebuildsTotalsAndDropsPartialRecord() throws IOException {
+        PlayTimeLedger ledger = open();
+        long start = nanos(2024, 1, 2, 8, 0) + 123;
+        ledger.record(start, start + 1_000_000_007L);
+        ledger.record(nanos(2024, 1, 3, 8, 0), nanos(2024, 1, 3, 9, 0));
+
+        // Simulate a crash in the middle of appending a record
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length());
+            raf.write(new byte[5]);
+        }
+
+        PlayTimeLedger reopened = open();
+        assertEquals(2, reopened.getSessionCount());
+        assertEquals(1_000_000_007L, reopened.nanosOn(LocalDate.of(2024, 1, 2)));
+        assertEquals(8 + 2 * PlayTimeLedger.RECORD_SIZE, file.length());
+    }
+
+    @Test
+    void clear_RemovesHistory() {
+        PlayTimeLedger ledger = open();
+        ledger.record(nanos(2024, 5, 15, 10, 0), nanos(2024, 5, 15, 10, 30));
+        ledger.clear();
+
+        assertEquals(0, ledger.nanosOn(LocalDate.of(2024, 5, 15)));
+        assertEquals(0, open().getSessionCount());
+    }
+
+    @Test
+    void record_KeyValueStore_SessionsKeptInRecord() throws IOException {
+        try (KeyValueGameStore kv = new KeyValueGameStore(dir.resolve("virtualpet.db").toFile())) {
+            PlayTimeLedger ledger = new PlayTimeLedger(() -> kv, GameStore.PLAY_LEDGER, ZONE);
+            ledger.record(nanos(2024, 5, 15, 10, 0), nanos(2024, 5, 15, 10, 30));
+            ledger.record(nanos(2024, 5, 15, 18, 0), nanos(2024, 5, 15, 18, 15));
+
+            assertEquals(8 + 2 * PlayTimeLedger.RECORD_SIZE, kv.loadRecord(GameStore.PLAY_LEDGER).length);
+            PlayTimeLedger reopened = new PlayTimeLedger(() -> kv, GameStore.PLAY_LEDGER, ZONE);
+            assertEquals(TimeUnit.MINUTES.toNanos(45), reopened.nanosOn(LocalDate.of(2024, 5, 15)));
+        }
+        assertFalse(file.exists());
+    }
+}
@@ -0,0 +1,208 @@
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells listeners when play becomes allowed or stops being allowed, at the exact minute the
+ * parental schedule changes.
+ * <p>
+ * Instead of polling, the scheduler asks the compiled {@link PlaySchedule} for the next
+ * boundary and schedules a single task for that instant on one shared daemon thread. When it
+ * runs, listeners are told the new state if it changed, and the following boundary is
+ * scheduled. Nothing runs between boundaries, however many screens and players listen.
+ * <p>
+ * The pending task is rescheduled whenever the settings change. The delay is also capped at
+ * {@link #MAX_SLEEP_MILLIS}: scheduled delays follow the monotonic clock, so after the wall
+ * clock is changed (time zone, daylight saving, manual adjustment) the state is checked again
+ * within that time, and settings written by another copy of the game are picked up as well.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * PlayWindowScheduler.Listener listener = allowed -> showStatus(allowed);
+ * PlayWindowScheduler.getInstance().subscribe(listener);
+ * ...
+ * PlayWindowScheduler.getInstance().unsubscribe(listener);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class PlayWindowScheduler {
+
+    /** Longest time the scheduler sleeps before checking the clock again, in milliseconds. */
+    public static final long MAX_SLEEP_MILLIS = 5 * 60 * 1000;
+
+    /**
+     * Receives changes of the allowed state. Called on the scheduler thread.
+     */
+    public interface Listener {
+        /**
+         * Called once when subscribing and then whenever the allowed state changes.
+         *
+         * @param allowed whether play is allowed now
+         */
+        void onWindowChange(boolean allowed);
+    }
+
+    private static PlayWindowScheduler instance;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "play-window-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final GlobalSettingsStore settings;
+    private final ZoneId zone;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Pending boundary task and the state listeners were last told, guarded by this
+    private ScheduledFuture<?> pending;
+    private Boolean lastAllowed;
+
+    /**
+     * Creates a scheduler for a time zone.
+     *
+     * @param zone time zone the schedule's local times refer to
+     */
+    PlayWindowScheduler(ZoneId zone) {
+        this(GlobalSettingsStore.getInstance(), zone);
+    }
+
+    /**
+     * Creates a scheduler that follows the schedule of the given settings, such as a profile's.
+     *
+     * @param settings settings holding the parental schedule
+     * @param zone     time zone the schedule's local times refer to
+     */
+    PlayWindowScheduler(GlobalSettingsStore settings, ZoneId zone) {
+        this.settings = settings;
+        this.zone = zone;
+        settings.addChangeListener(() -> scheduler.execute(this::check));
+    }
+
+    /**
+     * Returns the scheduler for the system time zone.
+     *
+     * @return the shared PlayWindowScheduler instance
+     */
+    public static synchronized PlayWindowScheduler getInstance() {
+        if (instance == null) {
+            instance = new PlayWindowScheduler(ZoneId.systemDefault());
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the shared scheduler thread, for other timed work of the game.
+     *
+     * @return the shared scheduled executor
+     */
+    public static ScheduledExecutorService executor() {
+        return scheduler;
+    }
+
+    /**
+     * Starts telling a listener about changes. The listener is called with the current state
+     * right away, on the scheduler thread.
+     *
+     * @param listener the listener to add
+     */
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+        scheduler.execute(() -> {
+            listener.onWindowChange(isAllowedNow());
+            synchronized (this) {
+                if (pending == null) {
+                    reschedule();
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops telling a listener about changes. When no listeners are left, nothing stays
+     * scheduled.
+     *
+     * @param listener the listener to remove
+     */
+    public synchronized void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && pending != null) {
+            pending.cancel(false);
+            pending = null;
+            lastAllowed = null;
+        }
+    }
+
+    /**
+     * Checks whether play is allowed at this moment.
+     *
+     * @return true if parental controls are off or the schedule allows play now
+     */
+    public boolean isAllowedNow() {
+        GlobalSettingsStore.Settings current = settings.get();
+        return !current.isParentalControlsEnabled()
+                || current.getSchedule().isAllowed(LocalDateTime.now(zone));
+    }
+
+    /**
+     * Returns the next time the allowed state changes.
+     *
+     * @return the next boundary in local time, or null if play is never restricted or always
+     */
+    public LocalDateTime nextBoundary() {
+        GlobalSettingsStore.Settings current = settings.get();
+        if (!current.isParentalControlsEnabled()) {
+            return null;
+        }
+        return current.getSchedule().nextBoundary(LocalDateTime.now(zone));
+    }
+
+    /**
+     * Evaluates the state, tells listeners if it changed and schedules the next check.
+     * Runs on the scheduler thread.
+     */
+    private void check() {
+        boolean allowed = isAllowedNow();
+        boolean changed;
+        synchronized (this) {
+            if (listeners.isEmpty()) {
+                return;
+            }
+            changed = lastAllowed != null && lastAllowed != allowed;
+            lastAllowed = allowed;
+            reschedule();
+        }
+        if (changed) {
+            for (Listener listener : listeners) {
+                listener.onWindowChange(allowed);
+            }
+        }
+    }
+
+    /**
+     * Replaces the pending task with one at the next boundary. Callers must hold the lock.
+     */
+    private void reschedule() {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        if (lastAllowed == null) {
+            lastAllowed = isAllowedNow();
+        }
+        long delay = MAX_SLEEP_MILLIS;
+        LocalDateTime boundary = nextBoundary();
+        if (boundary != null) {
+            long untilBoundary = Duration.between(LocalDateTime.now(zone).atZone(zone), boundary.atZone(zone)).toMillis();
+            delay = Math.max(0, Math.min(delay, untilBoundary));
+        }
+        pending = scheduler.schedule(this::check, delay, TimeUnit.MILLISECONDS);
+    }
+}
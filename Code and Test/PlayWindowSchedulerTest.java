@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayWindowSchedulerTest {
+
+    private GlobalSettingsStore.Settings saved;
+
+    @BeforeEach
+    void setup() {
+        saved = GlobalSettingsStore.getInstance().get();
+    }
+
+    @AfterEach
+    void restore() throws IOException {
+        GlobalSettingsStore.getInstance().update(s -> saved);
+    }
+
+    private static void setSchedule(boolean enabled, String rules) throws IOException {
+        GlobalSettingsStore.getInstance().update(s -> s.withParentalControls(enabled, s.getPlayTimeLimit(),
+                s.getStartHour(), s.getStartMinute(), s.getEndHour(), s.getEndMinute()).withScheduleRules(rules));
+    }
+
+    @Test
+    void subscribe_SettingsChange_ListenerToldAtOnce() throws InterruptedException, IOException {
+        setSchedule(false, "");
+        PlayWindowScheduler scheduler = new PlayWindowScheduler(ZoneId.systemDefault());
+        BlockingQueue<Boolean> events = new LinkedBlockingQueue<>();
+        PlayWindowScheduler.Listener listener = events::add;
+
+        scheduler.subscribe(listener);
+        assertEquals(Boolean.TRUE, events.poll(2, TimeUnit.SECONDS));
+
+        // Block today entirely: listeners hear about it without waiting for a poll
+        setSchedule(true, LocalDateTime.now().toLocalDate() + " NONE");
+        assertEquals(Boolean.FALSE, events.poll(2, TimeUnit.SECONDS));
+
+        setSchedule(true, LocalDateTime.now().toLocalDate() + " 00:00-23:59");
+        assertEquals(Boolean.TRUE, events.poll(2, TimeUnit.SECONDS));
+
+        scheduler.unsubscribe(listener);
+        setSchedule(true, LocalDateTime.now().toLocalDate() + " NONE");
+        assertNull(events.poll(300, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void nextBoundary_FollowsSchedule() throws IOException {
+        PlayWindowScheduler scheduler = new PlayWindowScheduler(ZoneId.systemDefault());
+        setSchedule(false, "");
+        assertNull(scheduler.nextBoundary());
+        assertTrue(scheduler.isAllowedNow());
+
+        LocalDateTime now = LocalDateTime.now();
+        setSchedule(true, "DAILY 18:00-20:00; " + now.toLocalDate() + " NONE");
+        assertFalse(scheduler.isAllowedNow());
+        LocalDateTime boundary = scheduler.nextBoundary();
+        // Play opens again no later than the next day's weekly window
+        assertNotNull(boundary);
+        assertTrue(boundary.isAfter(now));
+    }
+}
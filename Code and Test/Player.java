@@ -1,6 +1,9 @@
-import java.time.LocalTime;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.io.*;
 
 /**
@@ -9,11 +12,18 @@ import java.io.*;
  * gameplay statistics tracking.
  * 
  * The class uses a singleton pattern to ensure global settings are consistent
- * across all instances, storing configuration in a persistent .dat file.
+ * across all instances, storing configuration as the {@link GameStore#GLOBAL_SETTINGS}
+ * record of the active {@link GameStore} (a persistent .dat file by default). The settings
+ * are cached in memory by {@link GlobalSettingsStore}.
+ * 
+ * A player can also belong to a {@link Profile} from the {@link ProfileRegistry}. Its
+ * settings, statistics and saves are then those of the profile, and players of different
+ * profiles can play at the same time. The static "Global" methods refer to the default profile.
  * 
  * Key features include:
  * - Password-protected parental controls
  * - Configurable gameplay time restrictions
+ * - Daily play time quota with a warning before it runs out
  * - Play time tracking and statistics
  * - Pet revival functionality for parent accounts
  *
@@ -21,20 +31,12 @@ import java.io.*;
  * @author Haoxuan Suo 251103783 hsuo3
  */
 public class Player {
+    // How often revivePet retries when a running game writes the slot at the same time
+    private static final int REVIVE_ATTEMPTS = 3;
+
     private boolean isParent;
+    private final Profile profile;
 
-    
-    private static String globalPassword = "0000"; 
-    private static boolean isPasswordInitialized = false;
-    private static float globalTotalPlayTime = 0.0f; 
-    private static int globalGameStartCount = 0; 
-    private static boolean globalParentalControlsEnabled = false; 
-    private static String globalPlayTimeLimit = "18:00 - 20:00"; 
-    private static int globalStartHour = 18;
-    private static int globalStartMinute = 0;
-    private static int globalEndHour = 20;
-    private static int globalEndMinute = 0;
-    private static final String GLOBAL_SETTINGS_FILE = "global_settings.dat";
 
     
     private float totalPlayTime;
@@ -42,18 +44,22 @@ public class Player {
     private int sessionCount;
 
     // Parental control settings
-    private boolean parentalControlsEnabled;
-    private String playTimeLimit;
-    private int startHour;
-    private int startMinute;
-    private int endHour;
-    private int endMinute;
+    private volatile boolean parentalControlsEnabled;
+    private volatile String playTimeLimit;
+    private volatile int startHour;
+    private volatile int startMinute;
+    private volatile int endHour;
+    private volatile int endMinute;
 
     // Variables for time check functionality
-    private Timer timeCheckTimer;
-    private TimeCheckCallback timeCheckCallback;
-    private boolean isCurrentlyPlaying;
-    private long playStartTime;
+    private PlayWindowScheduler.Listener timeCheckListener;
+    private DailyPlayQuota.Listener quotaListener;
+    private volatile TimeCheckCallback timeCheckCallback;
+    private volatile boolean isCurrentlyPlaying;
+    private Instant playStartTime;
+    // Heartbeats that let a crashed session be recovered at the next start
+    private long heartbeatSession;
+    private ScheduledFuture<?> heartbeatTask;
 
     /**
      * Callback interface for time checking.
@@ -68,39 +74,51 @@ public class Player {
         void onTimeRestrictionViolation(String allowedTimeRange);
         
         /**
-         * Called periodically to check if gameplay is still allowed
+         * Called when time checking starts and whenever gameplay becomes allowed or restricted
          * @param isAllowed whether gameplay is currently allowed
          */
         void onPeriodicCheck(boolean isAllowed);
+
+        /**
+         * Called once per day shortly before the daily play time quota runs out
+         * @param minutesLeft minutes of play left today
+         */
+        default void onQuotaWarning(long minutesLeft) {
+        }
+
+        /**
+         * Called when the daily play time quota is used up, at the moment it runs out
+         * @param quotaMinutes the daily quota in minutes
+         */
+        default void onQuotaExceeded(int quotaMinutes) {
+        }
     }
 
     /**
-     * Creates a player object
+     * Creates a player object of the default profile
      * @param isParent whether it is a parent account
      */
     public Player(boolean isParent) {
+        this(Profile.defaultProfile(), isParent);
+    }
+
+    /**
+     * Creates a player object of a profile
+     * @param profile the profile whose settings, statistics and saves the player uses
+     * @param isParent whether it is a parent account
+     */
+    public Player(Profile profile, boolean isParent) {
+        this.profile = profile;
         this.isParent = isParent;
         this.totalPlayTime = 0.0f;
         this.sessionCount = 0;
         this.isCurrentlyPlaying = false;
 
-        // Load global settings
-        loadGlobalSettings();
-
-        // Load parental control settings from global settings
-        this.parentalControlsEnabled = globalParentalControlsEnabled;
-        this.playTimeLimit = globalPlayTimeLimit;
-        this.startHour = globalStartHour;
-        this.startMinute = globalStartMinute;
-        this.endHour = globalEndHour;
-        this.endMinute = globalEndMinute;
+        // Load parental control settings from the profile's settings
+        applyParentalControls(profile.getSettings().get());
 
         // Calculate average time using global data
-        if (globalGameStartCount > 0) {
-            this.averagePlayTime = globalTotalPlayTime / globalGameStartCount;
-        } else {
-            this.averagePlayTime = 0.0f;
-        }
+        this.averagePlayTime = getAveragePlayTime();
     }
 
     /**
@@ -110,15 +128,20 @@ public class Player {
      */
     public static boolean setGlobalPassword(String password) {
         // If the password has been initialized, do not allow setting again
-        if (isPasswordInitialized) {
+        boolean[] set = {false};
+        try {
+            GlobalSettingsStore.getInstance().update(s -> {
+                if (s.isPasswordInitialized()) {
+                    return s;
+                }
+                set[0] = true;
+                return s.withPassword(password);
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to save global password: " + e.getMessage());
             return false;
         }
-
-        globalPassword = password;
-        isPasswordInitialized = true;
-        saveGlobalSettings();
-
-        return true;
+        return set[0];
     }
 
     /**
@@ -126,7 +149,7 @@ public class Player {
      * @return true if password has been set, false otherwise
      */
     public static boolean isGlobalPasswordInitialized() {
-        return isPasswordInitialized;
+        return settings().isPasswordInitialized();
     }
 
     /**
@@ -135,9 +158,8 @@ public class Player {
      * @return true if password matches, false otherwise
      */
     public static boolean verifyGlobalPassword(String enteredPassword) {
-        // Make sure to load the latest settings (including password)
-        loadGlobalSettings();
-        return globalPassword.equals(enteredPassword);
+        // The cached settings are read again only if another process changed them
+        return settings().getPassword().equals(enteredPassword);
     }
 
     /**
@@ -145,7 +167,7 @@ public class Player {
      * @return total play time in hours
      */
     public static float getGlobalTotalPlayTime() {
-        return globalTotalPlayTime;
+        return PlayStatistics.getInstance().getTotalPlayHours();
     }
 
     /**
@@ -153,15 +175,30 @@ public class Player {
      * @return number of times the game has been started
      */
     public static int getGlobalGameStartCount() {
-        return globalGameStartCount;
+        return (int) PlayStatistics.getInstance().getGameStartCount();
+    }
+
+    /**
+     * Gets the minutes played today, including the running session
+     * @return minutes played today
+     */
+    public static long getGlobalMinutesToday() {
+        return TimeUnit.NANOSECONDS.toMinutes(DailyPlayQuota.getInstance().usedTodayNanos());
+    }
+
+    /**
+     * Gets the minutes played in the current week (Monday to Sunday)
+     * @return minutes played this week
+     */
+    public static long getGlobalMinutesThisWeek() {
+        return PlayTimeLedger.getInstance().minutesThisWeek();
     }
 
     /**
      * Increments global game start count
      */
     public static void incrementGlobalGameStartCount() {
-        globalGameStartCount++;
-        saveGlobalSettings();
+        PlayStatistics.getInstance().recordGameStart();
     }
 
     /**
@@ -174,73 +211,31 @@ public class Player {
             return false;
         }
 
-        globalTotalPlayTime = 0.0f;
-        globalGameStartCount = 0;
-        saveGlobalSettings();
+        PlayStatistics.getInstance().reset();
+        PlayTimeLedger.getInstance().clear();
 
         return true;
     }
 
     /**
-     * Saves global settings to persistent storage
+     * Returns the current global settings, cached in memory by {@link GlobalSettingsStore}
+     * @return the global settings
      */
-    private static void saveGlobalSettings() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(GLOBAL_SETTINGS_FILE))) {
-            // Write whether password is initialized
-            oos.writeBoolean(isPasswordInitialized);
-
-            // Write password
-            oos.writeObject(globalPassword);
-
-            // Write global statistics
-            oos.writeFloat(globalTotalPlayTime);
-            oos.writeInt(globalGameStartCount);
-
-            // Write parental control settings
-            oos.writeBoolean(globalParentalControlsEnabled);
-            oos.writeObject(globalPlayTimeLimit);
-            oos.writeInt(globalStartHour);
-            oos.writeInt(globalStartMinute);
-            oos.writeInt(globalEndHour);
-            oos.writeInt(globalEndMinute);
-
-            // Ensure data is written to disk
-            oos.flush();
-        } catch (IOException e) {
-            System.err.println("Failed to save global settings: " + e.getMessage());
-        }
+    private static GlobalSettingsStore.Settings settings() {
+        return GlobalSettingsStore.getInstance().get();
     }
 
     /**
-     * Loads global settings from persistent storage
+     * Copies the parental control settings into this player
+     * @param settings the global settings
      */
-    private static void loadGlobalSettings() {
-        File file = new File(GLOBAL_SETTINGS_FILE);
-        if (!file.exists()) {
-            return; // File doesn't exist, use default values
-        }
-
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            // Read whether password is initialized
-            isPasswordInitialized = ois.readBoolean();
-
-            // Read password
-            globalPassword = (String) ois.readObject();
-
-            // Read global statistics
-            globalTotalPlayTime = ois.readFloat();
-            globalGameStartCount = ois.readInt();
-
-            // Read parental control settings
-            globalParentalControlsEnabled = ois.readBoolean();
-            globalPlayTimeLimit = (String) ois.readObject();
-            globalStartHour = ois.readInt();
-            globalStartMinute = ois.readInt();
-            globalEndHour = ois.readInt();
-            globalEndMinute = ois.readInt();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Failed to load global settings: " + e.getMessage());
-        }
+    private void applyParentalControls(GlobalSettingsStore.Settings settings) {
+        this.parentalControlsEnabled = settings.isParentalControlsEnabled();
+        this.playTimeLimit = settings.getPlayTimeLimit();
+        this.startHour = settings.getStartHour();
+        this.startMinute = settings.getStartMinute();
+        this.endHour = settings.getEndHour();
+        this.endMinute = settings.getEndMinute();
     }
 
     /**
@@ -248,15 +243,18 @@ public class Player {
      * @param callback interface to notify about time restriction events
      * @return true if allowed to play, false otherwise
      */
-    public boolean startPlaying(TimeCheckCallback callback) {
-        // Ensure using the latest parental control settings (loaded from .dat file)
-        loadGlobalSettings();
-        this.parentalControlsEnabled = globalParentalControlsEnabled;
-        this.playTimeLimit = globalPlayTimeLimit;
-        this.startHour = globalStartHour;
-        this.startMinute = globalStartMinute;
-        this.endHour = globalEndHour;
-        this.endMinute = globalEndMinute;
+    public synchronized boolean startPlaying(TimeCheckCallback callback) {
+        // Ensure using the latest parental control settings
+        applyParentalControls(profile.getSettings().get());
+
+        // Check if today's play time is used up
+        DailyPlayQuota quota = profile.getQuota();
+        if (quota.isExceeded()) {
+            if (callback != null) {
+                callback.onQuotaExceeded(quota.getQuotaMinutes());
+            }
+            return false;
+        }
 
         // Check if allowed to play
         if (!isAllowedToPlay()) {
@@ -268,10 +266,13 @@ public class Player {
 
         this.timeCheckCallback = callback;
         this.isCurrentlyPlaying = true;
-        this.playStartTime = System.currentTimeMillis();
+        this.playStartTime = Instant.now();
+
+        // Increment the profile's game start count
+        profile.getStatistics().recordGameStart();
 
-        // Increment global game start count
-        incrementGlobalGameStartCount();
+        // Keep a trace of the session in case the game does not get to stop it
+        startHeartbeat();
 
         // Start periodic check task
         startTimeCheck();
@@ -280,75 +281,122 @@ public class Player {
     }
 
     /**
-     * Stops gameplay tracking and updates statistics
+     * Stops gameplay tracking and updates statistics. The session is appended to the play time
+     * ledger and added to the batched statistics; the settings are not written.
      */
-    public void stopPlaying() {
+    public synchronized void stopPlaying() {
         if (isCurrentlyPlaying) {
             stopTimeCheck();
 
             // Calculate this session's time and update statistics
-            long endTime = System.currentTimeMillis();
-            float sessionHours = (endTime - playStartTime) / (1000.0f * 60.0f * 60.0f);
+            Instant endTime = Instant.now();
+            long sessionMillis = Duration.between(playStartTime, endTime).toMillis();
+            float sessionHours = sessionMillis / (1000.0f * 60.0f * 60.0f);
 
             // Update personal statistics
             updatePlayTime(sessionHours);
 
-            // Update global statistics
-            updateGlobalPlayTime(sessionHours);
+            // Update global statistics, written in the background together with other changes
+            profile.getStatistics().recordPlayTime(sessionMillis);
+            profile.getLedger().record(playStartTime, endTime);
+            stopHeartbeat(endTime);
 
             // Update average time (using global data)
-            if (globalGameStartCount > 0) {
-                this.averagePlayTime = globalTotalPlayTime / globalGameStartCount;
-            }
+            this.averagePlayTime = getAveragePlayTime();
 
             isCurrentlyPlaying = false;
         }
     }
 
     /**
-     * Updates global total play time
-     * @param duration duration to add to global play time
-     */
-    private static void updateGlobalPlayTime(float duration) {
-        globalTotalPlayTime += duration;
-        saveGlobalSettings();
-    }
-
-    /**
-     * Starts periodic time check
+     * Starts time checking. Instead of polling, the callback is notified right away and then
+     * exactly when the allowed play window opens or closes, and when the daily quota is about
+     * to run out or runs out.
      */
     private void startTimeCheck() {
-        if (timeCheckTimer != null) {
-            timeCheckTimer.cancel();
-        }
+        stopTimeCheck();
 
-        timeCheckTimer = new Timer();
-        timeCheckTimer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                boolean allowed = isAllowedToPlay();
+        timeCheckListener = allowed -> {
+            // Keep the instance view of the settings current
+            this.parentalControlsEnabled = profile.getSettings().get().isParentalControlsEnabled();
+
+            TimeCheckCallback callback = timeCheckCallback;
+            if (callback != null) {
+                callback.onPeriodicCheck(allowed);
 
-                if (timeCheckCallback != null) {
-                    timeCheckCallback.onPeriodicCheck(allowed);
+                if (!allowed) {
+                    callback.onTimeRestrictionViolation(getPlayTimeLimit());
+                }
+            }
+        };
+        profile.getPlayWindows().subscribe(timeCheckListener);
 
-                    if (!allowed) {
-                        timeCheckCallback.onTimeRestrictionViolation(getPlayTimeLimit());
-                    }
+        quotaListener = new DailyPlayQuota.Listener() {
+            @Override
+            public void onQuotaWarning(long minutesLeft) {
+                TimeCheckCallback callback = timeCheckCallback;
+                if (callback != null) {
+                    callback.onQuotaWarning(minutesLeft);
                 }
             }
-        }, 0, 60000); // Check every minute
+
+            @Override
+            public void onQuotaExceeded(int quotaMinutes) {
+                TimeCheckCallback callback = timeCheckCallback;
+                if (callback != null) {
+                    callback.onQuotaExceeded(quotaMinutes);
+                }
+            }
+        };
+        profile.getQuota().sessionStarted(quotaListener);
+    }
+
+    /**
+     * Starts writing heartbeats of the session, so its time can be recovered after a crash
+     * (see {@link Profile#recoverSessions()}).
+     */
+    private void startHeartbeat() {
+        SessionHeartbeatLog log = profile.getHeartbeats();
+        long session = log.begin(playStartTime);
+        heartbeatSession = session;
+        heartbeatTask = PlayWindowScheduler.executor().scheduleAtFixedRate(() -> log.beat(session, Instant.now()),
+                SessionHeartbeatLog.HEARTBEAT_SECONDS, SessionHeartbeatLog.HEARTBEAT_SECONDS, TimeUnit.SECONDS);
     }
 
     /**
-     * Stops time check timer
+     * Stops writing heartbeats and marks the session as ended
+     * @param endTime when the session ended
+     */
+    private void stopHeartbeat(Instant endTime) {
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+            heartbeatTask = null;
+            profile.getHeartbeats().end(heartbeatSession, endTime);
+        }
+    }
+
+    /**
+     * Stops time checking
      */
     private void stopTimeCheck() {
-        if (timeCheckTimer != null) {
-            timeCheckTimer.cancel();
-            timeCheckTimer = null;
+        if (timeCheckListener != null) {
+            profile.getPlayWindows().unsubscribe(timeCheckListener);
+            timeCheckListener = null;
+        }
+        if (quotaListener != null) {
+            profile.getQuota().sessionEnded(quotaListener);
+            quotaListener = null;
         }
     }
 
+    /**
+     * Gets the profile this player belongs to
+     * @return the player's profile
+     */
+    public Profile getProfile() {
+        return profile;
+    }
+
     /**
      * Checks if this player is a parent
      * @return true if parent, false otherwise
@@ -378,9 +426,11 @@ public class Player {
      * @return average play time in hours per session
      */
     public float getAveragePlayTime() {
-        // Calculate average time using global data
-        if (globalGameStartCount > 0) {
-            return globalTotalPlayTime / globalGameStartCount;
+        // Calculate average time using the profile's data
+        PlayStatistics stats = profile.getStatistics();
+        long starts = stats.getGameStartCount();
+        if (starts > 0) {
+            return stats.getTotalPlayHours() / starts;
         }
         return 0.0f;
     }
@@ -389,7 +439,7 @@ public class Player {
      * Updates play time statistics
      * @param duration duration to add to play time
      */
-    public void updatePlayTime(float duration) {
+    public synchronized void updatePlayTime(float duration) {
         totalPlayTime += duration;
         sessionCount++;
     }
@@ -405,31 +455,16 @@ public class Player {
             return false;
         }
 
-        // Update instance variables
-        this.parentalControlsEnabled = enabled;
-
-        // Update global variables
-        globalParentalControlsEnabled = enabled;
-
-        if (playTimeLimit != null && !playTimeLimit.isEmpty()) {
-            // Update instance variables
-            this.playTimeLimit = playTimeLimit;
-
-            // Update global variables
-            globalPlayTimeLimit = playTimeLimit;
-
+        boolean hasTimeLimit = playTimeLimit != null && !playTimeLimit.isEmpty();
+        int newStartHour = startHour, newStartMinute = startMinute, newEndHour = endHour, newEndMinute = endMinute;
+        if (hasTimeLimit) {
             String[] parts = playTimeLimit.split(" - ");
             if (parts.length == 2) {
                 String[] startTime = parts[0].split(":");
                 if (startTime.length == 2) {
                     try {
-                        // Update instance variables
-                        this.startHour = Integer.parseInt(startTime[0]);
-                        this.startMinute = Integer.parseInt(startTime[1]);
-
-                        // Update global variables
-                        globalStartHour = this.startHour;
-                        globalStartMinute = this.startMinute;
+                        newStartHour = Integer.parseInt(startTime[0]);
+                        newStartMinute = Integer.parseInt(startTime[1]);
                     } catch (NumberFormatException e) {
                         System.err.println("Error parsing start time: " + e.getMessage());
                         return false;
@@ -441,13 +476,8 @@ public class Player {
                 String[] endTime = parts[1].split(":");
                 if (endTime.length == 2) {
                     try {
-                        // Update instance variables
-                        this.endHour = Integer.parseInt(endTime[0]);
-                        this.endMinute = Integer.parseInt(endTime[1]);
-
-                        // Update global variables
-                        globalEndHour = this.endHour;
-                        globalEndMinute = this.endMinute;
+                        newEndHour = Integer.parseInt(endTime[0]);
+                        newEndMinute = Integer.parseInt(endTime[1]);
                     } catch (NumberFormatException e) {
                         System.err.println("Error parsing end time: " + e.getMessage());
                         return false;
@@ -458,14 +488,49 @@ public class Player {
             } else {
                 return false;
             }
+
+            // Times outside a day could not be compiled into a play schedule
+            if (!isValidTime(newStartHour, newStartMinute) || !isValidTime(newEndHour, newEndMinute)) {
+                System.err.println("Invalid play time range: " + playTimeLimit);
+                return false;
+            }
         }
 
-        // Save updated global settings
-        saveGlobalSettings();
+        // Save updated profile settings first, so nothing changes if they cannot be written
+        int fromHour = newStartHour, fromMinute = newStartMinute, toHour = newEndHour, toMinute = newEndMinute;
+        try {
+            profile.getSettings().update(s -> hasTimeLimit
+                    ? s.withParentalControls(enabled, playTimeLimit, fromHour, fromMinute, toHour, toMinute)
+                    : s.withParentalControls(enabled, s.getPlayTimeLimit(),
+                            s.getStartHour(), s.getStartMinute(), s.getEndHour(), s.getEndMinute()));
+        } catch (IOException e) {
+            System.err.println("Failed to save parental controls: " + e.getMessage());
+            return false;
+        }
+
+        // Update instance variables
+        if (hasTimeLimit) {
+            this.playTimeLimit = playTimeLimit;
+            this.startHour = newStartHour;
+            this.startMinute = newStartMinute;
+            this.endHour = newEndHour;
+            this.endMinute = newEndMinute;
+        }
+        this.parentalControlsEnabled = enabled;
 
         return true;
     }
 
+    /**
+     * Checks that a time of day is one a play window can start or end at.
+     * @param hour hour of the day
+     * @param minute minute of the hour
+     * @return true if the hour is 0-23 and the minute 0-59
+     */
+    private static boolean isValidTime(int hour, int minute) {
+        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59;
+    }
+
     /**
      * Resets play time statistics
      * @return true if reset successful, false otherwise
@@ -479,12 +544,9 @@ public class Player {
         this.totalPlayTime = 0.0f;
         this.sessionCount = 0;
 
-        // Reset global statistics
-        globalTotalPlayTime = 0.0f;
-        globalGameStartCount = 0;
-
-        // Save updated global settings to .dat file
-        saveGlobalSettings();
+        // Reset the profile's statistics
+        profile.getStatistics().reset();
+        profile.getLedger().clear();
 
         // Reset average time
         this.averagePlayTime = 0.0f;
@@ -493,7 +555,9 @@ public class Player {
     }
 
     /**
-     * Revives a pet in a save file
+     * Revives a pet in a save file.
+     * The write only succeeds if the slot was not changed since it was read, so a game
+     * running on the same slot cannot silently undo the revive (or the other way round).
      * @param saveSlotId the ID of the save slot containing the pet
      * @return true if revival successful, false otherwise
      */
@@ -506,26 +570,29 @@ public class Player {
 
             int slotNumber = Integer.parseInt(saveSlotId);
 
+            // A running game may write the slot at any time, so only save over the version we read
+            GameStore store = profile.getStore();
+            for (int attempt = 0; attempt < REVIVE_ATTEMPTS; attempt++) {
+                GameState gameState = store.loadGame(slotNumber);
 
-            GameState gameState = SaveLoadManager.loadGame(slotNumber);
-
-
-            if (gameState == null) {
-                System.out.println("Save file does not exist in slot " + saveSlotId);
-                return false;
-            }
 
+                if (gameState == null) {
+                    System.out.println("Save file does not exist in slot " + saveSlotId);
+                    return false;
+                }
 
-            gameState.setHealth(100);
-            gameState.setSleep(100);
-            gameState.setFullness(100);
-            gameState.setHappiness(100);
+                long loadedVersion = gameState.getVersion();
+                BulkRepair.REVIVE.accept(gameState);
 
 
-            SaveLoadManager.saveGame(gameState, slotNumber);
+                if (SaveLoadManager.saveIfVersion(store, gameState, slotNumber, loadedVersion)) {
+                    System.out.println("Successfully revived pet in save file " + saveSlotId);
+                    return true;
+                }
+            }
 
-            System.out.println("Successfully revived pet in save file " + saveSlotId);
-            return true;
+            System.out.println("Save file " + saveSlotId + " kept changing, revive not applied");
+            return false;
         } catch (NumberFormatException e) {
             System.out.println("Invalid save slot ID: " + saveSlotId);
             return false;
@@ -538,34 +605,108 @@ public class Player {
         }
     }
 
+    /**
+     * Revives every saved pet that matches a condition, for example all dead pets of one type.
+     * Saves are processed in parallel and each one is written with the same version check as
+     * {@link #revivePet(String)}.
+     * @param selector which saves to revive, e.g. {@link BulkRepair#DEAD}
+     * @return per-save results and timing, or null if not a parent account
+     */
+    public BulkRepair.Result reviveAll(Predicate<GameState> selector) {
+        if (!isParent) {
+            return null;
+        }
+        return BulkRepair.run(profile.getStore(), selector, BulkRepair.REVIVE);
+    }
+
     /**
      * Checks if gameplay is allowed at the current time
      * @return true if allowed to play, false otherwise
      */
     public boolean isAllowedToPlay() {
-        // Ensure using the latest global settings
-        this.parentalControlsEnabled = globalParentalControlsEnabled;
+        // Ensure using the latest profile settings
+        GlobalSettingsStore.Settings settings = profile.getSettings().get();
+        this.parentalControlsEnabled = settings.isParentalControlsEnabled();
 
         if (!parentalControlsEnabled) {
             return true;
         }
 
-        LocalTime now = LocalTime.now();
-        int currentHour = now.getHour();
-        int currentMinute = now.getMinute();
+        // The schedule is compiled once per settings change, so this is a bit lookup
+        return settings.getSchedule().isAllowed(LocalDateTime.now())
+                && !profile.getQuota().isExceeded();
+    }
+
+    /**
+     * Sets how many minutes may be played per day. The quota is enforced while parental
+     * controls are enabled.
+     * @param minutes minutes per day, or 0 for no limit
+     * @return true if the quota was valid and saved, false otherwise
+     */
+    public boolean setDailyQuota(int minutes) {
+        if (!isParent || minutes < 0 || minutes > DailyPlayQuota.MAX_QUOTA_MINUTES) {
+            return false;
+        }
+        try {
+            profile.getSettings().update(s -> s.withDailyQuotaMinutes(minutes));
+        } catch (IOException e) {
+            System.err.println("Failed to save daily quota: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
 
-        int currentTimeMinutes = currentHour * 60 + currentMinute;
-        int startTimeMinutes = startHour * 60 + startMinute;
-        int endTimeMinutes = endHour * 60 + endMinute;
+    /**
+     * Gets the daily play time quota
+     * @return minutes per day, or 0 if play time per day is not limited
+     */
+    public static int getGlobalDailyQuota() {
+        return settings().getDailyQuotaMinutes();
+    }
 
-        
-        if (startTimeMinutes <= endTimeMinutes) {
-          
-            return currentTimeMinutes >= startTimeMinutes && currentTimeMinutes <= endTimeMinutes;
-        } else {
-          
-            return currentTimeMinutes >= startTimeMinutes || currentTimeMinutes <= endTimeMinutes;
+    /**
+     * Checks if today's play time quota is used up
+     * @return true if a quota is enforced and no play time is left today
+     */
+    public static boolean isDailyQuotaUsedUp() {
+        return DailyPlayQuota.getInstance().isExceeded();
+    }
+
+    /**
+     * Sets detailed play schedule rules, such as several windows per weekday and holiday
+     * overrides, in the format of {@link PlaySchedule#parse(String)}. While rules are set they
+     * replace the single daily time range.
+     * @param rules the schedule rules, or an empty string to use the daily time range again
+     * @return true if the rules were valid and saved, false otherwise
+     */
+    public boolean setPlaySchedule(String rules) {
+        if (!isParent) {
+            return false;
+        }
+        String trimmed = rules == null ? "" : rules.trim();
+        if (!trimmed.isEmpty()) {
+            try {
+                PlaySchedule.parse(trimmed);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid play schedule: " + e.getMessage());
+                return false;
+            }
         }
+        try {
+            profile.getSettings().update(s -> s.withScheduleRules(trimmed));
+        } catch (IOException e) {
+            System.err.println("Failed to save play schedule: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the detailed play schedule rules
+     * @return the rules, or an empty string if only the daily time range is used
+     */
+    public static String getPlayScheduleRules() {
+        return settings().getScheduleRules();
     }
 
     /**
@@ -629,7 +770,7 @@ public class Player {
      * @return true if enabled, false otherwise
      */
     public static boolean isGlobalParentalControlsEnabled() {
-        return globalParentalControlsEnabled;
+        return settings().isParentalControlsEnabled();
     }
 
     /**
@@ -637,7 +778,7 @@ public class Player {
      * @return time range string in format "HH:MM - HH:MM"
      */
     public static String getGlobalPlayTimeLimit() {
-        return globalPlayTimeLimit;
+        return settings().getPlayTimeLimit();
     }
 
     /**
@@ -646,7 +787,7 @@ public class Player {
      * @return true if access granted, false otherwise
      */
     public boolean accessParentalControlWithPassword(String enteredPassword) {
-        boolean verified = verifyGlobalPassword(enteredPassword);
+        boolean verified = profile.getSettings().get().getPassword().equals(enteredPassword);
         if (verified) {
             // Temporarily set user as parent to access parental control features
             this.isParent = true;
@@ -667,7 +808,8 @@ public class Player {
      */
     public String toString() {
         return "Player{" +
-                "isParent=" + isParent +
+                "profile=" + profile.getId() +
+                ", isParent=" + isParent +
                 ", totalPlayTime=" + totalPlayTime +
                 ", averagePlayTime=" + averagePlayTime +
                 ", parentalControlsEnabled=" + parentalControlsEnabled +
@@ -146,6 +146,11 @@ public class PlayerTest {
         LocalTime testTime = LocalTime.of(14, 0);
         boolean exactTimeAllowed = isTimeAllowed(testTime, 14, 0, 14, 0);
         System.out.println("5.3 Same start and end time: " + ((result3 && exactTimeAllowed) ? "PASS" : "NOT PASS"));
+
+        boolean result4 = parentPlayer.setParentalControls(true, "7:5 - 25:00");
+        boolean result5 = parentPlayer.setParentalControls(true, "07:60 - 20:00");
+        System.out.println("5.4 Out of range time rejected: "
+                + ((!result4 && !result5 && "14:00 - 14:00".equals(parentPlayer.getPlayTimeLimit())) ? "PASS" : "NOT PASS"));
     }
 
     private static class TestTimeCallback implements Player.TimeCheckCallback {
@@ -0,0 +1,211 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * One player profile, such as one child of a household, with its own parental settings,
+ * play statistics, play time ledger and save slots.
+ * <p>
+ * Everything a {@link Player} changes lives in the profile it was created with, so several
+ * profiles can run sessions at the same time in one process without touching each other's
+ * state. A profile's files are kept in its own directory:
+ * <pre>
+ *   profiles/&lt;id&gt;/virtualpet.db           save slots, settings, statistics and the play
+ *                                         time ledger ({@link KeyValueGameStore})
+ *   profiles/&lt;id&gt;/session_heartbeats.dat  running sessions ({@link SessionHeartbeatLog})
+ * </pre>
+ * The {@linkplain #defaultProfile() default profile} is the household profile the game always
+ * had: it uses the shared instances and the active store of {@link SaveLoadManager}.
+ * <p>
+ * Profiles are obtained from the {@link ProfileRegistry}:
+ * <pre>{@code
+ * Profile profile = ProfileRegistry.getInstance().create("alice");
+ * Player player = new Player(profile, false);
+ * player.startPlaying(callback);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public final class Profile implements Closeable {
+
+    /** Id of the default profile. */
+    public static final String DEFAULT_ID = "default";
+
+    private static Profile defaultProfile;
+
+    private final String id;
+    private final File dir;
+    private final GameStore store;
+    private final GlobalSettingsStore settings;
+    private final PlayStatistics statistics;
+    private final PlayTimeLedger ledger;
+    private final SessionHeartbeatLog heartbeats;
+    private final DailyPlayQuota quota;
+    private final PlayWindowScheduler playWindows;
+
+    private Profile(String id, File dir, GameStore store, GlobalSettingsStore settings,
+                    PlayStatistics statistics, PlayTimeLedger ledger, SessionHeartbeatLog heartbeats,
+                    DailyPlayQuota quota, PlayWindowScheduler playWindows) {
+        this.id = id;
+        this.dir = dir;
+        this.store = store;
+        this.settings = settings;
+        this.statistics = statistics;
+        this.ledger = ledger;
+        this.heartbeats = heartbeats;
+        this.quota = quota;
+        this.playWindows = playWindows;
+    }
+
+    /**
+     * Returns the household profile that uses the shared instances.
+     *
+     * @return the default profile
+     */
+    public static synchronized Profile defaultProfile() {
+        if (defaultProfile == null) {
+            defaultProfile = new Profile(DEFAULT_ID, null, null, GlobalSettingsStore.getInstance(),
+                    PlayStatistics.getInstance(), PlayTimeLedger.getInstance(), SessionHeartbeatLog.getInstance(),
+                    DailyPlayQuota.getInstance(), PlayWindowScheduler.getInstance());
+        }
+        return defaultProfile;
+    }
+
+    /**
+     * Opens the profile kept in a directory, creating its files if needed, and recovers the
+     * sessions that were cut short the last time it was used.
+     *
+     * @param id   the profile id
+     * @param dir  the profile's directory
+     * @param zone time zone that defines the profile's days and play windows
+     * @return the opened profile
+     * @throws IOException if the profile's store cannot be opened
+     */
+    static Profile open(String id, File dir, ZoneId zone) throws IOException {
+        GameStore store = new KeyValueGameStore(new File(dir, "virtualpet.db"));
+        GlobalSettingsStore settings = new GlobalSettingsStore(() -> store, GameStore.GLOBAL_SETTINGS);
+        PlayTimeLedger ledger = new PlayTimeLedger(() -> store, GameStore.PLAY_LEDGER, zone);
+        Profile profile = new Profile(id, dir, store,
+                settings,
+                new PlayStatistics(() -> store, GameStore.PLAY_STATS, null),
+                ledger,
+                new SessionHeartbeatLog(new File(dir, "session_heartbeats.dat")),
+                new DailyPlayQuota(settings, ledger, zone, Clock.system(zone)),
+                new PlayWindowScheduler(settings, zone));
+        profile.recoverSessions();
+        return profile;
+    }
+
+    /**
+     * Adds the sessions that were cut short by a crash to the ledger and the statistics,
+     * each ending at its last heartbeat. Called when the game starts.
+     *
+     * @return number of sessions recovered
+     */
+    public int recoverSessions() {
+        int count = 0;
+        for (SessionHeartbeatLog.Session session : heartbeats.recover(Instant.now())) {
+            ledger.record(session.getStart(), session.getLastBeat());
+            statistics.recordPlayTime(session.getDuration().toMillis());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the profile id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return true if this is the household profile that uses the shared instances
+     */
+    public boolean isDefault() {
+        return dir == null;
+    }
+
+    /**
+     * @return the profile's directory, or null for the default profile
+     */
+    public File getDirectory() {
+        return dir;
+    }
+
+    /**
+     * Returns the store holding the profile's save slots and records. For the default profile
+     * this is the active store of {@link SaveLoadManager}.
+     *
+     * @return the profile's store
+     */
+    public GameStore getStore() {
+        return store == null ? SaveLoadManager.getStore() : store;
+    }
+
+    /**
+     * @return the profile's password and parental control settings
+     */
+    public GlobalSettingsStore getSettings() {
+        return settings;
+    }
+
+    /**
+     * @return the profile's play statistics
+     */
+    public PlayStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return the profile's finished play sessions
+     */
+    public PlayTimeLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * @return the log of the profile's running sessions
+     */
+    public SessionHeartbeatLog getHeartbeats() {
+        return heartbeats;
+    }
+
+    /**
+     * @return the tracker enforcing the profile's daily play time quota
+     */
+    public DailyPlayQuota getQuota() {
+        return quota;
+    }
+
+    /**
+     * @return the scheduler enforcing the profile's allowed play windows
+     */
+    public PlayWindowScheduler getPlayWindows() {
+        return playWindows;
+    }
+
+    /**
+     * Writes pending statistics and closes the profile's own store. The default profile's
+     * store stays open.
+     *
+     * @throws IOException if the store cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        statistics.flush();
+        if (store instanceof Closeable) {
+            ((Closeable) store).close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Profile{" + id + '}';
+    }
+}
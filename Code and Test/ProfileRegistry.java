@@ -0,0 +1,196 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps track of the player profiles on disk and opens them when they are first used.
+ * <p>
+ * The registry holds an index of the profile ids found under its root directory, built from a
+ * single directory listing, and a map of the profiles opened so far. A profile's files are only
+ * read when {@link #get(String)} asks for it, so a kiosk or server with many profiles starts
+ * quickly and keeps only active profiles in memory. Both the index and the map are concurrent;
+ * opening a profile happens once even when several threads ask for it at the same time.
+ * <p>
+ * Profile ids consist of letters, digits, '-' and '_' and are at most 32 characters long.
+ * The id {@link Profile#DEFAULT_ID} always refers to the {@linkplain Profile#defaultProfile()
+ * default profile}.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * ProfileRegistry registry = ProfileRegistry.getInstance();
+ * for (String id : registry.listProfiles()) { ... }
+ * Profile profile = registry.get("alice");
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class ProfileRegistry {
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    private static ProfileRegistry instance;
+
+    private final File root;
+    private final ZoneId zone;
+    // Ids of all profiles on disk
+    private final Set<String> index = ConcurrentHashMap.newKeySet();
+    // Profiles opened so far
+    private final ConcurrentMap<String, Profile> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry over a directory holding one subdirectory per profile.
+     *
+     * @param root the profiles directory, created when the first profile is
+     * @param zone time zone that defines the profiles' days and play windows
+     */
+    ProfileRegistry(File root, ZoneId zone) {
+        this.root = root;
+        this.zone = zone;
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs != null) {
+            for (File dir : dirs) {
+                if (isValidId(dir.getName())) {
+                    index.add(dir.getName());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the registry for the {@code profiles} directory.
+     *
+     * @return the shared ProfileRegistry instance
+     */
+    public static synchronized ProfileRegistry getInstance() {
+        if (instance == null) {
+            instance = new ProfileRegistry(new File("profiles"), ZoneId.systemDefault());
+        }
+        return instance;
+    }
+
+    /**
+     * Checks whether a string can be used as a profile id.
+     *
+     * @param id the candidate id
+     * @return true if the id is valid
+     */
+    public static boolean isValidId(String id) {
+        return id != null && VALID_ID.matcher(id).matches();
+    }
+
+    /**
+     * Lists the ids of all profiles, the default profile first.
+     *
+     * @return profile ids, the others sorted by name
+     */
+    public List<String> listProfiles() {
+        List<String> ids = new ArrayList<>(index);
+        ids.remove(Profile.DEFAULT_ID);
+        Collections.sort(ids);
+        ids.add(0, Profile.DEFAULT_ID);
+        return ids;
+    }
+
+    /**
+     * Checks whether a profile exists.
+     *
+     * @param id the profile id
+     * @return true if the profile exists
+     */
+    public boolean exists(String id) {
+        return Profile.DEFAULT_ID.equals(id) || index.contains(id);
+    }
+
+    /**
+     * Returns a profile, opening it on first use.
+     *
+     * @param id the profile id
+     * @return the profile, or null if no profile has this id
+     * @throws IOException if the profile's files cannot be opened
+     */
+    public Profile get(String id) throws IOException {
+        if (Profile.DEFAULT_ID.equals(id)) {
+            return Profile.defaultProfile();
+        }
+        if (!index.contains(id)) {
+            return null;
+        }
+        Profile profile = loaded.get(id);
+        if (profile != null) {
+            return profile;
+        }
+        try {
+            return loaded.computeIfAbsent(id, key -> {
+                try {
+                    return Profile.open(key, new File(root, key), zone);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Creates a profile, or returns it if it already exists.
+     *
+     * @param id the profile id
+     * @return the profile
+     * @throws IllegalArgumentException if the id is not valid
+     * @throws IOException              if the profile's files cannot be created
+     */
+    public Profile create(String id) throws IOException {
+        if (!isValidId(id)) {
+            throw new IllegalArgumentException("Invalid profile id: " + id);
+        }
+        if (!Profile.DEFAULT_ID.equals(id)) {
+            File dir = new File(root, id);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Cannot create profile directory " + dir);
+            }
+            index.add(id);
+        }
+        return get(id);
+    }
+
+    /**
+     * Closes a profile that is no longer used. Its files stay on disk, and the next
+     * {@link #get(String)} opens it again.
+     *
+     * @param id the profile id
+     * @throws IOException if the profile's store cannot be closed
+     */
+    public void unload(String id) throws IOException {
+        Profile profile = loaded.remove(id);
+        if (profile != null) {
+            profile.close();
+        }
+    }
+
+    /**
+     * @return number of profiles currently open, not counting the default profile
+     */
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * Writes the pending statistics of every open profile, for example before exiting.
+     */
+    public void flushAll() {
+        for (Profile profile : loaded.values()) {
+            profile.getStatistics().flush();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfileRegistryTest {
+
+    @TempDir
+    Path dir;
+
+    private ProfileRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        registry = new ProfileRegistry(dir.toFile(), ZoneId.systemDefault());
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        for (String id : registry.listProfiles()) {
+            registry.unload(id);
+        }
+    }
+
+    @Test
+    void get_ProfilesOpenedOnFirstUse() throws IOException {
+        registry.create("bob");
+        registry.create("alice");
+        assertThrows(IllegalArgumentException.class, () -> registry.create("../evil"));
+        registry.unload("alice");
+        registry.unload("bob");
+
+        ProfileRegistry reopened = new ProfileRegistry(dir.toFile(), ZoneId.systemDefault());
+        assertEquals(List.of(Profile.DEFAULT_ID, "alice", "bob"), reopened.listProfiles());
+        assertEquals(0, reopened.loadedCount());
+
+        Profile alice = reopened.get("alice");
+        assertEquals("alice", alice.getId());
+        assertSame(alice, reopened.get("alice"));
+        assertEquals(1, reopened.loadedCount());
+        assertNull(reopened.get("carol"));
+        assertSame(Profile.defaultProfile(), reopened.get(Profile.DEFAULT_ID));
+        reopened.unload("alice");
+    }
+
+    @Test
+    void startPlaying_ConcurrentProfiles_KeepOwnSettingsAndStatistics() throws Exception {
+        Profile alice = registry.create("alice");
+        Profile bob = registry.create("bob");
+        alice.getSettings().update(s -> s.withPassword("1111"));
+        bob.getSettings().update(s -> s.withPassword("2222"));
+        long defaultStarts = Profile.defaultProfile().getStatistics().getGameStartCount();
+
+        Player aliceParent = new Player(alice, true);
+        assertTrue(aliceParent.setDailyQuota(45));
+        assertTrue(new Player(alice, false).accessParentalControlWithPassword("1111"));
+        assertFalse(new Player(bob, false).accessParentalControlWithPassword("1111"));
+        assertEquals(0, bob.getSettings().get().getDailyQuotaMinutes());
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> sessions = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Profile profile = i % 4 == 0 ? bob : alice;
+            sessions.add(pool.submit(() -> {
+                Player player = new Player(profile, false);
+                assertTrue(player.startPlaying(null));
+                player.stopPlaying();
+            }));
+        }
+        for (Future<?> session : sessions) {
+            session.get();
+        }
+        pool.shutdown();
+
+        assertEquals(6, alice.getStatistics().getGameStartCount());
+        assertEquals(2, bob.getStatistics().getGameStartCount());
+        assertEquals(6, alice.getLedger().getSessionCount());
+        assertEquals(defaultStarts, Profile.defaultProfile().getStatistics().getGameStartCount());
+    }
+
+    @Test
+    void revivePet_UsesProfileSaves() throws IOException {
+        Profile alice = registry.create("alice");
+        Profile bob = registry.create("bob");
+        VirtualPet pet = new VirtualPet("rex", PetType.DOG);
+        pet.setHealth(0);
+        GameState state = new GameState();
+        state.updateGameState(pet, new Inventory());
+        assertTrue(SaveLoadManager.saveIfVersion(alice.getStore(), state, 1, 0));
+
+        assertTrue(new Player(alice, true).revivePet("1"));
+        assertFalse(new Player(bob, true).revivePet("1"));
+        assertEquals(100, alice.getStore().loadGame(1).getHealth());
+        assertFalse(bob.getStore().hasGame(1));
+    }
+}
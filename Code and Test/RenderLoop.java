@@ -0,0 +1,291 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Game loop that updates a scene at a fixed rate and draws it as often as a frame rate cap
+ * allows, on a thread of its own.
+ * <p>
+ * Updates always advance the scene by the same {@linkplain #getStepSeconds() step}, however
+ * irregular the frames are, so animations run at the same speed on a slow and a fast machine.
+ * Each frame runs as many updates as the time since the last frame covers and then draws
+ * once, passing how far the scene is between the last update and the next so drawing can
+ * interpolate. After a long stall, such as a suspended laptop, at most
+ * {@link #MAX_UPDATES_PER_FRAME} updates are run and the rest of the time is dropped instead
+ * of being caught up.
+ * <p>
+ * The loop keeps {@linkplain Stats statistics} of the recent frame times for judging whether
+ * the scene animates smoothly.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * RenderLoop loop = new RenderLoop(60, 30, scene::update, scene::render);
+ * loop.start("pet-render-loop");
+ * ...
+ * System.out.println(loop.getStats());
+ * loop.stop();
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class RenderLoop {
+
+    /** Most updates run in one frame; time beyond that is dropped. */
+    public static final int MAX_UPDATES_PER_FRAME = 5;
+    /** Number of recent frames the statistics cover. */
+    public static final int STATS_FRAMES = 120;
+
+    private final long stepNanos;
+    private final DoubleConsumer update;
+    private final DoubleConsumer render;
+    private final LongSupplier clock;
+    private volatile long frameNanos;
+
+    // Only touched by the loop thread, or by tests driving frames directly
+    private long lastFrame = -1;
+    private long accumulated;
+
+    // Ring of recent frame times, guarded by this
+    private final long[] frameTimes = new long[STATS_FRAMES];
+    private int frameCount;
+    private long updateCount;
+    private long droppedNanos;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * Creates a loop timed by {@link System#nanoTime()}.
+     *
+     * @param updatesPerSecond how many times a second the scene is updated
+     * @param fpsCap           most frames drawn a second, or 0 for no cap
+     * @param update           updates the scene; given the step in seconds
+     * @param render           draws the scene; given how far it is from the last update to
+     *                         the next, from 0 to 1
+     */
+    public RenderLoop(int updatesPerSecond, int fpsCap, DoubleConsumer update, DoubleConsumer render) {
+        this(updatesPerSecond, fpsCap, update, render, System::nanoTime);
+    }
+
+    /**
+     * Creates a loop with its own clock, for tests.
+     *
+     * @param updatesPerSecond how many times a second the scene is updated
+     * @param fpsCap           most frames drawn a second, or 0 for no cap
+     * @param update           updates the scene; given the step in seconds
+     * @param render           draws the scene; given the interpolation from 0 to 1
+     * @param clock            the time in nanoseconds
+     */
+    RenderLoop(int updatesPerSecond, int fpsCap, DoubleConsumer update, DoubleConsumer render, LongSupplier clock) {
+        if (updatesPerSecond <= 0) {
+            throw new IllegalArgumentException("updatesPerSecond must be positive: " + updatesPerSecond);
+        }
+        this.stepNanos = TimeUnit.SECONDS.toNanos(1) / updatesPerSecond;
+        this.update = update;
+        this.render = render;
+        this.clock = clock;
+        setFpsCap(fpsCap);
+    }
+
+    /**
+     * Changes the frame rate cap, also while the loop runs.
+     *
+     * @param fpsCap most frames drawn a second, or 0 for no cap
+     */
+    public void setFpsCap(int fpsCap) {
+        if (fpsCap < 0) {
+            throw new IllegalArgumentException("fpsCap must not be negative: " + fpsCap);
+        }
+        frameNanos = fpsCap == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / fpsCap;
+    }
+
+    /**
+     * @return the time each update advances the scene by, in seconds
+     */
+    public double getStepSeconds() {
+        return stepNanos / 1e9;
+    }
+
+    /**
+     * Starts running frames on a new daemon thread. Does nothing if the loop already runs.
+     *
+     * @param threadName name of the loop's thread
+     */
+    public synchronized void start(String threadName) {
+        if (running) {
+            return;
+        }
+        running = true;
+        // The time the loop was stopped is not a stall to catch up on
+        lastFrame = -1;
+        accumulated = 0;
+        thread = new Thread(this::run, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and waits for the frame being drawn to finish, unless called from the
+     * loop's own thread.
+     */
+    public void stop() {
+        Thread loopThread;
+        synchronized (this) {
+            running = false;
+            loopThread = thread;
+            thread = null;
+        }
+        if (loopThread != null && loopThread != Thread.currentThread()) {
+            LockSupport.unpark(loopThread);
+            try {
+                loopThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return true while the loop's thread runs frames
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        while (running) {
+            long wait = runFrame();
+            if (wait > 0 && running) {
+                LockSupport.parkNanos(wait);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Runs one frame: the updates that are due, then one render.
+     *
+     * @return nanoseconds until the next frame is allowed by the cap, 0 if it may start now
+     */
+    long runFrame() {
+        long start = clock.getAsLong();
+        boolean first = lastFrame < 0;
+        if (first) {
+            lastFrame = start;
+        }
+        long elapsed = start - lastFrame;
+        lastFrame = start;
+        accumulated += elapsed;
+
+        int updates = 0;
+        while (accumulated >= stepNanos && updates < MAX_UPDATES_PER_FRAME) {
+            update.accept(getStepSeconds());
+            accumulated -= stepNanos;
+            updates++;
+        }
+        long dropped = 0;
+        if (accumulated >= stepNanos) {
+            dropped = accumulated - accumulated % stepNanos;
+            accumulated -= dropped;
+        }
+
+        render.accept((double) accumulated / stepNanos);
+        synchronized (this) {
+            if (!first) {
+                frameTimes[frameCount % STATS_FRAMES] = elapsed;
+                frameCount++;
+            }
+            updateCount += updates;
+            droppedNanos += dropped;
+        }
+
+        long cap = frameNanos;
+        return cap == 0 ? 0 : Math.max(0, start + cap - clock.getAsLong());
+    }
+
+    /**
+     * @return statistics of the recent frames
+     */
+    public synchronized Stats getStats() {
+        int n = Math.min(frameCount, STATS_FRAMES);
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < n; i++) {
+            total += frameTimes[i];
+            max = Math.max(max, frameTimes[i]);
+        }
+        return new Stats(frameCount, updateCount, n == 0 ? 0 : total / n, max, droppedNanos);
+    }
+
+    /**
+     * Frame time statistics of a render loop. The times cover the last {@link #STATS_FRAMES}
+     * frames, each measured from the start of the frame before.
+     */
+    public static final class Stats {
+        private final long frames;
+        private final long updates;
+        private final long averageNanos;
+        private final long maxNanos;
+        private final long droppedNanos;
+
+        Stats(long frames, long updates, long averageNanos, long maxNanos, long droppedNanos) {
+            this.frames = frames;
+            this.updates = updates;
+            this.averageNanos = averageNanos;
+            this.maxNanos = maxNanos;
+            this.droppedNanos = droppedNanos;
+        }
+
+        /**
+         * @return number of frames drawn, counting from the second one
+         */
+        public long getFrames() {
+            return frames;
+        }
+
+        /**
+         * @return number of updates run
+         */
+        public long getUpdates() {
+            return updates;
+        }
+
+        /**
+         * @return average time between recent frames, in milliseconds
+         */
+        public double getAverageFrameMillis() {
+            return averageNanos / 1e6;
+        }
+
+        /**
+         * @return longest time between recent frames, in milliseconds
+         */
+        public double getMaxFrameMillis() {
+            return maxNanos / 1e6;
+        }
+
+        /**
+         * @return recent frames per second, from the average frame time
+         */
+        public double getFps() {
+            return averageNanos == 0 ? 0 : 1e9 / averageNanos;
+        }
+
+        /**
+         * @return time the scene did not catch up on after stalls, in milliseconds
+         */
+        public double getDroppedMillis() {
+            return droppedNanos / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f fps, frame %.2f ms avg, %.2f ms max, %d frames, %d updates, %.0f ms dropped",
+                    getFps(), getAverageFrameMillis(), getMaxFrameMillis(), frames, updates, getDroppedMillis());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RenderLoopTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000 * MS);
+    private final AtomicInteger updates = new AtomicInteger();
+    private final List<Double> alphas = new ArrayList<>();
+
+    private RenderLoop newLoop(int fpsCap) {
+        return new RenderLoop(100, fpsCap, step -> updates.incrementAndGet(), alphas::add, now::get);
+    }
+
+    @Test
+    void runFrame_IrregularFrames_UpdatesAtFixedRate() {
+        RenderLoop loop = newLoop(0);
+        loop.runFrame();
+        assertEquals(0, updates.get());
+
+        // 10 ms steps: 25 ms gives two updates and half a step left over
+        now.addAndGet(25 * MS);
+        loop.runFrame();
+        assertEquals(2, updates.get());
+        assertEquals(0.5, alphas.get(1), 1e-9);
+
+        now.addAndGet(3 * MS);
+        loop.runFrame();
+        now.addAndGet(12 * MS);
+        loop.runFrame();
+        assertEquals(4, updates.get());
+        assertEquals(0.0, alphas.get(3), 1e-9);
+        assertEquals(0.01, loop.getStepSeconds(), 1e-12);
+    }
+
+    @Test
+    void runFrame_Stall_CatchesUpAtMostMaxUpdates() {
+        RenderLoop loop = newLoop(0);
+        loop.runFrame();
+        now.addAndGet(5_000 * MS);
+        loop.runFrame();
+
+        assertEquals(RenderLoop.MAX_UPDATES_PER_FRAME, updates.get());
+        RenderLoop.Stats stats = loop.getStats();
+        assertEquals(5_000 - 10 * RenderLoop.MAX_UPDATES_PER_FRAME, stats.getDroppedMillis(), 1e-6);
+        assertEquals(5_000, stats.getMaxFrameMillis(), 1e-6);
+    }
+
+    @Test
+    void runFrame_Capped_WaitsForNextFrameAndReportsStats() {
+        RenderLoop loop = newLoop(50);
+        assertEquals(20 * MS, loop.runFrame());
+
+        for (int i = 0; i < 10; i++) {
+            now.addAndGet(i % 2 == 0 ? 15 * MS : 25 * MS);
+            loop.runFrame();
+        }
+        RenderLoop.Stats stats = loop.getStats();
+        assertEquals(10, stats.getFrames());
+        assertEquals(20, stats.getAverageFrameMillis(), 1e-6);
+        assertEquals(25, stats.getMaxFrameMillis(), 1e-6);
+        assertEquals(50, stats.getFps(), 1e-6);
+        assertEquals(20, stats.getUpdates());
+
+        loop.setFpsCap(0);
+        assertEquals(0, loop.runFrame());
+    }
+}
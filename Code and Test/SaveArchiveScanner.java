@@ -0,0 +1,384 @@
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Command-line tool that checks every save file under a directory and prints a summary.
+ * <p>
+ * The scanner walks the save tree, including shard directories, and processes the slot files in
+ * parallel on a bounded pool. Each file is read once: the bytes are checksummed while a
+ * streaming JSON reader picks out only the fields the report needs, skipping everything else
+ * without building objects. Only a slot with a pending journal is read a second time, in full,
+ * so its journal can be replayed with {@link SaveJournal} and the report counts the slot's
+ * current values rather than those of its older snapshot. The report covers:
+ * <ul>
+ *   <li>files with a bad checksum, files that cannot be decoded, and legacy files without a
+ *       checksum</li>
+ *   <li>dead pets and pets per type</li>
+ *   <li>inventories with negative or overflowing item counts</li>
+ *   <li>the score distribution</li>
+ *   <li>slots with unmerged journal changes</li>
+ * </ul>
+ * The exit status is 1 if any file is damaged, so the tool can be used in scripts.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * java SaveArchiveScanner saves/ 8
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveArchiveScanner {
+
+    /** Item count above which an inventory entry is reported as overflowing. */
+    public static final int MAX_ITEM_QUANTITY = 1_000_000;
+
+    /** Maximum number of damaged file paths listed in the report. */
+    private static final int MAX_LISTED_PROBLEMS = 20;
+
+    private static final Pattern SLOT_FILE = Pattern.compile("slot\\d+\\.json");
+
+    /** Result of checking one file. */
+    enum Status {
+        OK, UNCHECKED, CORRUPT, UNREADABLE
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path root = Paths.get(args.length > 0 ? args[0] : "saves/");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        Report report = scan(root, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(report.format());
+        System.out.printf("Scanned %d files in %.2f s (%.0f files/s)%n",
+                report.files, seconds, report.files / Math.max(seconds, 1e-9));
+        System.exit(report.corrupt + report.unreadable > 0 ? 1 : 0);
+    }
+
+    /**
+     * Scans every slot file under a directory.
+     *
+     * @param root    the save directory
+     * @param threads maximum number of files processed at the same time
+     * @return the aggregated report
+     * @throws IOException if the directory cannot be walked
+     */
+    public static Report scan(Path root, int threads) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(p -> SLOT_FILE.matcher(p.getFileName().toString()).matches())
+                    .collect(Collectors.toList());
+        }
+
+        // A dedicated pool bounds the parallelism and keeps the common pool free
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            return pool.submit(() -> files.parallelStream()
+                    .map(SaveArchiveScanner::scanFile)
+                    .collect(Report::new, Report::add, Report::merge)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Scan interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw new IOException("Scan failed", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Checks one slot file in a single pass.
+     *
+     * @param file the slot file
+     * @return what was found in the file
+     */
+    static FileSummary scanFile(Path file) {
+        FileSummary summary = new FileSummary(file);
+        Path journal = file.resolveSibling(file.getFileName().toString().replace(".json", ".journal"));
+        summary.hasJournal = Files.exists(journal);
+        try {
+            long stored = SaveChecksum.storedChecksum(file.toFile());
+            CRC32C crc = new CRC32C();
+            try (CheckedInputStream checked = new CheckedInputStream(SaveChecksum.openPayload(file.toFile()), crc);
+                 InputStream decoded = SaveCompression.decode(checked)) {
+                readFields(new JsonReader(new InputStreamReader(decoded, StandardCharsets.UTF_8)), summary);
+                // Checksum whatever the parser did not need to read
+                checked.transferTo(OutputStream.nullOutputStream());
+            }
+            if (stored < 0) {
+                summary.status = Status.UNCHECKED;
+            } else {
+                summary.status = (crc.getValue() == stored) ? Status.OK : Status.CORRUPT;
+            }
+            if (summary.hasJournal && summary.status != Status.CORRUPT) {
+                applyJournal(file, journal, summary);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Malformed JSON, wrong value types or a broken compressed stream
+            summary.status = Status.UNREADABLE;
+        }
+        return summary;
+    }
+
+    /**
+     * Replaces the values the journal can change with those of the snapshot after replaying
+     * its journal.
+     *
+     * @param file    the slot file
+     * @param journal the slot's journal
+     * @param summary receives the current values
+     * @throws IOException if either file cannot be read
+     */
+    private static void applyJournal(Path file, Path journal, FileSummary summary) throws IOException {
+        GameState state;
+        try (InputStream in = SaveChecksum.openPayload(file.toFile())) {
+            state = SaveLoadManager.decode(in);
+        }
+        if (state == null) {
+            return;
+        }
+        SaveJournal.replay(journal.toFile(), state);
+        summary.health = state.getHealth();
+        summary.score = state.getScore();
+        summary.items = 0;
+        summary.badItemCount = false;
+        for (InventoryItem item : state.getInventory().getItems()) {
+            summary.items++;
+            if (item.getQuantity() < 0 || item.getQuantity() > MAX_ITEM_QUANTITY) {
+                summary.badItemCount = true;
+            }
+        }
+    }
+
+    /**
+     * Reads the top-level fields the report needs and skips all others.
+     *
+     * @param reader  JSON reader positioned at the start of a save document
+     * @param summary receives the values
+     * @throws IOException if the document is malformed
+     */
+    private static void readFields(JsonReader reader, FileSummary summary) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "petType":
+                    summary.petType = reader.nextString().toUpperCase(Locale.ROOT);
+                    break;
+                case "health":
+                    summary.health = reader.nextInt();
+                    break;
+                case "score":
+                    summary.score = reader.nextInt();
+                    break;
+                case "schemaVersion":
+                    summary.schemaVersion = reader.nextInt();
+                    break;
+                case "inventory":
+                    readInventory(reader, summary);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readInventory(JsonReader reader, FileSummary summary) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("items") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("quantity")) {
+                        long quantity = reader.nextLong();
+                        summary.items++;
+                        if (quantity < 0 || quantity > MAX_ITEM_QUANTITY) {
+                            summary.badItemCount = true;
+                        }
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Values picked out of one file.
+     */
+    static class FileSummary {
+        final Path file;
+        Status status;
+        String petType;
+        int health = -1;
+        int score;
+        int schemaVersion;
+        int items;
+        boolean badItemCount;
+        boolean hasJournal;
+
+        FileSummary(Path file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * Aggregated results of a scan. Built per worker and merged, so no locking is needed.
+     */
+    public static class Report {
+        int files, ok, unchecked, corrupt, unreadable;
+        int dead, badInventories, withJournal;
+        long totalItems;
+        long scoreSum;
+        int scoreMin = Integer.MAX_VALUE, scoreMax = Integer.MIN_VALUE;
+        // Bucket i counts scores in [10^(i-1), 10^i), bucket 0 counts scores <= 0
+        final long[] scoreBuckets = new long[11];
+        final Map<String, Integer> petTypes = new TreeMap<>();
+        final Map<Integer, Integer> schemaVersions = new TreeMap<>();
+        final List<String> problems = new ArrayList<>();
+
+        void add(FileSummary s) {
+            files++;
+            switch (s.status) {
+                case OK: ok++; break;
+                case UNCHECKED: unchecked++; break;
+                case CORRUPT: corrupt++; break;
+                default: unreadable++;
+            }
+            if (s.status == Status.CORRUPT || s.status == Status.UNREADABLE) {
+                if (problems.size() < MAX_LISTED_PROBLEMS) {
+                    problems.add(s.status + " " + s.file);
+                }
+                return;
+            }
+            if (s.health == 0) dead++;
+            if (s.badItemCount) badInventories++;
+            if (s.hasJournal) withJournal++;
+            totalItems += s.items;
+            scoreSum += s.score;
+            scoreMin = Math.min(scoreMin, s.score);
+            scoreMax = Math.max(scoreMax, s.score);
+            scoreBuckets[bucketOf(s.score)]++;
+            petTypes.merge(s.petType == null ? "?" : s.petType, 1, Integer::sum);
+            schemaVersions.merge(s.schemaVersion, 1, Integer::sum);
+        }
+
+        void merge(Report other) {
+            files += other.files;
+            ok += other.ok;
+            unchecked += other.unchecked;
+            corrupt += other.corrupt;
+            unreadable += other.unreadable;
+            dead += other.dead;
+            badInventories += other.badInventories;
+            withJournal += other.withJournal;
+            totalItems += other.totalItems;
+            scoreSum += other.scoreSum;
+            scoreMin = Math.min(scoreMin, other.scoreMin);
+            scoreMax = Math.max(scoreMax, other.scoreMax);
+            for (int i = 0; i < scoreBuckets.length; i++) {
+                scoreBuckets[i] += other.scoreBuckets[i];
+            }
+            other.petTypes.forEach((k, v) -> petTypes.merge(k, v, Integer::sum));
+            other.schemaVersions.forEach((k, v) -> schemaVersions.merge(k, v, Integer::sum));
+            for (String problem : other.problems) {
+                if (problems.size() < MAX_LISTED_PROBLEMS) {
+                    problems.add(problem);
+                }
+            }
+        }
+
+        private static int bucketOf(int score) {
+            if (score <= 0) {
+                return 0;
+            }
+            return Math.min(10, (int) Math.log10(score) + 1);
+        }
+
+        public int getFiles() { return files; }
+        public int getCorrupt() { return corrupt; }
+        public int getUnreadable() { return unreadable; }
+        public int getUnchecked() { return unchecked; }
+        public int getDead() { return dead; }
+        public int getBadInventories() { return badInventories; }
+        public int getScoreMax() { return scoreMax; }
+
+        /**
+         * Formats the report for the console.
+         *
+         * @return multi-line report text
+         */
+        public String format() {
+            int readable = files - corrupt - unreadable;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Save files:        %d%n", files));
+            sb.append(String.format("  valid:           %d%n", ok));
+            sb.append(String.format("  no checksum:     %d%n", unchecked));
+            sb.append(String.format("  bad checksum:    %d%n", corrupt));
+            sb.append(String.format("  unreadable:      %d%n", unreadable));
+            sb.append(String.format("Pending journals:  %d%n", withJournal));
+            sb.append(String.format("Dead pets:         %d%n", dead));
+            sb.append(String.format("Bad item counts:   %d (total items %d)%n", badInventories, totalItems));
+            sb.append(String.format("Pet types:         %s%n", petTypes));
+            sb.append(String.format("Schema versions:   %s%n", schemaVersions));
+            if (readable > 0) {
+                sb.append(String.format("Score:             min %d, max %d, mean %.1f%n",
+                        scoreMin, scoreMax, (double) scoreSum / readable));
+                sb.append(String.format("  <= 0:            %d%n", scoreBuckets[0]));
+                for (int i = 1; i < scoreBuckets.length; i++) {
+                    if (scoreBuckets[i] > 0) {
+                        sb.append(String.format("  %-16s %d%n",
+                                String.format("%.0f-%.0f:", Math.pow(10, i - 1), Math.pow(10, i) - 1),
+                                scoreBuckets[i]));
+                    }
+                }
+            }
+            for (String problem : problems) {
+                sb.append(problem).append(System.lineSeparator());
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaveArchiveScannerTest {
+
+    @TempDir
+    Path saveDir;
+
+    private void writeSave(Path file, int health, int score, int apples, boolean compressed) throws IOException {
+        Inventory inventory = new Inventory();
+        inventory.addItem(new FoodItem("Apple", apples, 10));
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DUCK), inventory);
+        state.setHealth(health);
+        state.setScore(score);
+
+        Files.createDirectories(file.getParent());
+        try (FileOutputStream out = new FileOutputStream(file.toFile());
+             SaveChecksum.Writer checked = SaveChecksum.wrap(out)) {
+            SaveLoadManager.encode(state, checked, compressed);
+        }
+    }
+
+    @Test
+    void scan_MixedArchive_ReportsProblemsAndStatistics() throws IOException {
+        writeSave(saveDir.resolve("slot1.json"), 100, 5, 1, false);
+        writeSave(saveDir.resolve("slot2.json"), 0, 50, 2, true);
+        writeSave(saveDir.resolve("001").resolve("slot1500.json"), 80, 500, SaveArchiveScanner.MAX_ITEM_QUANTITY + 1, false);
+        Files.writeString(saveDir.resolve("slot3.json"), "{\"petType\": \"DOG\", \"score\": 1}");
+        Files.writeString(saveDir.resolve("slot4.json"), "{invalid_json}");
+
+        // Same length, one digit changed: still valid JSON, but the checksum no longer matches
+        Path flipped = saveDir.resolve("slot5.json");
+        writeSave(flipped, 100, 1, 1, false);
+        Files.writeString(flipped, Files.readString(flipped).replace("\"score\": 1", "\"score\": 9"));
+
+        SaveArchiveScanner.Report report = SaveArchiveScanner.scan(saveDir, 4);
+
+        assertEquals(6, report.getFiles());
+        assertEquals(1, report.getCorrupt());
+        assertEquals(1, report.getUnreadable());
+        assertEquals(1, report.getUnchecked());
+        assertEquals(1, report.getDead());
+        assertEquals(1, report.getBadInventories());
+        assertEquals(500, report.getScoreMax());
+        assertTrue(report.format().contains("slot4.json"));
+    }
+
+    @Test
+    void scan_SlotWithJournal_CountsJournaledValues() throws IOException {
+        writeSave(saveDir.resolve("slot1.json"), 100, 5, 1, false);
+        // Autosaves since the snapshot: the pet died and scored more
+        Files.writeString(saveDir.resolve("slot1.journal"), "{\"sc\":20}\n{\"h\":0,\"sc\":9000}\n");
+
+        SaveArchiveScanner.Report report = SaveArchiveScanner.scan(saveDir, 2);
+
+        assertEquals(1, report.getFiles());
+        assertEquals(1, report.getDead());
+        assertEquals(9000, report.getScoreMax());
+        assertTrue(report.format().contains("Pending journals:  1"));
+    }
+}
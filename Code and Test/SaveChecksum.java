@@ -0,0 +1,265 @@
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Adds and checks the CRC32C trailer that protects every save file.
+ * <p>
+ * A checksummed save is the normal save payload (plain or compressed JSON) followed by one
+ * trailer line of fixed length, {@code //crc32c:xxxxxxxx}, holding the CRC32C of the payload in
+ * hex. The trailer sits after the JSON document, so the file stays readable in a text editor.
+ * Files written before checksums were introduced have no trailer and are accepted as they are.
+ * <p>
+ * {@link #verify(File)} checks a file in a single streaming pass over its bytes without parsing
+ * anything, which makes it cheap enough to run before every load and over whole save archives.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (FileOutputStream file = new FileOutputStream(path);
+ *      SaveChecksum.Writer out = SaveChecksum.wrap(file)) {
+ *     SaveLoadManager.encode(state, out, false);
+ * } // trailer is written when the wrapper is closed
+ *
+ * if (SaveChecksum.verify(file) == SaveChecksum.Result.VALID) { ... }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveChecksum {
+
+    /** Outcome of checking a file. */
+    public enum Result {
+        /** The trailer is present and matches the payload. */
+        VALID,
+        /** The file has no trailer, as written by older versions of the game. */
+        UNCHECKED,
+        /** The trailer does not match the payload, or the file is truncated. */
+        CORRUPT
+    }
+
+    private static final byte[] PREFIX = "\n//crc32c:".getBytes(StandardCharsets.US_ASCII);
+
+    /** Length in bytes of the trailer line. */
+    public static final int TRAILER_LENGTH = PREFIX.length + 8 + 1;
+
+    private SaveChecksum() {
+    }
+
+    /**
+     * Wraps a stream so that everything written to it is checksummed and the trailer is
+     * appended when the wrapper is closed.
+     *
+     * @param out destination stream, not closed by the wrapper
+     * @return the checksumming stream
+     */
+    public static Writer wrap(OutputStream out) {
+        return new Writer(out);
+    }
+
+    /**
+     * Checks a save file in one streaming pass, without parsing it.
+     *
+     * @param file the save file
+     * @return whether the file is valid, unchecked (no trailer) or corrupt
+     * @throws IOException if the file cannot be read
+     */
+    public static Result verify(File file) throws IOException {
+        long payloadLength = payloadLength(file);
+        if (payloadLength < 0) {
+            return Result.UNCHECKED;
+        }
+        Checksum crc = new CRC32C();
+        byte[] buf = new byte[8192];
+        long remaining = payloadLength;
+        try (InputStream in = new FileInputStream(file)) {
+            while (remaining > 0) {
+                int n = in.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (n < 0) {
+                    return Result.CORRUPT;
+                }
+                crc.update(buf, 0, n);
+                remaining -= n;
+            }
+        }
+        return crc.getValue() == readTrailer(file) ? Result.VALID : Result.CORRUPT;
+    }
+
+    /**
+     * Opens the payload of a save file, that is everything before the trailer.
+     * The checksum is not checked; call {@link #verify(File)} first.
+     *
+     * @param file the save file
+     * @return stream over the payload
+     * @throws IOException if the file cannot be read
+     */
+    public static InputStream openPayload(File file) throws IOException {
+        long payloadLength = payloadLength(file);
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        return payloadLength < 0 ? in : new LimitedInputStream(in, payloadLength);
+    }
+
+    /**
+     * Returns the checksum stored in a file's trailer, for callers that compute the payload
+     * checksum themselves while reading it.
+     *
+     * @param file the save file
+     * @return the stored CRC32C, or -1 if the file has no valid trailer
+     * @throws IOException if the file cannot be read
+     */
+    public static long storedChecksum(File file) throws IOException {
+        return payloadLength(file) < 0 ? -1 : readTrailer(file);
+    }
+
+    /**
+     * Returns the payload length of a file with a trailer.
+     *
+     * @param file the save file
+     * @return number of bytes before the trailer, or -1 if the file has no trailer
+     * @throws IOException if the file cannot be read
+     */
+    private static long payloadLength(File file) throws IOException {
+        long length = file.length();
+        if (length < TRAILER_LENGTH) {
+            return -1;
+        }
+        byte[] tail = new byte[PREFIX.length];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(length - TRAILER_LENGTH);
+            raf.readFully(tail);
+        }
+        for (int i = 0; i < PREFIX.length; i++) {
+            if (tail[i] != PREFIX[i]) {
+                return -1;
+            }
+        }
+        return length - TRAILER_LENGTH;
+    }
+
+    /**
+     * Reads the checksum stored in a file's trailer.
+     *
+     * @param file a save file known to have a trailer
+     * @return the stored CRC32C, or -1 if it is not valid hex
+     * @throws IOException if the file cannot be read
+     */
+    private static long readTrailer(File file) throws IOException {
+        byte[] hex = new byte[8];
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(file.length() - 9);
+            raf.readFully(hex);
+        }
+        try {
+            return Long.parseLong(new String(hex, StandardCharsets.US_ASCII), 16);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Output stream that checksums what passes through and appends the trailer on close.
+     * Closing it leaves the destination stream open, so the caller can still sync it to disk.
+     */
+    public static class Writer extends FilterOutputStream {
+        private final Checksum crc = new CRC32C();
+        private boolean closed = false;
+
+        Writer(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        /**
+         * Writes the trailer without closing the underlying stream.
+         *
+         * @throws IOException if writing fails
+         */
+        public void finish() throws IOException {
+            if (!closed) {
+                closed = true;
+                out.write(PREFIX);
+                out.write(String.format("%08x\n", crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+
+    /**
+     * Input stream that stops after a fixed number of bytes.
+     */
+    private static class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Streaming compression for save files.
+ * <p>
+ * Compressed saves are written as zlib (deflate) streams. Reading detects the format from the
+ * first two bytes of the file, so plain JSON, zlib and gzip saves can all be loaded without the
+ * caller knowing how they were written.
+ * <p>
+ * {@link Deflater} and {@link Inflater} objects hold native zlib state and the streams need
+ * working buffers, so both are kept in small pools and reused across saves instead of being
+ * allocated for every file.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * try (OutputStream out = SaveCompression.compress(new FileOutputStream(file))) {
+ *     out.write(json);
+ * }
+ * try (InputStream in = SaveCompression.decode(new FileInputStream(file))) {
+ *     // reads plain or compressed data
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveCompression {
+
+    /** Size of the pooled stream buffers. */
+    static final int BUFFER_SIZE = 8192;
+
+    // Number of codecs and buffers kept for reuse
+    private static final int POOL_SIZE = 4;
+
+    private static final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(POOL_SIZE * 2);
+
+    private SaveCompression() {
+    }
+
+    /**
+     * Wraps a stream so everything written to it is deflate-compressed.
+     * Closing the returned stream finishes the compressed data and closes {@code out}.
+     *
+     * @param out stream to write compressed bytes to
+     * @return compressing output stream
+     */
+    public static OutputStream compress(OutputStream out) {
+        return new PooledDeflaterOutputStream(out);
+    }
+
+    /**
+     * Wraps a stream so it yields decompressed bytes, detecting the format from its magic bytes.
+     *
+     * @param in stream of a plain, zlib or gzip save file
+     * @return stream of the decoded bytes
+     * @throws IOException if the header cannot be read
+     */
+    public static InputStream decode(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int b0 = buffered.read();
+        int b1 = buffered.read();
+        buffered.reset();
+
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+        if (isZlibHeader(b0, b1)) {
+            return new PooledInflaterInputStream(buffered);
+        }
+        return buffered;
+    }
+
+    /**
+     * Checks whether two bytes form a zlib stream header. A JSON document always starts with
+     * whitespace or a bracket, so it can never be mistaken for one.
+     *
+     * @param b0 first byte, or -1
+     * @param b1 second byte, or -1
+     * @return true if the bytes are a valid zlib header
+     */
+    static boolean isZlibHeader(int b0, int b1) {
+        return b0 >= 0 && b1 >= 0 && (b0 & 0x0f) == 8 && (b0 >> 4) <= 7 && ((b0 << 8) | b1) % 31 == 0;
+    }
+
+    /**
+     * Returns how many inflaters are waiting in the pool for reuse.
+     *
+     * @return number of pooled inflaters
+     */
+    static int pooledInflaters() {
+        return inflaters.size();
+    }
+
+    private static byte[] takeBuffer() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Deflater stream that borrows its codec and buffer from the pools and returns them on close.
+     */
+    private static class PooledDeflaterOutputStream extends DeflaterOutputStream {
+        private boolean closed = false;
+
+        PooledDeflaterOutputStream(OutputStream out) {
+            super(out, takeDeflater(), 1);
+            this.buf = takeBuffer();
+        }
+
+        private static Deflater takeDeflater() {
+            Deflater deflater = deflaters.poll();
+            return deflater != null ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                def.reset();
+                if (!deflaters.offer(def)) {
+                    def.end();
+                }
+                buffers.offer(buf);
+            }
+        }
+    }
+
+    /**
+     * Inflater stream that borrows its codec and buffer from the pools and returns them on close.
+     */
+    private static class PooledInflaterInputStream extends InflaterInputStream {
+        private boolean closed = false;
+
+        PooledInflaterInputStream(InputStream in) {
+            super(in, takeInflater(), 1);
+            this.buf = takeBuffer();
+        }
+
+        private static Inflater takeInflater() {
+            Inflater inflater = inflaters.poll();
+            return inflater != null ? inflater : new Inflater();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                inf.reset();
+                if (!inflaters.offer(inf)) {
+                    inf.end();
+                }
+                buffers.offer(buf);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * Compares plain and compressed save files for games with large inventories.
+ * <p>
+ * For each inventory size the benchmark writes the same {@link GameState} repeatedly in both
+ * formats and prints the average write latency, the average read latency and the file size.
+ * Run it from the command line, optionally passing the number of writes per case:
+ * <pre>{@code
+ * java SaveCompressionBenchmark 200
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveCompressionBenchmark {
+
+    private static final int[] INVENTORY_SIZES = {10, 100, 1000, 10000};
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        File dir = Files.createTempDirectory("save-bench").toFile();
+
+        System.out.printf("%-10s %-11s %14s %14s %12s%n",
+                "Items", "Format", "Write (us)", "Read (us)", "Bytes");
+        for (int size : INVENTORY_SIZES) {
+            GameState state = createState(size);
+            runCase(state, size, false, new File(dir, "plain.json"), iterations);
+            runCase(state, size, true, new File(dir, "deflate.json"), iterations);
+        }
+
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    private static void runCase(GameState state, int size, boolean compressed, File file, int iterations)
+            throws IOException {
+        // Warm up the JIT and the codec pools before timing
+        for (int i = 0; i < Math.min(20, iterations); i++) {
+            write(state, file, compressed);
+            read(file);
+        }
+
+        long writeNanos = 0;
+        long readNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            write(state, file, compressed);
+            long mid = System.nanoTime();
+            read(file);
+            readNanos += System.nanoTime() - mid;
+            writeNanos += mid - start;
+        }
+
+        System.out.printf("%-10d %-11s %14.1f %14.1f %12d%n",
+                size, compressed ? "deflate" : "plain json",
+                writeNanos / 1000.0 / iterations, readNanos / 1000.0 / iterations, file.length());
+    }
+
+    private static void write(GameState state, File file, boolean compressed) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            SaveLoadManager.encode(state, out, compressed);
+        }
+    }
+
+    private static void read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            SaveLoadManager.decode(in);
+        }
+    }
+
+    private static GameState createState(int items) {
+        Inventory inventory = new Inventory();
+        for (int i = 0; i < items; i++) {
+            if (i % 2 == 0) {
+                inventory.addItem(new FoodItem("food" + i, 1 + i % 50, 10 + i % 30));
+            } else {
+                inventory.addItem(new GiftItem("gift" + i, 1 + i % 50, 10 + i % 30));
+            }
+        }
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("Buddy", PetType.DOG), inventory);
+        return state;
+    }
+}
@@ -0,0 +1,343 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Append-only journal that records small changes to a save slot instead of rewriting the
+ * whole {@link GameState} on every autosave.
+ * <p>
+ * Each slot has a snapshot file ({@code slotN.json}) written by {@link SaveLoadManager} and,
+ * next to it, a journal file ({@code slotN.journal}). Every autosave appends one compact JSON line
+ * holding only the stats, score and inventory quantities that changed since the previous write,
+ * usually a few tens of bytes. Loading reads the snapshot and replays the journal on top of it.
+ * <p>
+ * When a journal grows past the compaction threshold, a background thread folds it into a new
+ * snapshot and deletes it. A torn line at the end of a journal (for example after a crash) stops
+ * the replay at the last complete record.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * // Normally used through SaveLoadManager.autosave(state, slot)
+ * SaveJournal.getInstance().append(gameState, 1);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveJournal {
+
+    /** Journal size in bytes after which it is folded into the snapshot. */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 16 * 1024;
+
+    private static SaveJournal instance;
+
+    private final SlotStore slots;
+
+    // Compact Gson for journal records, one record per line
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(SaveLoadManager.itemFactory)
+            .create();
+
+    // Slot -> values as of the last write, used to work out what changed
+    private final Map<Integer, Baseline> baselines = new ConcurrentHashMap<>();
+    // Slots with a compaction already queued
+    private final Set<Integer> compacting = ConcurrentHashMap.newKeySet();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "save-journal-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private volatile long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    /**
+     * Creates a journal for the slots of a slot layout.
+     *
+     * @param slots slot file layout the journal files are kept next to
+     */
+    SaveJournal(SlotStore slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Returns the journal of the shared slot layout.
+     *
+     * @return the shared SaveJournal instance
+     */
+    public static synchronized SaveJournal getInstance() {
+        if (instance == null) {
+            instance = new SaveJournal(SlotStore.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the journal size after which a slot is compacted.
+     *
+     * @param bytes threshold in bytes
+     */
+    public void setCompactionThreshold(long bytes) {
+        this.compactionThreshold = bytes;
+    }
+
+    /**
+     * Returns the journal file for a slot. The file may not exist.
+     *
+     * @param slot the save slot number
+     * @return the journal file next to the slot's snapshot
+     */
+    public File journalFile(int slot) {
+        return new File(slots.shardDir(slot), "slot" + slot + ".journal");
+    }
+
+    /**
+     * Records the given state for a slot. The first write of a slot in this session (or after a
+     * full save) writes a snapshot; later writes append only what changed. Nothing is written
+     * when nothing changed. Every write bumps the state's version.
+     *
+     * @param state the current game state
+     * @param slot  the save slot number
+     * @throws IOException if writing fails
+     */
+    public void append(GameState state, int slot) throws IOException {
+        long journalSize;
+        synchronized (SaveLoadManager.slotLock(slot)) {
+            Baseline baseline = baselines.get(slot);
+            LocalDateTime now = LocalDateTime.now();
+            if (baseline == null || !slots.slotFile(slot).exists()) {
+                if (state.getCreationTime() == null) {
+                    state.setCreationTime(now);
+                }
+                state.setLastSavedTime(now);
+                state.setVersion(state.getVersion() + 1);
+                SaveLoadManager.writeSnapshot(slots, state, slot);
+                journalFile(slot).delete();
+                baselines.put(slot, new Baseline(state));
+                return;
+            }
+
+            Entry entry = baseline.diff(state);
+            if (entry == null) {
+                return;
+            }
+            state.setLastSavedTime(now);
+            state.setVersion(state.getVersion() + 1);
+            entry.t = now.toEpochSecond(ZoneOffset.UTC);
+            entry.v = state.getVersion();
+
+            byte[] line = (gson.toJson(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+            File journal = journalFile(slot);
+            Files.write(journal.toPath(), line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            baselines.put(slot, new Baseline(state));
+            journalSize = journal.length();
+        }
+
+        if (journalSize > compactionThreshold && compacting.add(slot)) {
+            compactor.submit(() -> compact(slot));
+        }
+    }
+
+    /**
+     * Replays a slot's journal on top of its freshly loaded snapshot.
+     * Called by {@link SaveLoadManager#readSlotFiles(SlotStore, SaveJournal, int)} while holding
+     * the slot lock.
+     *
+     * @param slot  the save slot number
+     * @param state snapshot state to update in place
+     * @throws IOException if reading the journal fails
+     */
+    void replay(int slot, GameState state) throws IOException {
+        replay(journalFile(slot), state);
+    }
+
+    /**
+     * Replays a journal file on top of the snapshot it belongs to.
+     *
+     * @param journal the journal file, which may not exist
+     * @param state   snapshot state to update in place
+     * @throws IOException if reading the journal fails
+     */
+    static void replay(File journal, GameState state) throws IOException {
+        if (!journal.exists()) {
+            return;
+        }
+        if (state.getInventory() == null) {
+            state.setInventory(new Inventory());
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Entry entry;
+                try {
+                    entry = gson.fromJson(line, Entry.class);
+                } catch (JsonParseException e) {
+                    // Torn record at the end of the journal, keep what was replayed so far
+                    break;
+                }
+                if (entry != null) {
+                    entry.applyTo(state);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the journal and cached baseline of a slot after a full snapshot was written.
+     * The next append for the slot starts again from a snapshot.
+     *
+     * @param slot the save slot number
+     */
+    void discard(int slot) {
+        baselines.remove(slot);
+        journalFile(slot).delete();
+    }
+
+    /**
+     * Folds a slot's journal into a new snapshot, then deletes the journal.
+     *
+     * @param slot the save slot number
+     */
+    private void compact(int slot) {
+        try {
+            synchronized (SaveLoadManager.slotLock(slot)) {
+                GameState state = SaveLoadManager.readSlotFiles(slots, this, slot);
+                if (state != null) {
+                    SaveLoadManager.writeSnapshot(slots, state, slot);
+                }
+                journalFile(slot).delete();
+            }
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Failed to compact journal for slot " + slot + ": " + e.getMessage());
+        } finally {
+            compacting.remove(slot);
+        }
+    }
+
+    /**
+     * One journal record. Only changed values are set; null fields are left out of the JSON.
+     */
+    static class Entry {
+        Integer h, sl, f, hp, sc;
+        /** Last saved time, epoch seconds of the local date-time. */
+        Long t;
+        /** Slot version after this record. */
+        Long v;
+        /** New quantities of items that already existed, 0 meaning removed. */
+        Map<String, Integer> q;
+        /** Items that were not in the inventory before. */
+        List<InventoryItem> add;
+
+        /**
+         * Applies this record to a state.
+         *
+         * @param state the state to update
+         */
+        void applyTo(GameState state) {
+            if (h != null) state.setHealth(h);
+            if (sl != null) state.setSleep(sl);
+            if (f != null) state.setFullness(f);
+            if (hp != null) state.setHappiness(hp);
+            if (sc != null) state.setScore(sc);
+            if (t != null) state.setLastSavedTime(LocalDateTime.ofEpochSecond(t, 0, ZoneOffset.UTC));
+            if (v != null) state.setVersion(v);
+
+            Inventory inventory = state.getInventory();
+            if (add != null) {
+                for (InventoryItem item : add) {
+                    inventory.addItem(item);
+                }
+            }
+            if (q != null) {
+                for (Map.Entry<String, Integer> change : q.entrySet()) {
+                    InventoryItem item = inventory.getItemByName(change.getKey());
+                    if (item == null) {
+                        continue;
+                    }
+                    if (change.getValue() <= 0) {
+                        inventory.removeItemByName(change.getKey(), item.getQuantity());
+                    } else {
+                        item.setQuantity(change.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Values of a slot as of its last write.
+     */
+    private static class Baseline {
+        private final int health, sleep, fullness, happiness, score;
+        private final Map<String, Integer> quantities = new HashMap<>();
+
+        Baseline(GameState state) {
+            health = state.getHealth();
+            sleep = state.getSleep();
+            fullness = state.getFullness();
+            happiness = state.getHappiness();
+            score = state.getScore();
+            if (state.getInventory() != null) {
+                for (InventoryItem item : state.getInventory().getItems()) {
+                    quantities.put(item.getName(), item.getQuantity());
+                }
+            }
+        }
+
+        /**
+         * Works out what changed between this baseline and the given state.
+         *
+         * @param state the current state
+         * @return a journal record, or null if nothing changed
+         */
+        Entry diff(GameState state) {
+            Entry entry = new Entry();
+            boolean changed = false;
+            if (state.getHealth() != health) { entry.h = state.getHealth(); changed = true; }
+            if (state.getSleep() != sleep) { entry.sl = state.getSleep(); changed = true; }
+            if (state.getFullness() != fullness) { entry.f = state.getFullness(); changed = true; }
+            if (state.getHappiness() != happiness) { entry.hp = state.getHappiness(); changed = true; }
+            if (state.getScore() != score) { entry.sc = state.getScore(); changed = true; }
+
+            Map<String, Integer> seen = new HashMap<>();
+            if (state.getInventory() != null) {
+                for (InventoryItem item : state.getInventory().getItems()) {
+                    seen.put(item.getName(), item.getQuantity());
+                    Integer before = quantities.get(item.getName());
+                    if (before == null) {
+                        if (entry.add == null) entry.add = new ArrayList<>();
+                        entry.add.add(item);
+                    } else if (before != item.getQuantity()) {
+                        if (entry.q == null) entry.q = new HashMap<>();
+                        entry.q.put(item.getName(), item.getQuantity());
+                    }
+                }
+            }
+            for (String name : quantities.keySet()) {
+                if (!seen.containsKey(name)) {
+                    if (entry.q == null) entry.q = new HashMap<>();
+                    entry.q.put(name, 0);
+                }
+            }
+            return (changed || entry.q != null || entry.add != null) ? entry : null;
+        }
+    }
+}
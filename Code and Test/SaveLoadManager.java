@@ -1,14 +1,52 @@
 import com.google.gson.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
 
 /**
  * Provides utility methods for saving and loading the state of the game, including player, pet,
  * and inventory information. Handles JSON serialization/deserialization using Gson, including
  * custom adapters for LocalDateTime and polymorphic inventory items.
  * <p>
- * The class supports up to three save slots and can determine the number of existing saves or
+ * Autosaves can go through {@link SaveJournal}, which appends only what changed since the last
+ * write instead of rewriting the whole file. Loading always replays any journal on top of the
+ * snapshot, so callers see the same state either way.
+ * <p>
+ * The actual storage is delegated to a pluggable {@link GameStore}. By default this is a
+ * {@link FileGameStore} over the {@code saves/} directory; starting the game with
+ * {@code -Dvirtualpet.store=kv} uses a single-file {@link KeyValueGameStore} instead.
+ * <p>
+ * Snapshots can optionally be written deflate-compressed (see {@link SaveCompression}).
+ * Compressed files keep their {@code .json} name; loading detects the format from the file's
+ * first bytes, so plain and compressed saves can be mixed freely.
+ * <p>
+ * Every write bumps the slot's version. {@link #saveIfVersion(GameState, int, long)} and
+ * {@link #autosave(GameState, int)} refuse to write over a version they have not seen, so an
+ * edit made elsewhere (for example a revive from the parental controls) is never lost;
+ * {@link SlotWatcher} tells a running game when its slot changed on disk.
+ * <p>
+ * Every snapshot ends with a CRC32C trailer (see {@link SaveChecksum}) and the previous
+ * {@link #DEFAULT_BACKUP_GENERATIONS} versions of each slot are kept as {@code slotN.json.1},
+ * {@code .2}, and so on. When a slot file is damaged, loading falls back to the newest valid
+ * backup automatically.
+ * <p>
+ * Saves carry a schema version. Saves written by older versions of the game are upgraded by
+ * {@link SaveMigrations} as they are read and stored in the new form on their next save.
+ * <p>
+ * Slot files are located through {@link SlotStore}, which supports any number of slots and
+ * shards them across subdirectories. The class can determine the number of existing saves or
  * find the oldest one for replacement.
  * <p>
  * Example usage:
@@ -19,6 +57,9 @@ import java.time.format.DateTimeFormatter;
  * // Save the game to slot 1
  * SaveLoadManager.saveGame(gameState, 1);
  *
+ * // Record a periodic autosave (journaled when journaling is enabled)
+ * SaveLoadManager.autosave(gameState, 1);
+ *
  * // Load the game from slot 1
  * GameState loaded = SaveLoadManager.loadGame(1);
  *
@@ -33,15 +74,26 @@ import java.time.format.DateTimeFormatter;
 
 public class SaveLoadManager {
 
-    // Directory to store all save files
-    private static final String SAVE_DIR = "saves/";
-
     static RuntimeTypeAdapterFactory<InventoryItem> itemFactory = RuntimeTypeAdapterFactory
             .of(InventoryItem.class, "type")
             .registerSubtype(FoodItem.class, "FoodItem")
             .registerSubtype(GiftItem.class, "GiftItem");
     // Gson instance with custom serializers/deserializers for LocalDateTime
-    private static final Gson gson = new GsonBuilder()
+    private static final Gson gson = newGsonBuilder()
+            .setPrettyPrinting()
+            .create();
+    // Same as gson but without whitespace, used for compressed saves
+    private static final Gson compactGson = newGsonBuilder().create();
+
+    /**
+     * Creates a GsonBuilder with the save migration, inventory item and LocalDateTime
+     * adapters registered.
+     *
+     * @return a configured GsonBuilder
+     */
+    private static GsonBuilder newGsonBuilder() {
+        return new GsonBuilder()
+            .registerTypeAdapterFactory(SaveMigrations.adapterFactory())
             .registerTypeAdapterFactory(itemFactory)
             .registerTypeAdapter(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
                 public LocalDateTime deserialize(JsonElement json, java.lang.reflect.Type typeOfT, JsonDeserializationContext context) {
@@ -52,27 +104,141 @@ public class SaveLoadManager {
                 public JsonElement serialize(LocalDateTime src, java.lang.reflect.Type typeOfSrc, JsonSerializationContext context) {
                     return new JsonPrimitive(src.format(DateTimeFormatter.ISO_DATE_TIME));
                 }
-            })
-            .setPrettyPrinting()
-            .create();
+            });
+    }
+
+    // One lock object per slot, so writers and the journal compactor never interleave
+    private static final Map<Integer, Object> slotLocks = new ConcurrentHashMap<>();
+
+    // Slot files this process wrote or read intact, with the stamp they had then, so a save
+    // does not read the file it replaces again just to check it before keeping it as a backup
+    private static final Map<File, Long> intactFiles = new ConcurrentHashMap<>();
+
+    // Whether autosave appends to the journal instead of rewriting the snapshot
+    private static volatile boolean journalingEnabled = true;
+
+    // Whether snapshots are written deflate-compressed
+    private static volatile boolean compressionEnabled = false;
+
+    /** Default number of older copies kept for each slot. */
+    public static final int DEFAULT_BACKUP_GENERATIONS = 3;
+
+    // Number of older copies kept for each slot
+    private static volatile int backupGenerations = DEFAULT_BACKUP_GENERATIONS;
+
+    // Time the last load spent recovering a slot from a backup, in nanoseconds
+    private static volatile long lastRecoveryNanos = -1;
 
-    // Ensure the saves directory exists when class loads
+    // Backend that stores slots and named records
+    private static volatile GameStore store;
+
+    // Daemon pool for background loads, so slots can be read in parallel off the UI thread
+    private static final AtomicInteger loaderCount = new AtomicInteger();
+    private static final ExecutorService loader = Executors.newFixedThreadPool(
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+                Thread t = new Thread(r, "save-loader-" + loaderCount.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    // Ensure the saves directory exists and pick the storage backend when class loads
     static {
-        new File(SAVE_DIR).mkdirs();
+        SlotStore.getInstance().getRoot().mkdirs();
+        if ("kv".equals(System.getProperty("virtualpet.store"))) {
+            try {
+                store = new KeyValueGameStore(new File(SlotStore.getInstance().getRoot(), "virtualpet.db"));
+            } catch (IOException e) {
+                System.err.println("Failed to open key-value store, using save files: " + e.getMessage());
+            }
+        }
+        if (store == null) {
+            store = new FileGameStore();
+        }
+    }
+
+    /**
+     * Returns the storage backend used for all slots and records.
+     *
+     * @return the active GameStore
+     */
+    public static GameStore getStore() {
+        return store;
     }
 
     /**
-     * Saves the given GameState to the specified save slot (1–3).
+     * Replaces the storage backend used for all slots and records.
+     *
+     * @param newStore the GameStore to use from now on
+     */
+    public static void setStore(GameStore newStore) {
+        store = newStore;
+    }
+
+    /**
+     * Saves the given GameState to the specified save slot.
      *
      * If creationTime is not yet set, it will be initialized and saved.
      * The lastSavedTime is updated every time the game is saved.
      *
      * @param state GameState object containing all current game data
-     * @param slot  The save slot number (1, 2, or 3)
+     * @param slot  The save slot number (1 or higher)
      * @throws IOException if saving fails
      */
     public static void saveGame(GameState state, int slot) throws IOException {
-        String filename = SAVE_DIR + "slot" + slot + ".json";
+        synchronized (slotLock(slot)) {
+            writeVersioned(store, state, slot, store.slotVersion(slot));
+        }
+    }
+
+    /**
+     * Saves the given GameState only if the slot still holds the expected version, that is,
+     * nobody else wrote the slot since the caller loaded it. On success the state's version is
+     * set to the new slot version.
+     *
+     * @param state           GameState object containing all current game data
+     * @param slot            The save slot number (1 or higher)
+     * @param expectedVersion version the caller loaded, 0 for a slot that should still be empty
+     * @return true if the state was saved, false if the slot was changed in the meantime
+     * @throws IOException if saving fails
+     */
+    public static boolean saveIfVersion(GameState state, int slot, long expectedVersion) throws IOException {
+        return saveIfVersion(store, state, slot, expectedVersion);
+    }
+
+    /**
+     * Like {@link #saveIfVersion(GameState, int, long)}, but writes to the given store instead
+     * of the active one, for example the store of a {@link Profile}.
+     *
+     * @param target          the store holding the slot
+     * @param state           GameState object containing all current game data
+     * @param slot            The save slot number (1 or higher)
+     * @param expectedVersion version the caller loaded, 0 for a slot that should still be empty
+     * @return true if the state was saved, false if the slot was changed in the meantime
+     * @throws IOException if saving fails
+     */
+    public static boolean saveIfVersion(GameStore target, GameState state, int slot, long expectedVersion)
+            throws IOException {
+        synchronized (slotLock(slot)) {
+            if (target.slotVersion(slot) != expectedVersion) {
+                return false;
+            }
+            writeVersioned(target, state, slot, expectedVersion);
+            return true;
+        }
+    }
+
+    /**
+     * Stamps a state with its times and the next version, then writes it to the store.
+     * Callers must hold the slot lock.
+     *
+     * @param target         the store to write to
+     * @param state          GameState to write
+     * @param slot           The save slot number
+     * @param currentVersion version the slot holds now
+     * @throws IOException if saving fails
+     */
+    private static void writeVersioned(GameStore target, GameState state, int slot, long currentVersion)
+            throws IOException {
         LocalDateTime now = LocalDateTime.now();
 
         // Only set creationTime the first time this slot is saved
@@ -82,27 +248,359 @@ public class SaveLoadManager {
 
         // Always update lastSavedTime
         state.setLastSavedTime(now);
+        state.setVersion(currentVersion + 1);
+
+        target.saveGame(state, slot);
+    }
+
+    /**
+     * Records the state of a running game. With journaling enabled only the changes since the
+     * previous autosave are appended to the slot's journal; otherwise, or when the active store
+     * is not file based, the full state is saved.
+     * <p>
+     * Like {@link #saveIfVersion(GameState, int, long)}, nothing is written if the slot was
+     * changed by someone else since the state was loaded or last saved. The caller should then
+     * reload the slot instead of overwriting the other change.
+     *
+     * @param state GameState object containing all current game data
+     * @param slot  The save slot number (1 or higher)
+     * @return true if the state was recorded, false if the slot holds a newer version
+     * @throws IOException if saving fails
+     */
+    public static boolean autosave(GameState state, int slot) throws IOException {
+        synchronized (slotLock(slot)) {
+            if (store.slotVersion(slot) != state.getVersion()) {
+                return false;
+            }
+            if (journalingEnabled && store instanceof FileGameStore) {
+                ((FileGameStore) store).appendJournal(state, slot);
+            } else {
+                writeVersioned(store, state, slot, state.getVersion());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Turns journaled autosaves on or off.
+     *
+     * @param enabled true to append changes to a journal, false to rewrite the snapshot every time
+     */
+    public static void setJournalingEnabled(boolean enabled) {
+        journalingEnabled = enabled;
+    }
+
+    /**
+     * Checks whether autosaves are journaled.
+     *
+     * @return true if journaling is enabled
+     */
+    public static boolean isJournalingEnabled() {
+        return journalingEnabled;
+    }
+
+    /**
+     * Turns compressed snapshots on or off. Existing files are not rewritten; each file is
+     * converted the next time its slot is saved.
+     *
+     * @param enabled true to write deflate-compressed snapshots
+     */
+    public static void setCompressionEnabled(boolean enabled) {
+        compressionEnabled = enabled;
+    }
+
+    /**
+     * Checks whether snapshots are written compressed.
+     *
+     * @return true if compression is enabled
+     */
+    public static boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    /**
+     * Sets how many older copies of each slot are kept for recovery. Takes effect on each
+     * slot's next save.
+     *
+     * @param generations number of backups per slot, 0 to keep none
+     */
+    public static void setBackupGenerations(int generations) {
+        if (generations < 0) {
+            throw new IllegalArgumentException("Backup generations cannot be negative");
+        }
+        backupGenerations = generations;
+    }
 
-        try (FileWriter writer = new FileWriter(filename)) {
+    /**
+     * Gets how many older copies of each slot are kept for recovery.
+     *
+     * @return number of backups per slot
+     */
+    public static int getBackupGenerations() {
+        return backupGenerations;
+    }
+
+    /**
+     * Returns how long the most recent recovery from a backup took, measured from the start of
+     * the load that found the slot file damaged until a valid backup was decoded.
+     *
+     * @return recovery time in milliseconds, or -1 if no slot has been recovered yet
+     */
+    public static double getLastRecoveryMillis() {
+        long nanos = lastRecoveryNanos;
+        return nanos < 0 ? -1 : nanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns the lock that guards all file access for one slot.
+     *
+     * @param slot The save slot number
+     * @return lock object shared by every writer of that slot
+     */
+    static Object slotLock(int slot) {
+        return slotLocks.computeIfAbsent(slot, k -> new Object());
+    }
+
+    /**
+     * Writes the full state of a slot to its snapshot file as-is, without touching timestamps
+     * or the journal. Callers must hold the slot lock.
+     * <p>
+     * The new file is written next to the old one with a checksum trailer, synced to disk and
+     * then moved into place atomically, so a crash leaves either the old or the new file. The
+     * old file becomes backup generation 1 and older backups move down one generation.
+     *
+     * @param slots slot file layout and index
+     * @param state GameState to write
+     * @param slot  The save slot number
+     * @throws IOException if writing fails
+     */
+    static void writeSnapshot(SlotStore slots, GameState state, int slot) throws IOException {
+        File file = slots.slotFile(slot);
+        File temp = new File(file.getPath() + ".tmp");
+        file.getParentFile().mkdirs();
+
+        try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+            SaveChecksum.Writer out = SaveChecksum.wrap(new BufferedOutputStream(fileOut));
+            encode(state, out, compressionEnabled);
+            out.finish();
+            fileOut.getFD().sync();
+        }
+        rotateBackups(slots, slot, file);
+        Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        intactFiles.put(file, fileStamp(file));
+        slots.recordSave(slot);
+    }
+
+    /**
+     * Moves the current slot file into backup generation 1, shifting older backups down and
+     * dropping the oldest. A current file that fails its checksum is not kept as a backup; the
+     * checksum is only read again if the file changed since this process last wrote or read it.
+     * Callers must hold the slot lock.
+     *
+     * @param slots slot file layout
+     * @param slot  The save slot number
+     * @param file  the current slot file
+     * @throws IOException if moving fails
+     */
+    private static void rotateBackups(SlotStore slots, int slot, File file) throws IOException {
+        int generations = backupGenerations;
+        if (generations == 0 || !file.exists()) {
+            return;
+        }
+        Long intact = intactFiles.remove(file);
+        if ((intact == null || intact != fileStamp(file))
+                && SaveChecksum.verify(file) == SaveChecksum.Result.CORRUPT) {
+            return;
+        }
+        Files.deleteIfExists(slots.backupFile(slot, generations).toPath());
+        for (int g = generations - 1; g >= 1; g--) {
+            File older = slots.backupFile(slot, g);
+            if (older.exists()) {
+                Files.move(older.toPath(), slots.backupFile(slot, g + 1).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        Files.move(file.toPath(), slots.backupFile(slot, 1).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Serializes a state to a stream, as pretty-printed JSON or as compressed compact JSON.
+     * The stream is flushed but not closed unless compression is used.
+     *
+     * @param state      GameState to serialize
+     * @param out        destination stream
+     * @param compressed true to deflate-compress the output
+     * @throws IOException if writing fails
+     */
+    static void encode(GameState state, OutputStream out, boolean compressed) throws IOException {
+        if (compressed) {
+            try (Writer writer = new OutputStreamWriter(SaveCompression.compress(out), StandardCharsets.UTF_8)) {
+                compactGson.toJson(state, writer);
+            }
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
             gson.toJson(state, writer);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Deserializes a state from a plain or compressed save stream.
+     *
+     * @param in stream of a save file
+     * @return the decoded GameState, or null for an empty document
+     * @throws IOException if reading fails
+     */
+    static GameState decode(InputStream in) throws IOException {
+        try (Reader reader = new InputStreamReader(SaveCompression.decode(in), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, GameState.class);
         }
     }
 
     /**
-     * Loads a saved GameState from the given slot.
+     * Loads a saved GameState from the given slot, including any journaled changes.
      *
-     * @param slot The save slot number (1, 2, or 3)
+     * @param slot The save slot number (1 or higher)
      * @return GameState loaded from JSON file, or null if file doesn't exist
      * @throws IOException if reading fails
      */
     public static GameState loadGame(int slot) throws IOException {
-        String filename = SAVE_DIR + "slot" + slot + ".json";
-        File file = new File(filename);
+        return store.loadGame(slot);
+    }
 
-        if (!file.exists()) return null;
+    /**
+     * Loads the GameState from a save slot on a background thread.
+     * Several slots can be loaded at the same time; each completes independently.
+     *
+     * @param slot The save slot number
+     * @return a future that completes with the GameState, or null if the slot is empty.
+     *         It completes exceptionally if reading fails.
+     */
+    public static CompletableFuture<GameState> loadGameAsync(int slot) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return loadGame(slot);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, loader);
+    }
 
-        try (FileReader reader = new FileReader(file)) {
-            return gson.fromJson(reader, GameState.class);
+    /**
+     * Returns the background pool used by {@link #loadGameAsync(int)}. Callers can use it for
+     * follow-up work on a loaded slot, such as decoding thumbnails.
+     *
+     * @return the shared background executor
+     */
+    public static ExecutorService backgroundExecutor() {
+        return loader;
+    }
+
+    /**
+     * Reads a slot's snapshot file and replays its journal on top of it.
+     * <p>
+     * If the snapshot fails its checksum or cannot be decoded, the newest valid backup
+     * generation is loaded instead. The journal is not replayed on a backup, since it
+     * belongs to the damaged snapshot.
+     *
+     * @param slots   slot file layout
+     * @param journal journal of the same slot layout
+     * @param slot    The save slot number
+     * @return the GameState, or null if the slot file doesn't exist
+     * @throws IOException if reading fails and no valid backup exists
+     */
+    static GameState readSlotFiles(SlotStore slots, SaveJournal journal, int slot) throws IOException {
+        File file = slots.slotFile(slot);
+
+        synchronized (slotLock(slot)) {
+            long start = System.nanoTime();
+            RuntimeException parseFailure = null;
+            IOException readFailure = null;
+            if (file.exists()) {
+                try {
+                    GameState state = readCheckedFile(file);
+                    intactFiles.put(file, fileStamp(file));
+                    if (state != null) {
+                        journal.replay(slot, state);
+                    }
+                    return state;
+                } catch (JsonParseException e) {
+                    parseFailure = e;
+                } catch (IOException e) {
+                    readFailure = e;
+                }
+            }
+
+            GameState recovered = readNewestBackup(slots, slot, start);
+            if (recovered != null) {
+                return recovered;
+            }
+            if (parseFailure != null) throw parseFailure;
+            if (readFailure != null) throw readFailure;
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a save file and verifies its checksum in the same pass over its bytes.
+     *
+     * @param file a slot or backup file
+     * @return the decoded GameState
+     * @throws IOException if the file is damaged or cannot be read
+     */
+    private static GameState readCheckedFile(File file) throws IOException {
+        long stored = SaveChecksum.storedChecksum(file);
+        CRC32C crc = new CRC32C();
+        GameState state;
+        try (CheckedInputStream checked = new CheckedInputStream(SaveChecksum.openPayload(file), crc);
+             InputStream decoded = SaveCompression.decode(checked)) {
+            state = gson.fromJson(new InputStreamReader(decoded, StandardCharsets.UTF_8), GameState.class);
+            // Checksum whatever the parser did not need to read
+            checked.transferTo(OutputStream.nullOutputStream());
+        }
+        if (stored >= 0 && crc.getValue() != stored) {
+            throw new IOException("Checksum mismatch in " + file);
+        }
+        return state;
+    }
+
+    /**
+     * Returns a stamp that changes whenever a file is rewritten.
+     *
+     * @param file a slot file
+     * @return the file's stamp, from its size and modification time
+     */
+    private static long fileStamp(File file) {
+        return 31 * file.lastModified() + file.length();
+    }
+
+    /**
+     * Loads the newest backup generation of a slot that passes its checksum and decodes.
+     *
+     * @param slots slot file layout
+     * @param slot  The save slot number
+     * @param start System.nanoTime() when the load started, for reporting recovery time
+     * @return the recovered GameState, or null if no backup is usable
+     */
+    private static GameState readNewestBackup(SlotStore slots, int slot, long start) {
+        for (int g = 1; ; g++) {
+            File backup = slots.backupFile(slot, g);
+            if (!backup.exists()) {
+                return null;
+            }
+            try {
+                GameState state = readCheckedFile(backup);
+                if (state != null) {
+                    lastRecoveryNanos = System.nanoTime() - start;
+                    System.err.printf("Recovered slot %d from backup %d in %.2f ms%n",
+                            slot, g, getLastRecoveryMillis());
+                    return state;
+                }
+            } catch (IOException | JsonParseException e) {
+                // Try the next older generation
+            }
         }
     }
 
@@ -110,22 +608,16 @@ public class SaveLoadManager {
      * Returns the number of existing save files in the saves directory.
      * Used to determine whether a new slot is available or replacement is needed.
      *
-     * @return the number of existing save slots (between 0–3)
+     * @return the number of existing save slots
      */
     public static int getSaveFileCounts() {
-        int count = 0;
-        for (int slot = 1; slot <= 3; slot++) {
-            File file = new File(SAVE_DIR + "slot" + slot + ".json");
-            if (file.exists()) {
-                count++;
-            }
-        }
-        return count;
+        return store.gameCount();
     }
 
     /**
-     * Finds the save slot (1–3) with the earliest creation time.
-     * Useful for replacing the oldest pet when all save slots are full.
+     * Finds the existing save slot with the earliest creation time.
+     * This loads every slot, so prefer {@link GameStore#allocateSlot()} when picking a slot
+     * to replace; it uses the in-memory least-recently-used order instead.
      *
      * @return the slot number with the oldest creation time, or -1 if none exist
      */
@@ -133,7 +625,7 @@ public class SaveLoadManager {
         LocalDateTime oldestTime = LocalDateTime.MAX;
         int oldestSlot = -1;
 
-        for (int slot = 1; slot <= 3; slot++) {
+        for (int slot : store.listAllGames()) {
             try {
                 GameState state = loadGame(slot);
                 if (state != null && state.getCreationTime() != null) {
@@ -142,8 +634,9 @@ public class SaveLoadManager {
                         oldestSlot = slot;
                     }
                 }
-            } catch (IOException e) {
-                // Ignore corrupted/missing files
+            } catch (IOException | JsonParseException e) {
+                // Skip slots with no readable file or backup
+                System.err.println("Skipping unreadable slot " + slot + ": " + e.getMessage());
             }
         }
 
@@ -3,6 +3,8 @@ import org.junit.jupiter.api.*;
 import java.io.IOException;
 import java.nio.file.*;
 import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -13,6 +15,7 @@ public class SaveLoadManagerTest {
         Files.createDirectories(Paths.get("saves/"));
         Files.list(Paths.get("saves/"))
                 .forEach(path -> path.toFile().delete());
+        SlotStore.getInstance().rescan();
     }
 
     @Test
@@ -41,4 +44,286 @@ public class SaveLoadManagerTest {
 
         assertThrows(Exception.class, () -> SaveLoadManager.loadGame(1));
     }
+
+    @Test
+    void autosave_Journaled_AppendsSmallRecordsAndReplaysOnLoad() throws IOException {
+        VirtualPet pet = new VirtualPet("test", PetType.SHEEP);
+        Inventory inventory = new Inventory();
+        inventory.addItem(new FoodItem("Apple", 5, 15));
+        GameState state = new GameState();
+        state.updateGameState(pet, inventory);
+
+        SaveLoadManager.autosave(state, 7);
+        long snapshotSize = SlotStore.getInstance().slotFile(7).length();
+
+        pet.setHealth(90);
+        inventory.removeItemByName("Apple", 2);
+        inventory.addItem(new GiftItem("Ball", 1, 20));
+        state.updateGameState(pet, inventory);
+        SaveLoadManager.autosave(state, 7);
+
+        // A single stat change costs one record of a few tens of bytes
+        long journalSize = SaveJournal.getInstance().journalFile(7).length();
+        pet.setHealth(89);
+        state.updateGameState(pet, inventory);
+        SaveLoadManager.autosave(state, 7);
+
+        assertEquals(snapshotSize, SlotStore.getInstance().slotFile(7).length());
+        long recordSize = SaveJournal.getInstance().journalFile(7).length() - journalSize;
+        assertTrue(recordSize > 0 && recordSize <= 64, "record size " + recordSize);
+
+        GameState loaded = SaveLoadManager.loadGame(7);
+        assertEquals(89, loaded.getHealth());
+        assertEquals(3, loaded.getInventory().getItemCount("Apple"));
+        assertEquals(1, loaded.getInventory().getItemCount("Ball"));
+        assertTrue(loaded.getInventory().getItemByName("Ball") instanceof GiftItem);
+    }
+
+    @Test
+    void saveGame_AfterJournaledAutosave_DiscardsJournal() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), new Inventory());
+        SaveLoadManager.autosave(state, 8);
+        state.setScore(100);
+        SaveLoadManager.autosave(state, 8);
+        assertTrue(SaveJournal.getInstance().journalFile(8).exists());
+
+        state.setScore(200);
+        SaveLoadManager.saveGame(state, 8);
+        assertFalse(SaveJournal.getInstance().journalFile(8).exists());
+        assertEquals(200, SaveLoadManager.loadGame(8).getScore());
+    }
+
+    @Test
+    void saveGame_Compressed_IsDetectedOnLoad() throws IOException {
+        GameState state = new GameState();
+        Inventory inventory = new Inventory();
+        for (int i = 0; i < 50; i++) {
+            inventory.addItem(new FoodItem("Food" + i, i + 1, 10));
+        }
+        state.updateGameState(new VirtualPet("test", PetType.DUCK), inventory);
+
+        SaveLoadManager.saveGame(state, 2);
+        long plainSize = SlotStore.getInstance().slotFile(2).length();
+        try {
+            SaveLoadManager.setCompressionEnabled(true);
+            SaveLoadManager.saveGame(state, 3);
+        } finally {
+            SaveLoadManager.setCompressionEnabled(false);
+        }
+        byte[] compressed = Files.readAllBytes(SlotStore.getInstance().slotFile(3).toPath());
+
+        assertTrue(compressed.length < plainSize / 4, compressed.length + " vs " + plainSize);
+        assertTrue(SaveCompression.isZlibHeader(compressed[0] & 0xff, compressed[1] & 0xff));
+        GameState loaded = SaveLoadManager.loadGame(3);
+        assertEquals("test", loaded.getPetName());
+        assertEquals(50, loaded.getInventory().getItemCount("Food49"));
+        assertEquals(50, loaded.getInventory().getItems().size());
+    }
+
+    @Test
+    void loadGame_CompressedRepeatedly_ReusesPooledInflater() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DUCK), new Inventory());
+        try {
+            SaveLoadManager.setCompressionEnabled(true);
+            SaveLoadManager.saveGame(state, 3);
+        } finally {
+            SaveLoadManager.setCompressionEnabled(false);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("test", SaveLoadManager.loadGame(3).getPetName());
+            assertTrue(SaveCompression.pooledInflaters() > 0, "inflater not returned after load " + i);
+        }
+    }
+
+    @Test
+    void loadGameAsync_SeveralSlots_CompleteInParallel() throws Exception {
+        for (int slot = 4; slot <= 6; slot++) {
+            GameState state = new GameState();
+            state.updateGameState(new VirtualPet("pet" + slot, PetType.DOG), new Inventory());
+            SaveLoadManager.saveGame(state, slot);
+        }
+
+        var first = SaveLoadManager.loadGameAsync(4);
+        var second = SaveLoadManager.loadGameAsync(5);
+        var third = SaveLoadManager.loadGameAsync(6);
+        var missing = SaveLoadManager.loadGameAsync(999);
+
+        assertEquals("pet4", first.get().getPetName());
+        assertEquals("pet5", second.get().getPetName());
+        assertEquals("pet6", third.get().getPetName());
+        assertNull(missing.get());
+    }
+
+    @Test
+    void saveIfVersion_StaleVersion_IsRejected() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.SHEEP), new Inventory());
+        SaveLoadManager.saveGame(state, 10);
+
+        GameState first = SaveLoadManager.loadGame(10);
+        GameState second = SaveLoadManager.loadGame(10);
+        first.setHealth(100);
+        second.setHealth(1);
+
+        assertTrue(SaveLoadManager.saveIfVersion(first, 10, first.getVersion()));
+        assertFalse(SaveLoadManager.saveIfVersion(second, 10, second.getVersion()));
+        GameState loaded = SaveLoadManager.loadGame(10);
+        assertEquals(100, loaded.getHealth());
+        assertEquals(2, loaded.getVersion());
+    }
+
+    @Test
+    void autosave_AfterExternalSave_KeepsExternalChange() throws IOException {
+        VirtualPet pet = new VirtualPet("test", PetType.DOG);
+        GameState running = new GameState();
+        running.updateGameState(pet, new Inventory());
+        assertTrue(SaveLoadManager.autosave(running, 11));
+        running.setHealth(10);
+        assertTrue(SaveLoadManager.autosave(running, 11));
+        assertEquals(running.getVersion(), SaveLoadManager.loadGame(11).getVersion());
+
+        GameState revived = SaveLoadManager.loadGame(11);
+        revived.setHealth(100);
+        assertTrue(SaveLoadManager.saveIfVersion(revived, 11, revived.getVersion()));
+
+        running.setHealth(5);
+        assertFalse(SaveLoadManager.autosave(running, 11));
+        assertEquals(100, SaveLoadManager.loadGame(11).getHealth());
+    }
+
+    @Test
+    void slotWatcher_ExternalWrite_NotifiesListener() throws Exception {
+        CountDownLatch changed = new CountDownLatch(1);
+        Runnable listener = changed::countDown;
+        SlotWatcher.getInstance().watch(12, listener);
+        try {
+            GameState state = new GameState();
+            state.updateGameState(new VirtualPet("test", PetType.DUCK), new Inventory());
+            SaveLoadManager.saveGame(state, 12);
+
+            assertTrue(changed.await(10, TimeUnit.SECONDS));
+        } finally {
+            SlotWatcher.getInstance().unwatch(12, listener);
+        }
+    }
+
+    @Test
+    void loadGame_LegacySave_IsMigratedAndRewrittenOnSave() throws IOException {
+        Files.writeString(Paths.get("saves/slot13.json"), "{\n"
+                + "  \"petName\": \"old\",\n"
+                + "  \"petType\": \"SHEEP\",\n"
+                + "  \"health\": 70,\n"
+                + "  \"inventory\": {\"items\": [{\"type\": \"FoodItem\", \"name\": \"Apple\", \"quantity\": 2, \"fullnessIncrease\": 10}]}\n"
+                + "}");
+        SlotStore.getInstance().rescan();
+
+        GameState loaded = SaveLoadManager.loadGame(13);
+        assertEquals("SHEEP", loaded.getPetType());
+        assertEquals(SaveMigrations.CURRENT_VERSION, loaded.getSchemaVersion());
+        assertTrue(loaded.getInventory().getItemByName("Apple") instanceof FoodItem);
+        assertFalse(Files.readString(Paths.get("saves/slot13.json")).contains(SaveMigrations.VERSION_FIELD));
+
+        SaveLoadManager.saveGame(loaded, 13);
+        assertTrue(Files.readString(Paths.get("saves/slot13.json")).contains(SaveMigrations.VERSION_FIELD));
+        assertEquals(2, SaveLoadManager.loadGame(13).getInventory().getItemCount("Apple"));
+    }
+
+    @Test
+    void loadGame_NewerSchemaVersion_ThrowsException() throws IOException {
+        Files.writeString(Paths.get("saves/slot14.json"),
+                "{\"schemaVersion\": " + (SaveMigrations.CURRENT_VERSION + 1) + ", \"petName\": \"future\"}");
+
+        assertThrows(Exception.class, () -> SaveLoadManager.loadGame(14));
+    }
+
+    @Test
+    void saveGame_KeepsRotatingBackupGenerations() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), new Inventory());
+        for (int i = 1; i <= SaveLoadManager.DEFAULT_BACKUP_GENERATIONS + 2; i++) {
+            state.setScore(i);
+            SaveLoadManager.saveGame(state, 15);
+        }
+
+        SlotStore slots = SlotStore.getInstance();
+        assertEquals(SaveChecksum.Result.VALID, SaveChecksum.verify(slots.slotFile(15)));
+        for (int g = 1; g <= SaveLoadManager.DEFAULT_BACKUP_GENERATIONS; g++) {
+            assertTrue(slots.backupFile(15, g).exists(), "generation " + g);
+        }
+        assertFalse(slots.backupFile(15, SaveLoadManager.DEFAULT_BACKUP_GENERATIONS + 1).exists());
+    }
+
+    @Test
+    void loadGame_CorruptedSlotWithBackup_FallsBackToNewestValidBackup() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.SHEEP), new Inventory());
+        state.setScore(1);
+        SaveLoadManager.saveGame(state, 16);
+        state.setScore(2);
+        SaveLoadManager.saveGame(state, 16);
+
+        // Flip one byte in the middle of the payload; the JSON stays well formed
+        Path slotFile = SlotStore.getInstance().slotFile(16).toPath();
+        byte[] bytes = Files.readAllBytes(slotFile);
+        int pos = new String(bytes).indexOf("\"score\": 2") + 9;
+        bytes[pos] = '7';
+        Files.write(slotFile, bytes);
+
+        assertEquals(SaveChecksum.Result.CORRUPT, SaveChecksum.verify(slotFile.toFile()));
+        GameState loaded = SaveLoadManager.loadGame(16);
+        assertEquals(1, loaded.getScore());
+        assertTrue(SaveLoadManager.getLastRecoveryMillis() >= 0);
+    }
+
+    @Test
+    void verify_LegacyFileWithoutTrailer_IsUnchecked() throws IOException {
+        Files.writeString(Paths.get("saves/slot17.json"), "{\"petName\": \"old\"}");
+        SlotStore.getInstance().rescan();
+
+        assertEquals(SaveChecksum.Result.UNCHECKED, SaveChecksum.verify(SlotStore.getInstance().slotFile(17)));
+        assertEquals("old", SaveLoadManager.loadGame(17).getPetName());
+    }
+
+    @Test
+    void loadGame_SaveCutShortWhileRotatingBackups_SlotStillListedAndLoaded() throws IOException {
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), new Inventory());
+        state.setScore(4);
+        SaveLoadManager.saveGame(state, 19);
+
+        // Crash after the slot file became backup 1, before the new file was moved in
+        SlotStore slots = SlotStore.getInstance();
+        Files.move(slots.slotFile(19).toPath(), slots.backupFile(19, 1).toPath());
+        slots.rescan();
+
+        assertTrue(SaveLoadManager.getStore().listAllGames().contains(19));
+        GameState loaded = SaveLoadManager.loadGame(19);
+        assertEquals(4, loaded.getScore());
+
+        loaded.setScore(5);
+        SaveLoadManager.saveGame(loaded, 19);
+        assertTrue(slots.slotFile(19).exists());
+        assertEquals(5, SaveLoadManager.loadGame(19).getScore());
+    }
+
+    @Test
+    void fileGameStore_OwnSlotStore_KeepsAllFilesInItsDirectory() throws IOException {
+        Path root = Files.createTempDirectory("slots");
+        SlotStore slots = new SlotStore(root + "/", SlotStore.DEFAULT_QUOTA);
+        FileGameStore store = new FileGameStore(slots, root.toFile());
+        GameState state = new GameState();
+        state.updateGameState(new VirtualPet("test", PetType.DOG), new Inventory());
+        store.saveGame(state, 18);
+        state.setScore(3);
+        store.saveGame(state, 18);
+
+        assertTrue(slots.slotFile(18).exists());
+        assertTrue(slots.backupFile(18, 1).exists());
+        assertFalse(SlotStore.getInstance().slotFile(18).exists());
+        assertEquals(3, store.loadGame(18).getScore());
+        assertEquals(0, SaveLoadManager.getStore().slotVersion(18));
+    }
 }
\ No newline at end of file
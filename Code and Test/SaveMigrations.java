@@ -0,0 +1,145 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Upgrades saved {@link GameState} documents written by older versions of the game.
+ * <p>
+ * Every save carries a {@code schemaVersion}. Files written before the field existed count as
+ * version 0. When a save is read, its JSON document is passed through the chain of migrations
+ * from its own version up to {@link #CURRENT_VERSION} before it is turned into a GameState, so
+ * old saves never need a bulk rewrite. The upgraded form reaches the disk the next time the
+ * slot is saved.
+ * <p>
+ * To change the save format, append a migration to {@link #MIGRATIONS}; the current version
+ * follows automatically. A migration only has to handle documents of the version right below
+ * its own.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Gson gson = new GsonBuilder()
+ *         .registerTypeAdapterFactory(SaveMigrations.adapterFactory())
+ *         .create();
+ * GameState state = gson.fromJson(oldJson, GameState.class); // upgraded on the fly
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SaveMigrations {
+
+    /** Name of the schema version field in a save document. */
+    public static final String VERSION_FIELD = "schemaVersion";
+
+    /**
+     * A single upgrade step of a save document, applied in place.
+     */
+    interface Migration {
+        /**
+         * Upgrades a document by one schema version.
+         *
+         * @param doc the save document to modify
+         */
+        void apply(JsonObject doc);
+    }
+
+    // MIGRATIONS.get(n) upgrades a document from version n to version n + 1
+    private static final List<Migration> MIGRATIONS = List.of(
+            SaveMigrations::stampFirstVersion
+    );
+
+    /** Schema version written by this version of the game. */
+    public static final int CURRENT_VERSION = MIGRATIONS.size();
+
+    private SaveMigrations() {
+    }
+
+    /**
+     * Returns a Gson factory that migrates GameState documents while they are read.
+     * Writing is left to the normal adapter.
+     *
+     * @return the migrating adapter factory
+     */
+    public static TypeAdapterFactory adapterFactory() {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                if (type.getRawType() != GameState.class) {
+                    return null;
+                }
+                TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+                TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+                return new TypeAdapter<T>() {
+                    @Override
+                    public void write(JsonWriter out, T value) throws IOException {
+                        delegate.write(out, value);
+                    }
+
+                    @Override
+                    public T read(JsonReader in) throws IOException {
+                        JsonElement tree = elements.read(in);
+                        if (tree != null && tree.isJsonObject()) {
+                            migrate(tree.getAsJsonObject());
+                        }
+                        return delegate.fromJsonTree(tree);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Returns the schema version of a save document.
+     *
+     * @param doc the save document
+     * @return its schema version, 0 if the document has none
+     */
+    public static int versionOf(JsonObject doc) {
+        JsonElement version = doc.get(VERSION_FIELD);
+        return (version == null || version.isJsonNull()) ? 0 : version.getAsInt();
+    }
+
+    /**
+     * Upgrades a save document in place to {@link #CURRENT_VERSION}.
+     *
+     * @param doc the save document
+     * @return true if the document was changed, false if it was already current
+     * @throws JsonParseException if the document was written by a newer version of the game
+     */
+    public static boolean migrate(JsonObject doc) {
+        int version = versionOf(doc);
+        if (version > CURRENT_VERSION) {
+            throw new JsonParseException("Save uses schema version " + version
+                    + ", newer than the supported version " + CURRENT_VERSION);
+        }
+        if (version == CURRENT_VERSION) {
+            return false;
+        }
+        for (int v = version; v < CURRENT_VERSION; v++) {
+            MIGRATIONS.get(v).apply(doc);
+        }
+        doc.addProperty(VERSION_FIELD, CURRENT_VERSION);
+        return true;
+    }
+
+    /**
+     * Version 0 to 1: saves from before schema versioning. Their layout is the same as that of
+     * version 1, so the step changes nothing; {@link #migrate(JsonObject)} stamps the version.
+     *
+     * @param doc the save document
+     */
+    private static void stampFirstVersion(JsonObject doc) {
+        // Nothing to convert
+    }
+}
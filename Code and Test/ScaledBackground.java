@@ -0,0 +1,144 @@
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * A background image kept scaled to the size it is drawn at, so drawing it is a plain copy.
+ * <p>
+ * Scaling the full-size background on every repaint is slow. Instead the background is scaled
+ * once into an image created by {@link GraphicsConfiguration#createCompatibleImage}, whose
+ * pixel format matches the screen and which Java2D can keep in video memory. The copy is made
+ * again only when the size it is drawn at changes, or when the window moves to a screen with
+ * another configuration or display scaling. On a high-DPI screen the copy has one pixel per
+ * device pixel, so it stays sharp.
+ * <p>
+ * An instance serves one component and is used from the thread that paints it.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * private final ScaledBackground background = new ScaledBackground("resources/background1.jpg");
+ *
+ * protected void paintComponent(Graphics g) {
+ *     super.paintComponent(g);
+ *     background.paint(g, getWidth(), getHeight(), getGraphicsConfiguration(), this::repaint);
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class ScaledBackground {
+
+    private final AssetManager assets;
+    private final String path;
+
+    // The scaled copy and what it was made for
+    private BufferedImage scaled;
+    private BufferedImage source;
+    private GraphicsConfiguration config;
+    private int width, height;
+    private double scaleX, scaleY;
+    private int renderCount;
+
+    /**
+     * Creates a background for an image loaded by the shared {@link AssetManager}.
+     *
+     * @param path path of the image file
+     */
+    public ScaledBackground(String path) {
+        this(AssetManager.getInstance(), path);
+    }
+
+    /**
+     * Creates a background for an image loaded by an asset manager.
+     *
+     * @param assets the asset manager loading the image
+     * @param path   path of the image file
+     */
+    ScaledBackground(AssetManager assets, String path) {
+        this.assets = assets;
+        this.path = path;
+    }
+
+    /**
+     * Draws the background over an area at the top left of a component.
+     *
+     * @param g       the component's graphics
+     * @param width   width of the area
+     * @param height  height of the area
+     * @param config  the component's graphics configuration, or null if it is not on screen
+     * @param onReady run on the event dispatch thread once the image is loaded, if it was not
+     *                loaded yet; may be null
+     * @return true if the background was drawn, false if the image is still loading or missing
+     */
+    public boolean paint(Graphics g, int width, int height, GraphicsConfiguration config, Runnable onReady) {
+        Image image = getScaled(width, height, config, onReady);
+        if (image == null) {
+            return false;
+        }
+        if (image.getWidth(null) == width && image.getHeight(null) == height) {
+            g.drawImage(image, 0, 0, null);
+        } else {
+            // Device pixels on a scaled screen: the graphics' scale maps them one to one
+            g.drawImage(image, 0, 0, width, height, null);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the background scaled for an area, scaling it again only if the area or the
+     * screen changed.
+     *
+     * @param width   width of the area
+     * @param height  height of the area
+     * @param config  the component's graphics configuration, or null if it is not on screen
+     * @param onReady run on the event dispatch thread once the image is loaded; may be null
+     * @return the scaled background in device pixels, or null if the image is still loading
+     *         or missing, or the area is empty
+     */
+    BufferedImage getScaled(int width, int height, GraphicsConfiguration config, Runnable onReady) {
+        BufferedImage image = assets.getImage(path, onReady);
+        if (image == null || width <= 0 || height <= 0) {
+            return null;
+        }
+        AffineTransform transform = config == null ? new AffineTransform() : config.getDefaultTransform();
+        double sx = transform.getScaleX();
+        double sy = transform.getScaleY();
+        if (scaled == null || image != source || config != this.config || width != this.width
+                || height != this.height || sx != scaleX || sy != scaleY) {
+            scaled = render(image, (int) Math.ceil(width * sx), (int) Math.ceil(height * sy), config);
+            source = image;
+            this.config = config;
+            this.width = width;
+            this.height = height;
+            scaleX = sx;
+            scaleY = sy;
+        }
+        return scaled;
+    }
+
+    /**
+     * @return how many times the background was scaled, for checking that the copy is reused
+     */
+    int getRenderCount() {
+        return renderCount;
+    }
+
+    private BufferedImage render(BufferedImage image, int width, int height, GraphicsConfiguration config) {
+        renderCount++;
+        BufferedImage target = config == null
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)
+                : config.createCompatibleImage(width, height, Transparency.OPAQUE);
+        Graphics g = target.createGraphics();
+        try {
+            g.drawImage(SpriteCache.scale(image, width, height), 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+}
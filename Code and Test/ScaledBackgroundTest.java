@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScaledBackgroundTest {
+
+    @TempDir
+    Path dir;
+
+    private ScaledBackground background;
+
+    @BeforeEach
+    void setup() throws Exception {
+        File file = dir.resolve("background1.jpg").toFile();
+        BufferedImage image = new BufferedImage(1600, 1000, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, 1600, 1000);
+        g.dispose();
+        ImageIO.write(image, "jpg", file);
+
+        AssetManager assets = new AssetManager(dir.toFile(), 2);
+        assets.preload(null).get(10, TimeUnit.SECONDS);
+        background = new ScaledBackground(assets, file.getPath());
+    }
+
+    @Test
+    void getScaled_Repaints_ScaledOnce() {
+        BufferedImage first = background.getScaled(880, 420, null, null);
+        assertEquals(880, first.getWidth());
+        assertEquals(420, first.getHeight());
+        for (int i = 0; i < 100; i++) {
+            assertSame(first, background.getScaled(880, 420, null, null));
+        }
+        assertEquals(1, background.getRenderCount());
+    }
+
+    @Test
+    void getScaled_Resized_ScaledAgain() {
+        BufferedImage first = background.getScaled(880, 420, null, null);
+        BufferedImage resized = background.getScaled(600, 300, null, null);
+        assertNotSame(first, resized);
+        assertEquals(600, resized.getWidth());
+        assertEquals(2, background.getRenderCount());
+    }
+
+    @Test
+    void paint_LoadedOrNot_DrawsOnlyWhenLoaded() {
+        BufferedImage canvas = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = canvas.createGraphics();
+        assertTrue(background.paint(g, 200, 100, null, null));
+        assertFalse(background.paint(g, 0, 100, null, null));
+        g.dispose();
+        Color pixel = new Color(canvas.getRGB(100, 50));
+        assertTrue(pixel.getRed() > 200 && pixel.getGreen() > 150, pixel.toString());
+
+        ScaledBackground missing = new ScaledBackground(new AssetManager(dir.toFile(), 1), dir.resolve("none.jpg").toString());
+        assertFalse(missing.paint(canvas.createGraphics(), 200, 100, null, null));
+    }
+}
@@ -79,10 +79,8 @@ public class SelectPetScreen extends JFrame {
 
         // Pet image
         JLabel petImageLabel = new JLabel();
-        ImageIcon icon = new ImageIcon(imagePath);
-        Image scaledImage = icon.getImage().getScaledInstance(100, 100, Image.SCALE_SMOOTH);
-        icon = new ImageIcon(scaledImage);
-        petImageLabel.setIcon(icon);
+        // Shows an empty space of the same size until the image is decoded
+        petImageLabel.setIcon(AssetManager.getInstance().getIcon(imagePath, 100, 100, petImageLabel::setIcon));
         petImageLabel.setAlignmentX(CENTER_ALIGNMENT);
 
         // Pet description text
@@ -184,19 +182,18 @@ public class SelectPetScreen extends JFrame {
 
 
                     try {
-                        int fileIndex;
-                        if (SaveLoadManager.getSaveFileCounts() < 3) {
-                            fileIndex = SaveLoadManager.getSaveFileCounts() + 1;
-                            System.out.println("Saving to next empty slot: slot " + fileIndex);
+                        GameStore store = SaveLoadManager.getStore();
+                        int fileIndex = store.allocateSlot();
+                        if (store.hasGame(fileIndex)) {
+                            System.out.println("All slots full. Replacing least recently used slot: slot " + fileIndex);
                         } else {
-                            fileIndex = SaveLoadManager.findOldestSlot();
-                            System.out.println("All slots full. Replacing oldest slot: slot " + fileIndex);
+                            System.out.println("Saving to next empty slot: slot " + fileIndex);
                         }
 
                         SaveLoadManager.saveGame(gameState, fileIndex);
 
                         // Launch the gameplay screen with the saved game file
-                        GamePlayScreen gamePlayScreen = new GamePlayScreen("saves/slot" + fileIndex + ".json");
+                        GamePlayScreen gamePlayScreen = new GamePlayScreen(fileIndex);
                         dispose();
                         parent.dispose();
 
@@ -0,0 +1,428 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log of running play sessions, so the time of a session survives a crash of the game.
+ * <p>
+ * Play time is normally recorded when a session ends. If the game is killed or crashes, that
+ * never happens. While a session runs, this log therefore gets a small fixed-size record every
+ * {@link #HEARTBEAT_SECONDS} seconds, and one more when the session ends. Each record is
+ * appended; nothing is read or rewritten, so a heartbeat costs the same however long the game
+ * runs.
+ * <p>
+ * At startup {@link #recover(Instant)} reads the log and returns every session that has no end
+ * record and was cut short: either the process that wrote it is no longer running, or its last
+ * heartbeat is older than {@link #STALE_AFTER}. Such a session is reported as having ended at
+ * its last heartbeat, so at most one heartbeat interval is lost. The sessions of other running
+ * copies of the game are kept, and the log is compacted to their latest heartbeats.
+ * <p>
+ * Several copies of the game may share the log, so every write holds an exclusive lock on a
+ * {@code .lock} file next to it, and the log is compacted by writing a temporary file that
+ * then replaces it.
+ * <p>
+ * File layout: an 8-byte header ({@code "VPHB"} and a format version) followed by 33-byte
+ * records {@code [byte kind][long sessionId][long processId][long startEpochNanos]
+ * [long timeEpochNanos]}, where kind is 'B' for a heartbeat and 'E' for the end of a session.
+ * Every record carries the session's start, so the latest one alone describes the session. A
+ * partial record left by a crash is ignored. Logs of format version 1 have 25-byte records
+ * without the process id and are converted on the next write.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * SessionHeartbeatLog log = SessionHeartbeatLog.getInstance();
+ * long session = log.begin(start);
+ * log.beat(session, Instant.now());     // every HEARTBEAT_SECONDS
+ * log.end(session, Instant.now());
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SessionHeartbeatLog {
+
+    /** Seconds between two heartbeats of a running session. */
+    public static final long HEARTBEAT_SECONDS = 30;
+
+    /** How long after its last heartbeat a session without an end counts as cut short. */
+    public static final Duration STALE_AFTER = Duration.ofSeconds(3 * HEARTBEAT_SECONDS);
+
+    /** Size in bytes of one record. */
+    public static final int RECORD_SIZE = 33;
+
+    /** Size in bytes of one record in a log of format version 1. */
+    static final int V1_RECORD_SIZE = 25;
+
+    private static final int MAGIC = 0x56504842; // "VPHB"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final byte BEAT = 'B';
+    private static final byte END = 'E';
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    /** Process id of records whose process is not known. */
+    private static final long UNKNOWN_PROCESS = 0;
+
+    // One monitor per log file, since a file lock cannot be taken twice in one process
+    private static final Map<Path, Object> fileMonitors = new ConcurrentHashMap<>();
+
+    private static SessionHeartbeatLog instance;
+
+    private final File file;
+    private final File lockFile;
+    private final Object fileMonitor;
+    private final long processId;
+    // Sessions of this process that have not ended, with their start
+    private final Map<Long, Long> running = new HashMap<>();
+
+    /**
+     * Creates a log kept in a file.
+     *
+     * @param file the log file, created with the first session
+     */
+    public SessionHeartbeatLog(File file) {
+        this(file, ProcessHandle.current().pid());
+    }
+
+    /**
+     * Creates a log written as if by another process, for tests.
+     *
+     * @param file      the log file
+     * @param processId id of the process the sessions are recorded for
+     */
+    SessionHeartbeatLog(File file, long processId) {
+        this.file = file;
+        this.lockFile = new File(file.getPath() + ".lock");
+        this.fileMonitor = fileMonitors.computeIfAbsent(file.getAbsoluteFile().toPath().normalize(), p -> new Object());
+        this.processId = processId;
+    }
+
+    /**
+     * Returns the log in the working directory.
+     *
+     * @return the shared SessionHeartbeatLog instance
+     */
+    public static synchronized SessionHeartbeatLog getInstance() {
+        if (instance == null) {
+            instance = new SessionHeartbeatLog(new File("session_heartbeats.dat"));
+        }
+        return instance;
+    }
+
+    /**
+     * Records the start of a session.
+     *
+     * @param start when the session started
+     * @return id of the new session
+     */
+    public synchronized long begin(Instant start) {
+        long id = ThreadLocalRandom.current().nextLong();
+        long startNanos = PlayTimeLedger.toEpochNanos(start);
+        running.put(id, startNanos);
+        append(new Record(BEAT, id, processId, startNanos, startNanos));
+        return id;
+    }
+
+    /**
+     * Records that a session is still running.
+     *
+     * @param session id returned by {@link #begin(Instant)}
+     * @param now     the current time
+     */
+    public synchronized void beat(long session, Instant now) {
+        Long start = running.get(session);
+        if (start != null) {
+            append(new Record(BEAT, session, processId, start, PlayTimeLedger.toEpochNanos(now)));
+        }
+    }
+
+    /**
+     * Records the end of a session. Only the session's own end is added: sessions of crashed
+     * or other running copies of the game stay in the log.
+     *
+     * @param session id returned by {@link #begin(Instant)}
+     * @param end     when the session ended
+     */
+    public synchronized void end(long session, Instant end) {
+        Long start = running.remove(session);
+        if (start != null) {
+            append(new Record(END, session, processId, start, PlayTimeLedger.toEpochNanos(end)));
+        }
+    }
+
+    /**
+     * Finds the sessions that were cut short and compacts the log to the latest heartbeat of
+     * the sessions that are still running.
+     *
+     * @param now the current time
+     * @return each session cut short, ending at its last heartbeat
+     */
+    public synchronized List<Session> recover(Instant now) {
+        List<Session> lost = new ArrayList<>();
+        long staleBefore = PlayTimeLedger.toEpochNanos(now.minus(STALE_AFTER));
+        try {
+            withFileLock(() -> {
+                if (!file.exists()) {
+                    return;
+                }
+                Map<Long, Record> latest = new LinkedHashMap<>();
+                Set<Long> ended = new HashSet<>();
+                for (Record record : read()) {
+                    if (record.kind == END) {
+                        ended.add(record.session);
+                    } else {
+                        latest.put(record.session, record);
+                    }
+                }
+
+                List<Record> keep = new ArrayList<>();
+                for (Record record : latest.values()) {
+                    if (ended.contains(record.session)) {
+                        continue;
+                    }
+                    boolean cutShort = record.time < staleBefore || !isAlive(record.processId);
+                    if (cutShort && !running.containsKey(record.session)) {
+                        lost.add(new Session(toInstant(record.start), toInstant(record.time)));
+                    } else {
+                        keep.add(record);
+                    }
+                }
+                rewrite(keep);
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to recover session heartbeats: " + e.getMessage());
+            lost.clear();
+        }
+        return lost;
+    }
+
+    /**
+     * Tells whether the process that wrote a record still runs. Unknown processes count as
+     * running, so only their heartbeat's age decides.
+     */
+    private boolean isAlive(long pid) {
+        if (pid == UNKNOWN_PROCESS || pid == processId) {
+            return true;
+        }
+        return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+    }
+
+    /**
+     * Reads every complete record. Must hold the file lock.
+     *
+     * @return the records in the order they were written
+     * @throws IOException if the file cannot be read or is not a heartbeat log
+     */
+    private List<Record> read() throws IOException {
+        List<Record> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return records;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Not a session heartbeat log: " + file);
+            }
+            int recordSize = version == 1 ? V1_RECORD_SIZE : RECORD_SIZE;
+            long end = HEADER_SIZE + (size - HEADER_SIZE) / recordSize * recordSize;
+            ByteBuffer buf = ByteBuffer.allocate((int) (end - HEADER_SIZE));
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, HEADER_SIZE + buf.position()) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+            buf.flip();
+            while (buf.hasRemaining()) {
+                byte kind = buf.get();
+                long session = buf.getLong();
+                long pid = version == 1 ? UNKNOWN_PROCESS : buf.getLong();
+                long start = buf.getLong();
+                long time = buf.getLong();
+                records.add(new Record(kind, session, pid, start, time));
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record, first converting a log of an older format.
+     */
+    private void append(Record record) {
+        try {
+            withFileLock(() -> {
+                if (file.length() >= HEADER_SIZE && readVersion() != FORMAT_VERSION) {
+                    rewrite(read());
+                }
+                try (FileChannel channel = FileChannel.open(file.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    long size = channel.size();
+                    if (size < HEADER_SIZE) {
+                        channel.truncate(0);
+                        channel.write(header());
+                    } else if ((size - HEADER_SIZE) % RECORD_SIZE != 0) {
+                        // Drop a partial record left by a crash so the following ones stay aligned
+                        channel.truncate(HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE);
+                    }
+                    ByteBuffer buf = record.encode();
+                    while (buf.hasRemaining()) {
+                        channel.write(buf);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Failed to write session heartbeat: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the log with the given records by writing a temporary file and moving it over
+     * the log. Must hold the file lock.
+     */
+    private void rewrite(List<Record> records) throws IOException {
+        Path tmp = new File(file.getPath() + ".tmp").toPath();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + records.size() * RECORD_SIZE);
+        buf.put(header());
+        for (Record record : records) {
+            buf.put(record.encode());
+        }
+        buf.flip();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private int readVersion() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            return header.getInt() == MAGIC ? header.getInt() : -1;
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        return header;
+    }
+
+    /**
+     * Runs a file operation holding the lock shared by every process using this log.
+     */
+    private void withFileLock(FileAction action) throws IOException {
+        synchronized (fileMonitor) {
+            try (FileChannel lockChannel = FileChannel.open(lockFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    action.run();
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * A file operation run under the file lock.
+     */
+    private interface FileAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * One record of the log.
+     */
+    private static final class Record {
+        private final byte kind;
+        private final long session;
+        private final long processId;
+        private final long start;
+        private final long time;
+
+        Record(byte kind, long session, long processId, long start, long time) {
+            this.kind = kind;
+            this.session = session;
+            this.processId = processId;
+            this.start = start;
+            this.time = time;
+        }
+
+        ByteBuffer encode() {
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE);
+            buf.put(kind).putLong(session).putLong(processId).putLong(start).putLong(time).flip();
+            return buf;
+        }
+    }
+
+    /**
+     * A session that was cut short.
+     */
+    public static final class Session {
+        private final Instant start;
+        private final Instant lastBeat;
+
+        Session(Instant start, Instant lastBeat) {
+            this.start = start;
+            this.lastBeat = lastBeat;
+        }
+
+        /**
+         * @return when the session started
+         */
+        public Instant getStart() {
+            return start;
+        }
+
+        /**
+         * @return the session's last heartbeat, taken as its end
+         */
+        public Instant getLastBeat() {
+            return lastBeat;
+        }
+
+        /**
+         * @return time played in the session up to its last heartbeat
+         */
+        public Duration getDuration() {
+            return Duration.between(start, lastBeat);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionHeartbeatLogTest {
+
+    private static final Instant T0 = Instant.parse("2024-05-15T18:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private File file;
+
+    @BeforeEach
+    void setup() {
+        file = dir.resolve("heartbeats.dat").toFile();
+    }
+
+    @Test
+    void recover_CrashedSession_EndsAtLastHeartbeat() {
+        SessionHeartbeatLog crashed = new SessionHeartbeatLog(file);
+        long session = crashed.begin(T0);
+        crashed.beat(session, T0.plusSeconds(30));
+        crashed.beat(session, T0.plusSeconds(60));
+
+        // The next start of the game finds the session without an end
+        SessionHeartbeatLog restarted = new SessionHeartbeatLog(file);
+        List<SessionHeartbeatLog.Session> lost = restarted.recover(T0.plusSeconds(600));
+        assertEquals(1, lost.size());
+        assertEquals(T0, lost.get(0).getStart());
+        assertEquals(T0.plusSeconds(60), lost.get(0).getLastBeat());
+
+        assertTrue(restarted.recover(T0.plusSeconds(700)).isEmpty());
+    }
+
+    @Test
+    void end_LastSession_EndRecordedAndNothingRecovered() {
+        SessionHeartbeatLog log = new SessionHeartbeatLog(file);
+        long first = log.begin(T0);
+        long second = log.begin(T0.plusSeconds(5));
+        log.beat(first, T0.plusSeconds(30));
+        log.end(first, T0.plusSeconds(40));
+        log.end(second, T0.plusSeconds(50));
+        assertEquals(8 + 5 * SessionHeartbeatLog.RECORD_SIZE, file.length());
+
+        assertTrue(new SessionHeartbeatLog(file).recover(T0.plusSeconds(600)).isEmpty());
+        assertEquals(8, file.length());
+    }
+
+    @Test
+    void recover_CrashThenQuickRestart_RecoversSessionOfDeadProcess() {
+        // A process that no longer runs played for ten minutes and crashed
+        SessionHeartbeatLog crashed = new SessionHeartbeatLog(file, Long.MAX_VALUE);
+        long session = crashed.begin(T0);
+        for (int i = 1; i <= 20; i++) {
+            crashed.beat(session, T0.plusSeconds(30L * i));
+        }
+
+        // The game is started again 20 seconds later, and a new session begins and ends
+        SessionHeartbeatLog restarted = new SessionHeartbeatLog(file);
+        long next = restarted.begin(T0.plusSeconds(620));
+        restarted.end(next, T0.plusSeconds(700));
+
+        List<SessionHeartbeatLog.Session> lost = restarted.recover(T0.plusSeconds(620));
+        assertEquals(1, lost.size());
+        assertEquals(600, lost.get(0).getDuration().getSeconds());
+        assertTrue(restarted.recover(T0.plusSeconds(3600)).isEmpty());
+    }
+
+    @Test
+    void recover_QuickRestartOfUnknownProcess_RecoveredOnceStale() {
+        SessionHeartbeatLog crashed = new SessionHeartbeatLog(file, 0);
+        long session = crashed.begin(T0);
+        crashed.beat(session, T0.plusSeconds(600));
+
+        // Too early to tell the session from one still running: it stays in the log
+        SessionHeartbeatLog restarted = new SessionHeartbeatLog(file);
+        assertTrue(restarted.recover(T0.plusSeconds(620)).isEmpty());
+        long next = restarted.begin(T0.plusSeconds(620));
+        restarted.end(next, T0.plusSeconds(700));
+
+        List<SessionHeartbeatLog.Session> lost = new SessionHeartbeatLog(file).recover(T0.plusSeconds(3600));
+        assertEquals(1, lost.size());
+        assertEquals(600, lost.get(0).getDuration().getSeconds());
+    }
+
+    @Test
+    void recover_RecentHeartbeatAndPartialRecord_KeepsRunningSession() throws IOException {
+        SessionHeartbeatLog other = new SessionHeartbeatLog(file);
+        long session = other.begin(T0);
+        other.beat(session, T0.plusSeconds(30));
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] { 'B', 1, 2, 3 });
+        }
+
+        // Another copy of the game is still running that session
+        assertTrue(new SessionHeartbeatLog(file).recover(T0.plusSeconds(45)).isEmpty());
+
+        List<SessionHeartbeatLog.Session> lost = new SessionHeartbeatLog(file).recover(T0.plusSeconds(3600));
+        assertEquals(1, lost.size());
+        assertEquals(30, lost.get(0).getDuration().getSeconds());
+    }
+}
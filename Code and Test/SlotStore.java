@@ -0,0 +1,380 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps track of which save slots exist on disk and where each slot file lives.
+ * <p>
+ * Slots are numbered from 1 with no upper bound. To keep directory listings small, slot files
+ * are fanned out into shard directories of {@link #SHARD_SIZE} slots each: slots 1–999 stay
+ * directly in the save directory (so existing {@code saves/slotN.json} files keep working),
+ * slots 1000–1999 go into {@code saves/001/}, and so on.
+ * <p>
+ * The store builds an in-memory index the first time it is used, which allows paged listing
+ * without touching the disk again. It also remembers the order in which slots were used so that,
+ * once the slot quota is reached, the least recently used slot is handed out for replacement.
+ * <p>
+ * While a save rotates its backups the slot briefly exists only as its newest backup
+ * ({@code slotN.json.1}). A slot left that way by a crash is still indexed, and loading it
+ * falls back to the backup; its next save writes the slot file again.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * SlotStore store = SlotStore.getInstance();
+ *
+ * // Slot to use for a brand new pet (a free slot, or the LRU slot if the quota is hit)
+ * int slot = store.allocateSlot();
+ *
+ * // Second page of slots, 3 slots per page
+ * List<Integer> page = store.listSlots(1, 3);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SlotStore {
+
+    /** Maximum number of slot files kept in one directory. */
+    public static final int SHARD_SIZE = 1000;
+
+    /** Default maximum number of slots before old pets are replaced. */
+    public static final int DEFAULT_QUOTA = 10000;
+
+    private static final Pattern SLOT_FILE = Pattern.compile("slot(\\d+)\\.json");
+    private static final Pattern NEWEST_BACKUP = Pattern.compile("slot(\\d+)\\.json\\.1");
+    private static final Pattern SHARD_DIR = Pattern.compile("\\d{3,}");
+
+    private static SlotStore instance;
+
+    private final File root;
+    private int quota;
+
+    // Sorted slot numbers, used for paged listing
+    private final TreeSet<Integer> slots = new TreeSet<>();
+    // Slot number -> last use time, in least-recently-used-first order
+    private final LinkedHashMap<Integer, Long> usage = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean indexed = false;
+
+    /**
+     * Creates a store rooted at the given directory.
+     *
+     * @param rootDir directory holding the slot files
+     * @param quota   maximum number of slots before the LRU slot is replaced
+     */
+    public SlotStore(String rootDir, int quota) {
+        this.root = new File(rootDir);
+        setQuota(quota);
+    }
+
+    /**
+     * Returns the shared store for the default {@code saves/} directory.
+     *
+     * @return the shared SlotStore instance
+     */
+    public static synchronized SlotStore getInstance() {
+        if (instance == null) {
+            instance = new SlotStore("saves/", DEFAULT_QUOTA);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the maximum number of slots kept before replacing old ones.
+     *
+     * @return the slot quota
+     */
+    public synchronized int getQuota() {
+        return quota;
+    }
+
+    /**
+     * Sets the maximum number of slots kept before replacing old ones.
+     *
+     * @param quota the new slot quota, at least 1
+     */
+    public synchronized void setQuota(int quota) {
+        if (quota < 1) {
+            throw new IllegalArgumentException("Slot quota must be at least 1");
+        }
+        this.quota = quota;
+    }
+
+    /**
+     * Returns the directory that holds the slot files.
+     *
+     * @return the root save directory
+     */
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the shard directory that holds the file for the given slot.
+     *
+     * @param slot the save slot number
+     * @return directory of the slot file
+     */
+    public File shardDir(int slot) {
+        if (slot < 1) {
+            throw new IllegalArgumentException("Invalid save slot: " + slot);
+        }
+        int shard = slot / SHARD_SIZE;
+        return shard == 0 ? root : new File(root, String.format("%03d", shard));
+    }
+
+    /**
+     * Returns the file that holds the given slot. The file may not exist yet.
+     *
+     * @param slot the save slot number
+     * @return the slot file
+     */
+    public File slotFile(int slot) {
+        return new File(shardDir(slot), "slot" + slot + ".json");
+    }
+
+    /**
+     * Returns the file that holds an older copy of the given slot. Generation 1 is the newest
+     * backup. The file may not exist.
+     *
+     * @param slot       the save slot number
+     * @param generation backup generation, 1 or higher
+     * @return the backup file next to the slot file
+     */
+    public File backupFile(int slot, int generation) {
+        return new File(shardDir(slot), "slot" + slot + ".json." + generation);
+    }
+
+    /**
+     * Parses the slot number from a slot file name such as {@code saves/001/slot1234.json}.
+     *
+     * @param path path or name of a slot file
+     * @return the slot number, or -1 if the name is not a slot file
+     */
+    public static int parseSlot(String path) {
+        Matcher m = SLOT_FILE.matcher(new File(path).getName());
+        return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+    }
+
+    /**
+     * Returns the number of existing slots.
+     *
+     * @return number of slots that currently have a save file
+     */
+    public synchronized int size() {
+        ensureIndexed();
+        return slots.size();
+    }
+
+    /**
+     * Checks whether a slot currently has a save file.
+     *
+     * @param slot the save slot number
+     * @return true if the slot exists
+     */
+    public synchronized boolean exists(int slot) {
+        ensureIndexed();
+        return slots.contains(slot);
+    }
+
+    /**
+     * Returns one page of existing slot numbers in ascending order.
+     *
+     * @param page     zero-based page index
+     * @param pageSize number of slots per page
+     * @return slot numbers on that page, empty if the page is past the end
+     */
+    public synchronized List<Integer> listSlots(int page, int pageSize) {
+        ensureIndexed();
+        List<Integer> result = new ArrayList<>();
+        long skip = (long) page * pageSize;
+        if (page < 0 || pageSize <= 0 || skip >= slots.size()) {
+            return result;
+        }
+        Iterator<Integer> it = slots.iterator();
+        for (int i = 0; i < skip; i++) {
+            it.next();
+        }
+        while (it.hasNext() && result.size() < pageSize) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * Returns all existing slot numbers in ascending order.
+     *
+     * @return an unmodifiable snapshot of all slot numbers
+     */
+    public synchronized List<Integer> listAllSlots() {
+        ensureIndexed();
+        return Collections.unmodifiableList(new ArrayList<>(slots));
+    }
+
+    /**
+     * Returns how many pages are needed to list every slot.
+     *
+     * @param pageSize number of slots per page
+     * @return number of pages, at least 1
+     */
+    public synchronized int pageCount(int pageSize) {
+        ensureIndexed();
+        return Math.max(1, (slots.size() + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Records that a slot was written, adding it to the index if it is new.
+     *
+     * @param slot the save slot number
+     */
+    public synchronized void recordSave(int slot) {
+        ensureIndexed();
+        slots.add(slot);
+        usage.put(slot, System.currentTimeMillis());
+    }
+
+    /**
+     * Records that a slot was read, moving it to the most recently used end.
+     *
+     * @param slot the save slot number
+     */
+    public synchronized void touch(int slot) {
+        ensureIndexed();
+        if (slots.contains(slot)) {
+            usage.put(slot, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Removes a slot from the index. The file itself is not deleted.
+     *
+     * @param slot the save slot number
+     */
+    public synchronized void forget(int slot) {
+        ensureIndexed();
+        slots.remove(slot);
+        usage.remove(slot);
+    }
+
+    /**
+     * Picks the slot to use for a new pet. Returns the lowest free slot number while the quota
+     * has not been reached, otherwise the least recently used slot, which will be overwritten.
+     *
+     * @return slot number to save the new pet into
+     */
+    public synchronized int allocateSlot() {
+        ensureIndexed();
+        if (slots.size() >= quota) {
+            return findLeastRecentlyUsed();
+        }
+        return firstFreeSlot(slots);
+    }
+
+    /**
+     * Returns the lowest slot number, starting at 1, that is not in the given set.
+     *
+     * @param slots sorted set of used slot numbers
+     * @return the lowest free slot number
+     */
+    static int firstFreeSlot(SortedSet<Integer> slots) {
+        if (slots.isEmpty() || slots.last() == slots.size()) {
+            // Slots are packed from 1, so the next free one is at the end
+            return slots.size() + 1;
+        }
+        int candidate = 1;
+        for (int slot : slots) {
+            if (slot != candidate) {
+                break;
+            }
+            candidate++;
+        }
+        return candidate;
+    }
+
+    /**
+     * Returns the slot that has gone unused for the longest time.
+     *
+     * @return least recently used slot number, or -1 if there are no slots
+     */
+    public synchronized int findLeastRecentlyUsed() {
+        ensureIndexed();
+        for (Map.Entry<Integer, Long> entry : usage.entrySet()) {
+            return entry.getKey();
+        }
+        return -1;
+    }
+
+    /**
+     * Drops the in-memory index so the next call scans the save directory again.
+     * Needed only when slot files are added or deleted behind the store's back.
+     */
+    public synchronized void rescan() {
+        indexed = false;
+        slots.clear();
+        usage.clear();
+    }
+
+    /**
+     * Builds the index by scanning the save directory and its shard directories once.
+     * Existing slots are ordered for LRU purposes by their file modification time.
+     */
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        List<File> found = new ArrayList<>();
+        collectSlotFiles(root, found);
+        File[] shards = root.listFiles(f -> f.isDirectory() && SHARD_DIR.matcher(f.getName()).matches());
+        if (shards != null) {
+            for (File shard : shards) {
+                collectSlotFiles(shard, found);
+            }
+        }
+
+        found.sort((a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : found) {
+            int slot = indexedSlot(file.getName());
+            slots.add(slot);
+            usage.put(slot, file.lastModified());
+        }
+        indexed = true;
+    }
+
+    /**
+     * Parses the slot number from the name of a file the index is built from.
+     *
+     * @param name a slot file name, or the name of a slot's newest backup, which is all that
+     *             is left of a slot whose save was cut short while rotating backups
+     * @return the slot number, or -1 if the name is neither
+     */
+    private static int indexedSlot(String name) {
+        Matcher m = SLOT_FILE.matcher(name);
+        if (m.matches()) {
+            return Integer.parseInt(m.group(1));
+        }
+        m = NEWEST_BACKUP.matcher(name);
+        return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+    }
+
+    /**
+     * Adds every slot file and newest backup directly inside the given directory to the list.
+     *
+     * @param dir   directory to scan
+     * @param found list that receives the files
+     */
+    private static void collectSlotFiles(File dir, List<File> found) {
+        File[] files = dir.listFiles((d, name) -> SLOT_FILE.matcher(name).matches()
+                || NEWEST_BACKUP.matcher(name).matches());
+        if (files != null) {
+            Collections.addAll(found, files);
+        }
+    }
+}
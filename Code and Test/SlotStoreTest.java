@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlotStoreTest {
+
+    @TempDir
+    Path saveDir;
+
+    private SlotStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new SlotStore(saveDir.toString(), 3);
+    }
+
+    private void createSlot(int slot) throws IOException {
+        File file = store.slotFile(slot);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), "{}");
+        store.recordSave(slot);
+    }
+
+    @Test
+    void slotFile_LowSlotsStayInRoot_HighSlotsAreSharded() {
+        assertEquals(saveDir.resolve("slot1.json").toFile(), store.slotFile(1));
+        assertEquals(saveDir.resolve("001").resolve("slot1234.json").toFile(), store.slotFile(1234));
+        assertEquals(1234, SlotStore.parseSlot(store.slotFile(1234).getPath()));
+    }
+
+    @Test
+    void allocateSlot_FillsGapsThenEvictsLeastRecentlyUsed() throws IOException {
+        assertEquals(1, store.allocateSlot());
+        createSlot(1);
+        createSlot(3);
+        assertEquals(2, store.allocateSlot());
+        createSlot(2);
+
+        // Quota of 3 reached: slot 1 was used longest ago until it is touched
+        assertEquals(1, store.allocateSlot());
+        store.touch(1);
+        assertEquals(3, store.allocateSlot());
+    }
+
+    @Test
+    void listSlots_ReturnsPagesInOrderAcrossShards() throws IOException {
+        store.setQuota(SlotStore.DEFAULT_QUOTA);
+        for (int slot : new int[]{2500, 7, 1001, 3, 999}) {
+            createSlot(slot);
+        }
+
+        SlotStore reopened = new SlotStore(saveDir.toString(), SlotStore.DEFAULT_QUOTA);
+        assertEquals(5, reopened.size());
+        assertEquals(2, reopened.pageCount(3));
+        assertEquals(Arrays.asList(3, 7, 999), reopened.listSlots(0, 3));
+        assertEquals(Arrays.asList(1001, 2500), reopened.listSlots(1, 3));
+        assertTrue(reopened.listSlots(2, 3).isEmpty());
+    }
+}
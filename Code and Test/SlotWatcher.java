@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Notifies listeners when the files of a save slot change on disk, so a running game can pick up
+ * an edit made elsewhere (for example a revive from the parental controls) within moments.
+ * <p>
+ * The watcher uses the platform's file change notifications on the save directories, so it costs
+ * nothing while no files change. Events that arrive close together, such as a snapshot write
+ * followed by a journal delete, are coalesced into one notification per slot. Listeners are also
+ * called for the game's own writes; they are expected to compare the slot version (see
+ * {@link GameStore#slotVersion(int)}) with the version they hold and ignore the call if nothing
+ * new was written.
+ * <p>
+ * Listeners run on the watcher thread and must hand any UI work to the event dispatch thread.
+ * <p>
+ * Only the files of the {@link FileGameStore} backend are watched. Slots kept in a
+ * {@link KeyValueGameStore} have no files of their own, so no notifications arrive for them.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * Runnable listener = () -> SwingUtilities.invokeLater(this::checkForExternalChanges);
+ * SlotWatcher.getInstance().watch(slot, listener);
+ * ...
+ * SlotWatcher.getInstance().unwatch(slot, listener);
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SlotWatcher {
+
+    /** Time to wait for more events before notifying, in milliseconds. */
+    private static final long COALESCE_MILLIS = 50;
+
+    private static final Pattern SLOT_FILE = Pattern.compile("slot(\\d+)\\.(json|journal)");
+
+    private static SlotWatcher instance;
+
+    private final SlotStore slots;
+    // Slot -> listeners to call when its files change
+    private final Map<Integer, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    // Directories registered with the watch service
+    private final Map<Path, WatchKey> watchedDirs = new ConcurrentHashMap<>();
+    private WatchService watchService;
+
+    /**
+     * Creates a watcher for the slots of a slot layout.
+     *
+     * @param slots slot file layout whose directories are watched
+     */
+    public SlotWatcher(SlotStore slots) {
+        this.slots = slots;
+    }
+
+    /**
+     * Returns the watcher of the shared slot layout.
+     *
+     * @return the shared SlotWatcher instance
+     */
+    public static synchronized SlotWatcher getInstance() {
+        if (instance == null) {
+            instance = new SlotWatcher(SlotStore.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Starts calling the listener whenever the given slot's files change.
+     *
+     * @param slot     the save slot number
+     * @param listener called on the watcher thread after a change
+     * @throws IOException if the save directory cannot be watched
+     */
+    public synchronized void watch(int slot, Runnable listener) throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread thread = new Thread(this::run, "slot-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Path dir = slots.shardDir(slot).toPath().toAbsolutePath();
+        WatchKey key = watchedDirs.get(dir);
+        // A key turns invalid when its directory is deleted, so register the new one
+        if (key == null || !key.isValid()) {
+            dir.toFile().mkdirs();
+            watchedDirs.put(dir, dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE));
+        }
+        listeners.computeIfAbsent(slot, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Stops calling a listener registered with {@link #watch(int, Runnable)}.
+     *
+     * @param slot     the save slot number
+     * @param listener the listener to remove
+     */
+    public void unwatch(int slot, Runnable listener) {
+        List<Runnable> slotListeners = listeners.get(slot);
+        if (slotListeners != null) {
+            slotListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Waits for file events, coalesces them per slot and notifies the listeners.
+     */
+    private void run() {
+        try {
+            while (true) {
+                Set<Integer> changed = new HashSet<>();
+                boolean overflow = drain(watchService.take(), changed);
+                // Give the writer a moment to finish, so one save gives one notification
+                WatchKey key;
+                while ((key = watchService.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= drain(key, changed);
+                }
+
+                if (overflow) {
+                    changed.addAll(listeners.keySet());
+                }
+                for (int slot : changed) {
+                    notifyListeners(slot);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher shut down
+        }
+    }
+
+    /**
+     * Collects the slots touched by the events of one key and re-arms the key.
+     *
+     * @param key     a signalled watch key
+     * @param changed set that receives the changed slot numbers
+     * @return true if events were lost and every slot should be treated as changed
+     */
+    private static boolean drain(WatchKey key, Set<Integer> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Matcher m = SLOT_FILE.matcher(event.context().toString());
+            if (m.matches()) {
+                changed.add(Integer.parseInt(m.group(1)));
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    /**
+     * Calls every listener of a slot, isolating failures.
+     *
+     * @param slot the save slot number
+     */
+    private void notifyListeners(int slot) {
+        List<Runnable> slotListeners = listeners.get(slot);
+        if (slotListeners == null) {
+            return;
+        }
+        for (Runnable listener : slotListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Slot listener failed for slot " + slot + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded cache of pet sprites, scaled once per pet type, state and size.
+ * <p>
+ * The game screen shows a sprite from {@code resources/<type>/<state>.png} for the pet's
+ * current state. The sprites come from the {@link TextureAtlas}, so they are decoded together
+ * in one image; at the atlas's {@linkplain TextureAtlas#SPRITE_SIZE sprite size} the sprite is
+ * drawn straight from the atlas, and other sizes are scaled once and kept as a ready-to-draw
+ * {@link BufferedImage}. Once every state has been shown, showing a sprite scales nothing.
+ * <p>
+ * The cache holds at most {@link #DEFAULT_CAPACITY} sprites and drops the least recently used
+ * one when it is full. A sprite file that is missing or unreadable is remembered as well, so
+ * it is not tried again on every tick.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BufferedImage sprite = SpriteCache.getInstance().get("duck", VirtualPet.PetState.ANGRY, 200, 200);
+ * if (sprite != null) {
+ *     petLabel.setIcon(new ImageIcon(sprite));
+ * }
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class SpriteCache {
+
+    /** Maximum number of sprites kept: every state of every pet type at two sizes. */
+    public static final int DEFAULT_CAPACITY = PetType.values().length * VirtualPet.PetState.values().length * 2;
+
+    // Stands for a sprite file that could not be read
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private static SpriteCache instance;
+
+    private final TextureAtlas atlas;
+    private final Map<Key, BufferedImage> sprites;
+    private int loadCount;
+
+    /**
+     * Creates a cache for the sprites under a resource directory.
+     *
+     * @param root     directory holding one subdirectory per pet type
+     * @param capacity maximum number of sprites kept
+     */
+    SpriteCache(File root, int capacity) {
+        this(new TextureAtlas(root), capacity);
+    }
+
+    /**
+     * Creates a cache for the sprites packed in an atlas.
+     *
+     * @param atlas    the atlas holding the sprites
+     * @param capacity maximum number of sprites kept
+     */
+    SpriteCache(TextureAtlas atlas, int capacity) {
+        this.atlas = atlas;
+        this.sprites = new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache for the game's {@code resources} directory.
+     *
+     * @return the shared SpriteCache instance
+     */
+    public static synchronized SpriteCache getInstance() {
+        if (instance == null) {
+            instance = new SpriteCache(TextureAtlas.getInstance(), DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a pet sprite scaled to the given size, reading it only the first time.
+     *
+     * @param petType pet type name, e.g. "duck" (case does not matter)
+     * @param state   the pet's state
+     * @param width   width to scale to, in pixels
+     * @param height  height to scale to, in pixels
+     * @return the scaled sprite, or null if its file is missing or unreadable
+     */
+    public synchronized BufferedImage get(String petType, VirtualPet.PetState state, int width, int height) {
+        Key key = new Key(petType.toLowerCase(), state, width, height);
+        BufferedImage sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = load(key);
+            sprites.put(key, sprite);
+        }
+        return sprite == MISSING ? null : sprite;
+    }
+
+    /**
+     * @return number of sprites currently cached
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * @return how many times a sprite was taken from the atlas, for checking that the cache is used
+     */
+    public synchronized int getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Drops all cached sprites, e.g. after the sprite files were replaced.
+     */
+    public synchronized void clear() {
+        sprites.clear();
+    }
+
+    /**
+     * Takes a sprite from the atlas and scales it if needed.
+     *
+     * @param key which sprite to take
+     * @return the scaled sprite, or {@link #MISSING}
+     */
+    private BufferedImage load(Key key) {
+        loadCount++;
+        BufferedImage source = atlas.getRegion(key.petType + "/" + key.state.name().toLowerCase() + ".png");
+        if (source == null) {
+            return MISSING;
+        }
+        if (source.getWidth() == key.width && source.getHeight() == key.height) {
+            return source;
+        }
+        return scale(source, key.width, key.height);
+    }
+
+    /**
+     * Scales an image smoothly. Large reductions are done in halving steps with bilinear
+     * filtering, which looks like {@link Image#SCALE_SMOOTH} but needs no image observer.
+     *
+     * @param source the image to scale
+     * @param width  target width
+     * @param height target height
+     * @return a new image of the target size with an alpha channel
+     */
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    /**
+     * Identifies a sprite: pet type, state and target size.
+     */
+    private static final class Key {
+        private final String petType;
+        private final VirtualPet.PetState state;
+        private final int width;
+        private final int height;
+
+        Key(String petType, VirtualPet.PetState state, int width, int height) {
+            this.petType = petType;
+            this.state = state;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return width == other.width && height == other.height
+                    && state == other.state && petType.equals(other.petType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(petType, state, width, height);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpriteCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private void writeSprite(String type, String state) throws IOException {
+        File typeDir = dir.resolve(type).toFile();
+        typeDir.mkdirs();
+        ImageIO.write(new BufferedImage(640, 480, BufferedImage.TYPE_INT_ARGB), "png",
+                new File(typeDir, state + ".png"));
+    }
+
+    @Test
+    void get_SecondRequest_ServedWithoutDecoding() throws IOException {
+        writeSprite("duck", "normal");
+        SpriteCache cache = new SpriteCache(dir.toFile(), 10);
+
+        BufferedImage first = cache.get("DUCK", VirtualPet.PetState.NORMAL, 200, 200);
+        assertEquals(200, first.getWidth());
+        assertEquals(200, first.getHeight());
+        for (int tick = 0; tick < 100; tick++) {
+            assertSame(first, cache.get("duck", VirtualPet.PetState.NORMAL, 200, 200));
+        }
+        assertEquals(1, cache.getLoadCount());
+
+        // Another size is a different entry
+        assertEquals(64, cache.get("duck", VirtualPet.PetState.NORMAL, 64, 64).getWidth());
+        assertEquals(2, cache.getLoadCount());
+    }
+
+    @Test
+    void get_Full_DropsLeastRecentlyUsed() throws IOException {
+        writeSprite("dog", "normal");
+        writeSprite("dog", "angry");
+        writeSprite("dog", "dead");
+        SpriteCache cache = new SpriteCache(dir.toFile(), 2);
+
+        cache.get("dog", VirtualPet.PetState.NORMAL, 50, 50);
+        cache.get("dog", VirtualPet.PetState.ANGRY, 50, 50);
+        cache.get("dog", VirtualPet.PetState.NORMAL, 50, 50);
+        cache.get("dog", VirtualPet.PetState.DEAD, 50, 50);
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getLoadCount());
+
+        cache.get("dog", VirtualPet.PetState.NORMAL, 50, 50);
+        assertEquals(3, cache.getLoadCount());
+        cache.get("dog", VirtualPet.PetState.ANGRY, 50, 50);
+        assertEquals(4, cache.getLoadCount());
+    }
+
+    @Test
+    void get_MissingSprite_NullAndNotRetried() {
+        SpriteCache cache = new SpriteCache(dir.toFile(), 10);
+
+        assertNull(cache.get("sheep", VirtualPet.PetState.HUNGRY, 200, 200));
+        assertNull(cache.get("sheep", VirtualPet.PetState.HUNGRY, 200, 200));
+        assertEquals(1, cache.getLoadCount());
+    }
+}
@@ -0,0 +1,368 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All pet sprites and UI icons packed into one image, with a manifest of where each one is.
+ * <p>
+ * The game has a sprite for every {@link PetType} and {@link VirtualPet.PetState}, in
+ * {@code resources/<type>/<state>.png}, plus the warning, home and setting icons. Instead of
+ * opening and decoding each file, they are packed once into {@value #IMAGE_FILE} with a JSON
+ * manifest {@value #MANIFEST_FILE}, and the game decodes just that one image. A packed image
+ * is a {@linkplain BufferedImage#getSubimage sub-image} of the atlas: drawing it draws that
+ * rectangle of the atlas and takes no memory of its own.
+ * <p>
+ * Pet sprites are packed at {@value #SPRITE_SIZE} pixels square and icons at
+ * {@value #ICON_SIZE}, the largest sizes the game draws them at. The atlas is built the first
+ * time the game runs, and again whenever a source file has changed, since the manifest records
+ * the size and modification time of each one. It can also be built ahead of time with
+ * {@code java TextureAtlas [resource directory]}.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ * BufferedImage sprite = TextureAtlas.getInstance().getRegion("duck/angry.png");
+ * }</pre>
+ * </p>
+ *
+ * @version 1.0
+ * @author agent
+ */
+public class TextureAtlas {
+
+    /** File name of the packed image, in the resource directory. */
+    public static final String IMAGE_FILE = "sprite_atlas.png";
+    /** File name of the manifest, in the resource directory. */
+    public static final String MANIFEST_FILE = "sprite_atlas.json";
+    /** Size pet sprites are packed at. */
+    public static final int SPRITE_SIZE = 200;
+    /** Size icons are packed at. */
+    public static final int ICON_SIZE = 50;
+
+    /** Maximum width of the atlas; images are packed in rows no wider than this. */
+    static final int MAX_WIDTH = 1024;
+    // Empty pixels around each image, so smooth scaling does not pick up its neighbours
+    private static final int PADDING = 1;
+    private static final int FORMAT_VERSION = 1;
+    private static final List<String> ICONS = List.of("warning.png", "home.png", "setting.png");
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static TextureAtlas instance;
+
+    private final File root;
+    private BufferedImage image;
+    private Map<String, Rectangle> regions;
+    private int fileReads;
+
+    /**
+     * Creates the atlas of the images in a resource directory. Nothing is read until an image
+     * is first asked for.
+     *
+     * @param root the resource directory, also where the atlas and manifest are kept
+     */
+    TextureAtlas(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the atlas of the game's {@code resources} directory.
+     *
+     * @return the shared TextureAtlas instance
+     */
+    public static synchronized TextureAtlas getInstance() {
+        if (instance == null) {
+            instance = new TextureAtlas(new File("resources"));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the names of the images that are packed, relative to the resource directory.
+     *
+     * @return the names, pet sprites first
+     */
+    public static List<String> packedNames() {
+        List<String> names = new ArrayList<>();
+        for (PetType type : PetType.values()) {
+            for (VirtualPet.PetState state : VirtualPet.PetState.values()) {
+                names.add(type.name().toLowerCase() + "/" + state.name().toLowerCase() + ".png");
+            }
+        }
+        names.addAll(ICONS);
+        return names;
+    }
+
+    /**
+     * Returns the packed name of an image file, or null if it is not packed in this atlas.
+     *
+     * @param path path of an image file, such as {@code "resources/duck/normal.png"}
+     * @return the name, such as {@code "duck/normal.png"}, or null
+     */
+    public String nameOf(String path) {
+        Path file = new File(path).toPath().toAbsolutePath().normalize();
+        Path dir = root.toPath().toAbsolutePath().normalize();
+        if (!file.startsWith(dir)) {
+            return null;
+        }
+        String name = dir.relativize(file).toString().replace('\\', '/');
+        return packedNames().contains(name) ? name : null;
+    }
+
+    /**
+     * Returns a packed image, loading or building the atlas the first time.
+     *
+     * @param name the image's packed name, such as {@code "duck/normal.png"}
+     * @return the image, which shares the atlas's pixels, or null if its source file was
+     *         missing or unreadable
+     */
+    public synchronized BufferedImage getRegion(String name) {
+        load();
+        Rectangle r = regions.get(name);
+        return r == null ? null : image.getSubimage(r.x, r.y, r.width, r.height);
+    }
+
+    /**
+     * @return the whole packed image, loading or building it the first time
+     */
+    public synchronized BufferedImage getImage() {
+        load();
+        return image;
+    }
+
+    /**
+     * @return how many image files were read for this atlas, for checking that a built atlas
+     *         is reused
+     */
+    public synchronized int getFileReads() {
+        return fileReads;
+    }
+
+    /**
+     * Reads the atlas and manifest if they are up to date, otherwise builds and writes them.
+     */
+    private void load() {
+        if (image != null) {
+            return;
+        }
+        File imageFile = new File(root, IMAGE_FILE);
+        File manifestFile = new File(root, MANIFEST_FILE);
+        Manifest manifest = readManifest(manifestFile);
+        if (manifest != null && manifest.isCurrent(root) && imageFile.isFile()) {
+            try {
+                fileReads++;
+                BufferedImage packed = ImageIO.read(imageFile);
+                Map<String, Rectangle> stored = manifest.regions();
+                Rectangle bounds = packed == null ? null : new Rectangle(packed.getWidth(), packed.getHeight());
+                if (bounds != null && stored.values().stream().allMatch(bounds::contains)) {
+                    image = packed;
+                    regions = stored;
+                    return;
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to read sprite atlas " + imageFile + ": " + e.getMessage());
+            }
+        }
+        build();
+        try {
+            write(imageFile, manifestFile);
+        } catch (IOException e) {
+            // The atlas is still used for this run, it is just built again next time
+            System.err.println("Failed to write sprite atlas " + imageFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every source image, scales it to its packed size and packs them into rows.
+     */
+    private void build() {
+        Map<String, BufferedImage> sources = new LinkedHashMap<>();
+        for (String name : packedNames()) {
+            File file = new File(root, name);
+            try {
+                fileReads++;
+                BufferedImage source = file.isFile() ? ImageIO.read(file) : null;
+                if (source == null) {
+                    System.err.println("Missing image " + file);
+                    continue;
+                }
+                int size = ICONS.contains(name) ? ICON_SIZE : SPRITE_SIZE;
+                sources.put(name, SpriteCache.scale(source, size, size));
+            } catch (IOException e) {
+                System.err.println("Failed to read image " + file + ": " + e.getMessage());
+            }
+        }
+
+        Map<String, Rectangle> packed = new LinkedHashMap<>();
+        sources.forEach((name, source) -> packed.put(name, new Rectangle(source.getWidth(), source.getHeight())));
+        Rectangle bounds = pack(packed.values());
+
+        BufferedImage atlas = new BufferedImage(Math.max(1, bounds.width), Math.max(1, bounds.height),
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        try {
+            packed.forEach((name, r) -> g.drawImage(sources.get(name), r.x, r.y, null));
+        } finally {
+            g.dispose();
+        }
+        image = atlas;
+        regions = packed;
+    }
+
+    /**
+     * Places rectangles in rows, tallest first: each row is filled from left to right up to
+     * {@link #MAX_WIDTH} and is as tall as its first rectangle.
+     *
+     * @param rects rectangles whose size is set; their positions are filled in
+     * @return the size of the area the rectangles were packed into
+     */
+    static Rectangle pack(Iterable<Rectangle> rects) {
+        List<Rectangle> sorted = new ArrayList<>();
+        rects.forEach(sorted::add);
+        sorted.sort(Comparator.comparingInt((Rectangle r) -> r.height).reversed());
+
+        int x = 0, y = 0, rowHeight = 0, width = 0;
+        for (Rectangle r : sorted) {
+            int w = r.width + 2 * PADDING;
+            int h = r.height + 2 * PADDING;
+            if (x > 0 && x + w > MAX_WIDTH) {
+                y += rowHeight;
+                x = 0;
+                rowHeight = 0;
+            }
+            r.setLocation(x + PADDING, y + PADDING);
+            x += w;
+            rowHeight = Math.max(rowHeight, h);
+            width = Math.max(width, x);
+        }
+        return new Rectangle(width, y + rowHeight);
+    }
+
+    /**
+     * Writes the atlas image and then its manifest, each to a temporary file that replaces
+     * the old one, so a manifest never describes an image that was only partly written.
+     */
+    private void write(File imageFile, File manifestFile) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.version = FORMAT_VERSION;
+        manifest.width = image.getWidth();
+        manifest.height = image.getHeight();
+        for (String name : packedNames()) {
+            Entry entry = new Entry();
+            File source = new File(root, name);
+            entry.modified = source.lastModified();
+            entry.length = source.isFile() ? source.length() : -1;
+            Rectangle r = regions.get(name);
+            if (r != null) {
+                entry.x = r.x;
+                entry.y = r.y;
+                entry.w = r.width;
+                entry.h = r.height;
+            }
+            manifest.entries.put(name, entry);
+        }
+
+        File tmpImage = new File(root, IMAGE_FILE + ".tmp");
+        if (!ImageIO.write(image, "png", tmpImage)) {
+            throw new IOException("no PNG writer");
+        }
+        Files.move(tmpImage.toPath(), imageFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        File tmpManifest = new File(root, MANIFEST_FILE + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmpManifest.toPath(), StandardCharsets.UTF_8)) {
+            gson.toJson(manifest, writer);
+        }
+        Files.move(tmpManifest.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Manifest readManifest(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Manifest.class);
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Ignoring sprite atlas manifest " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Builds the atlas of a resource directory ahead of time.
+     *
+     * @param args the resource directory, {@code resources} if not given
+     */
+    public static void main(String[] args) {
+        TextureAtlas atlas = new TextureAtlas(new File(args.length > 0 ? args[0] : "resources"));
+        BufferedImage packed = atlas.getImage();
+        System.out.println("Packed " + atlas.regions.size() + " images into "
+                + packed.getWidth() + "x" + packed.getHeight() + " " + new File(atlas.root, IMAGE_FILE));
+    }
+
+    /**
+     * The manifest as stored in JSON.
+     */
+    static class Manifest {
+        int version;
+        int width, height;
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        /**
+         * @return true if the manifest is in this format and lists the current source files
+         */
+        boolean isCurrent(File root) {
+            if (version != FORMAT_VERSION || entries == null || !entries.keySet().equals(new HashSet<>(packedNames()))) {
+                return false;
+            }
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                File source = new File(root, e.getKey());
+                long length = source.isFile() ? source.length() : -1;
+                if (e.getValue().length != length || (length >= 0 && e.getValue().modified != source.lastModified())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return where each packed image is, leaving out the missing ones
+         */
+        Map<String, Rectangle> regions() {
+            Map<String, Rectangle> regions = new LinkedHashMap<>();
+            entries.forEach((name, e) -> {
+                if (e.w > 0 && e.h > 0) {
+                    regions.put(name, new Rectangle(e.x, e.y, e.w, e.h));
+                }
+            });
+            return Collections.unmodifiableMap(regions);
+        }
+    }
+
+    /**
+     * One image in the manifest: where it is in the atlas, and the size and modification
+     * time of its source file, whose length is -1 if the file was missing.
+     */
+    static class Entry {
+        int x, y, w, h;
+        long modified;
+        long length;
+    }
+}
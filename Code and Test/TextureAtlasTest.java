@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextureAtlasTest {
+
+    @TempDir
+    Path dir;
+
+    private File writeImage(String name, Color color) throws IOException {
+        File file = dir.resolve(name).toFile();
+        file.getParentFile().mkdirs();
+        BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, 400, 400);
+        g.dispose();
+        ImageIO.write(image, "png", file);
+        return file;
+    }
+
+    @Test
+    void getRegion_FirstRun_BuildsAtlasThatNextRunReadsAlone() throws IOException {
+        writeImage("duck/normal.png", Color.RED);
+        writeImage("sheep/dead.png", Color.BLUE);
+        writeImage("home.png", Color.GREEN);
+
+        TextureAtlas first = new TextureAtlas(dir.toFile());
+        BufferedImage duck = first.getRegion("duck/normal.png");
+        assertEquals(TextureAtlas.SPRITE_SIZE, duck.getWidth());
+        assertEquals(TextureAtlas.ICON_SIZE, first.getRegion("home.png").getWidth());
+        assertNull(first.getRegion("dog/angry.png"));
+        assertTrue(dir.resolve(TextureAtlas.IMAGE_FILE).toFile().isFile());
+        assertTrue(dir.resolve(TextureAtlas.MANIFEST_FILE).toFile().isFile());
+
+        TextureAtlas second = new TextureAtlas(dir.toFile());
+        assertEquals(Color.BLUE.getRGB(), second.getRegion("sheep/dead.png").getRGB(100, 100));
+        assertEquals(Color.RED.getRGB(), second.getRegion("duck/normal.png").getRGB(0, 0));
+        assertEquals(1, second.getFileReads());
+    }
+
+    @Test
+    void getRegion_SourceChanged_AtlasRebuilt() throws IOException {
+        File duck = writeImage("duck/normal.png", Color.RED);
+        new TextureAtlas(dir.toFile()).getImage();
+
+        writeImage("duck/normal.png", Color.YELLOW);
+        duck.setLastModified(duck.lastModified() + 2000);
+        TextureAtlas atlas = new TextureAtlas(dir.toFile());
+        assertEquals(Color.YELLOW.getRGB(), atlas.getRegion("duck/normal.png").getRGB(100, 100));
+        assertTrue(atlas.getFileReads() > 1);
+
+        // A source that appears later is packed too
+        writeImage("dog/normal.png", Color.BLUE);
+        assertNotNull(new TextureAtlas(dir.toFile()).getRegion("dog/normal.png"));
+    }
+
+    @Test
+    void pack_MixedSizes_NoOverlapWithinMaxWidth() {
+        List<Rectangle> rects = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            rects.add(new Rectangle(200, 200));
+        }
+        for (int i = 0; i < 3; i++) {
+            rects.add(new Rectangle(50, 50));
+        }
+
+        Rectangle bounds = TextureAtlas.pack(rects);
+        assertTrue(bounds.width <= TextureAtlas.MAX_WIDTH);
+        for (int i = 0; i < rects.size(); i++) {
+            assertTrue(bounds.contains(rects.get(i)));
+            for (int j = i + 1; j < rects.size(); j++) {
+                assertFalse(rects.get(i).intersects(rects.get(j)), i + " overlaps " + j);
+            }
+        }
+    }
+}